@@ -0,0 +1,48 @@
+package com.fran.apigateway.app.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Tabla de rutas publicas (sin token) declarada en application.yml bajo gateway.access
+@Component
+@ConfigurationProperties(prefix = "gateway.access")
+public class AccessRulesProperties {
+
+    private List<Rule> publicRules = new ArrayList<>();
+
+    public List<Rule> getPublicRules() {
+        return publicRules;
+    }
+
+    public void setPublicRules(List<Rule> publicRules) {
+        this.publicRules = publicRules;
+    }
+
+    public static class Rule {
+
+        // Prefijo por segmentos: /api/v1/products cubre /api/v1/products y /api/v1/products/**
+        private String path;
+
+        // Metodos HTTP permitidos sin token; vacio = todos
+        private List<String> methods = new ArrayList<>();
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.fran.apigateway.app.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Clases de prioridad para el limite de concurrencia (gateway.concurrency en application.yml).
+// Lo que no encaje en high-priority ni low-priority es NORMAL.
+@Component
+@ConfigurationProperties(prefix = "gateway.concurrency")
+public class ConcurrencyLimitProperties {
+
+    // Parte del limite que puede ocupar cada prioridad; HIGH siempre puede usar el 100%
+    private double normalShare = 0.85;
+    private double lowShare = 0.6;
+
+    private List<AccessRulesProperties.Rule> highPriority = new ArrayList<>();
+    private List<AccessRulesProperties.Rule> lowPriority = new ArrayList<>();
+
+    public double getNormalShare() {
+        return normalShare;
+    }
+
+    public void setNormalShare(double normalShare) {
+        this.normalShare = normalShare;
+    }
+
+    public double getLowShare() {
+        return lowShare;
+    }
+
+    public void setLowShare(double lowShare) {
+        this.lowShare = lowShare;
+    }
+
+    public List<AccessRulesProperties.Rule> getHighPriority() {
+        return highPriority;
+    }
+
+    public void setHighPriority(List<AccessRulesProperties.Rule> highPriority) {
+        this.highPriority = highPriority;
+    }
+
+    public List<AccessRulesProperties.Rule> getLowPriority() {
+        return lowPriority;
+    }
+
+    public void setLowPriority(List<AccessRulesProperties.Rule> lowPriority) {
+        this.lowPriority = lowPriority;
+    }
+}
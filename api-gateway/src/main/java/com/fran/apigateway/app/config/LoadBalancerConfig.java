@@ -0,0 +1,10 @@
+package com.fran.apigateway.app.config;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+// Todas las rutas lb:// y el WebClient @LoadBalanced usan LeastLoadedLoadBalancer en vez del round-robin
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LeastLoadedLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
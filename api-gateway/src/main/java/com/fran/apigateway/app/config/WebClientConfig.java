@@ -0,0 +1,56 @@
+package com.fran.apigateway.app.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+// Cliente HTTP de larga vida para las llamadas del gateway a users-service (validate-token).
+// Pool de conexiones propio y acotado; sus metricas (reactor.netty.connection.provider.*) van a Micrometer.
+@Configuration
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider usersServiceConnectionProvider(
+            @Value("${gateway.users-service.client.max-connections:200}") int maxConnections,
+            @Value("${gateway.users-service.client.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${gateway.users-service.client.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${gateway.users-service.client.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${gateway.users-service.client.max-life-time:5m}") Duration maxLifeTime,
+            @Value("${gateway.users-service.client.evict-in-background:30s}") Duration evictInBackground) {
+        return ConnectionProvider.builder("users-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient usersServiceWebClient(@LoadBalanced WebClient.Builder webClientBuilder,
+            ConnectionProvider usersServiceConnectionProvider,
+            @Value("${gateway.users-service.client.connect-timeout:1s}") Duration connectTimeout,
+            @Value("${gateway.users-service.client.response-timeout:2s}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create(usersServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(responseTimeout);
+
+        // clone(): conserva el filtro de @LoadBalanced sin modificar el builder compartido
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
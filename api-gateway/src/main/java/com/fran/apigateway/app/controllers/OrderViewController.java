@@ -0,0 +1,47 @@
+package com.fran.apigateway.app.controllers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fran.apigateway.app.dtos.OrderViewDto;
+import com.fran.apigateway.app.errors.InvalidTokenException;
+import com.fran.apigateway.app.services.OrderViewService;
+import com.fran.apigateway.app.services.TokenValidationService;
+
+import reactor.core.publisher.Mono;
+
+// Endpoints de agregacion servidos por el propio gateway (no pasan por las rutas ni por AuthenticationFilter,
+// por eso validan el token aqui)
+@RestController
+@RequestMapping("/api/v1/views")
+public class OrderViewController {
+
+    private final OrderViewService orderViewService;
+    private final TokenValidationService tokenValidationService;
+
+    public OrderViewController(OrderViewService orderViewService, TokenValidationService tokenValidationService) {
+        this.orderViewService = orderViewService;
+        this.tokenValidationService = tokenValidationService;
+    }
+
+    @GetMapping("/orders/{id}")
+    public Mono<ResponseEntity<OrderViewDto>> getOrderView(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+        if (authHeader == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authorization header is missing"));
+        }
+
+        return tokenValidationService.validate(authHeader)
+                .onErrorMap(InvalidTokenException.class,
+                        e -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token validation failed"))
+                .flatMap(userEmail -> orderViewService.getOrderView(id, userEmail))
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,14 @@
+package com.fran.apigateway.app.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Pedido tal y como lo devuelve order-service (OrderResponseDto)
+public record OrderDto(
+    Long id,
+    String userEmail,
+    String status,
+    Double totalPrice,
+    LocalDateTime createdAt,
+    List<OrderItemDto> items
+) {}
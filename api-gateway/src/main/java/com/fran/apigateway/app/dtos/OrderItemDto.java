@@ -0,0 +1,9 @@
+package com.fran.apigateway.app.dtos;
+
+// Item tal y como lo devuelve order-service (OrderItemResponseDto)
+public record OrderItemDto(
+    String productId,
+    Integer quantity,
+    Double priceAtOrder,
+    Double subtotal
+) {}
@@ -0,0 +1,10 @@
+package com.fran.apigateway.app.dtos;
+
+// product = null si catalog-service no respondio a tiempo o el producto ya no existe
+public record OrderItemViewDto(
+    String productId,
+    Integer quantity,
+    Double priceAtOrder,
+    Double subtotal,
+    ProductDto product
+) {}
@@ -0,0 +1,17 @@
+package com.fran.apigateway.app.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Pedido + detalle de sus productos en una sola respuesta.
+// partial = true si falta algun producto (ids en missingProducts); el resto de la vista es valida.
+public record OrderViewDto(
+    Long id,
+    String userEmail,
+    String status,
+    Double totalPrice,
+    LocalDateTime createdAt,
+    List<OrderItemViewDto> items,
+    boolean partial,
+    List<String> missingProducts
+) {}
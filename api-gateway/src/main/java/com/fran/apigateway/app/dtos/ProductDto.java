@@ -0,0 +1,14 @@
+package com.fran.apigateway.app.dtos;
+
+import java.time.LocalDate;
+
+// Producto tal y como lo devuelve catalog-service (ProductResponseDto)
+public record ProductDto(
+    String id,
+    String name,
+    String description,
+    Double price,
+    Integer stock,
+    String category,
+    LocalDate createdAt
+) {}
@@ -0,0 +1,10 @@
+package com.fran.apigateway.app.dtos;
+
+import java.time.Instant;
+
+// Token revocado antes de su exp, tal y como lo devuelve users-service (/api/v1/security/revocations)
+public record RevokedTokenDto(
+    String jti,
+    Instant expiresAt,
+    Instant revokedAt
+) {}
@@ -0,0 +1,13 @@
+package com.fran.apigateway.app.errors;
+
+// Token ausente, mal formado, con firma incorrecta o caducado -> 401 en el gateway
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
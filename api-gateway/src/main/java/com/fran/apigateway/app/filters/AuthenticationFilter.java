@@ -1,46 +1,28 @@
 package com.fran.apigateway.app.filters;
 
-import java.util.List;
-
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-import org.springframework.http.HttpStatusCode;
-import org.springframework.http.HttpMethod; // Importado para HttpMethod
+
+import com.fran.apigateway.app.errors.InvalidTokenException;
+import com.fran.apigateway.app.services.TokenValidationService;
 
 import reactor.core.publisher.Mono;
 
 @Component
 public class AuthenticationFilter extends AbstractGatewayFilterFactory<AuthenticationFilter.Config> {
 
-    // ✅ Rutas públicas que se excluyen por inicio de ruta (incluye métodos no-GET)
-    private static final List<String> OPEN_API_ENDPOINTS = List.of(
-            "/api/v1/users/register",
-            "/api/v1/users/login",
-            "/api/v1/payments/", // Asegúrate de que termina en / o no para que coincida exactamente
-            "/actuator/",
-            "/eureka/"
-    );
-
-    private final WebClient.Builder webClientBuilder;
+    private final TokenValidationService tokenValidationService;
+    private final PublicRouteMatcher publicRouteMatcher;
 
-    public AuthenticationFilter(WebClient.Builder webClientBuilder) {
+    public AuthenticationFilter(TokenValidationService tokenValidationService, PublicRouteMatcher publicRouteMatcher) {
         super(Config.class);
-        this.webClientBuilder = webClientBuilder;
-    }
-    
-    // Nueva función para manejar la excepción del GET de Productos
-    private boolean isProductPublicGet(ServerWebExchange exchange) {
-        String path = exchange.getRequest().getURI().getPath();
-        HttpMethod method = exchange.getRequest().getMethod();
-
-        // Si es GET y la ruta empieza por /api/v1/products
-        return method == HttpMethod.GET && path.startsWith("/api/v1/products");
+        this.tokenValidationService = tokenValidationService;
+        this.publicRouteMatcher = publicRouteMatcher;
     }
 
     @Override
@@ -48,16 +30,10 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
         return (exchange, chain) -> {
             String requestPath = exchange.getRequest().getURI().getPath();
 
-            // 1. Verificar Rutas Públicas Incondicionales (login, register, payments, etc.)
-            // Usa una coincidencia más precisa para evitar que /payments/ se solape si lo tienes
-            if (OPEN_API_ENDPOINTS.stream().anyMatch(requestPath::startsWith)) {
+            // ✅ Rutas públicas (login, register, payments, GET de productos...) definidas en gateway.access
+            if (publicRouteMatcher.isPublic(exchange.getRequest().getMethod(), requestPath)) {
                 return chain.filter(exchange);
             }
-            
-            // 2. Verificar Rutas Públicas Condicionales (GET de Productos)
-            if (isProductPublicGet(exchange)) {
-                return chain.filter(exchange); // <-- Permitir la petición GET sin token
-            }
 
             // A partir de aquí, todas las peticiones requieren token (incluyendo POST/PUT/DELETE de productos)
             
@@ -68,25 +44,8 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
 
             String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
 
-            // 🔄 Llamar al users-service para validar el token
-            Mono<String> validationMono = webClientBuilder.build()
-                    .get()
-                    .uri("http://users-service/api/v1/security/validate-token")
-                    .header(HttpHeaders.AUTHORIZATION, authHeader)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::is4xxClientError, response -> 
-                        Mono.error(new WebClientResponseException(
-                            response.statusCode().value(), 
-                            "Token validation failed in Users-Service", 
-                            response.headers().asHttpHeaders(), 
-                            null, 
-                            null
-                        ))
-                    )
-                    .onStatus(HttpStatusCode::is5xxServerError, response -> 
-                        Mono.error(new Exception("Users-Service Internal Error"))
-                    )
-                    .bodyToMono(String.class);
+            // 🔐 Validar el token: en local (firma + expiracion) o llamando al users-service segun configuracion
+            Mono<String> validationMono = tokenValidationService.validate(authHeader);
 
             return validationMono.flatMap(userEmail -> {
                 // Añade el email al request para que lo reciban los microservicios
@@ -96,6 +55,9 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
 
                 return chain.filter(mutatedExchange);
             })
+            .onErrorResume(InvalidTokenException.class, e -> {
+                return this.onError(exchange, "Token validation failed", HttpStatus.UNAUTHORIZED);
+            })
             .onErrorResume(WebClientResponseException.class, e -> {
                 return this.onError(exchange, "Token validation failed", HttpStatus.UNAUTHORIZED);
             })
@@ -0,0 +1,101 @@
+package com.fran.apigateway.app.filters;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import com.fran.apigateway.app.services.AdaptiveConcurrencyLimiter;
+import com.fran.apigateway.app.services.AdaptiveConcurrencyLimiter.Priority;
+import com.fran.apigateway.app.services.ConcurrencyLimiterRegistry;
+
+import reactor.core.publisher.SignalType;
+
+// Limite adaptativo de peticiones en vuelo por servicio de destino (todas sus rutas comparten limite). Si el servicio se degrada el limite baja y lo que no cabe
+// se rechaza al momento con 503 en vez de encolarse hasta el timeout. Las peticiones LOW se descartan antes
+// que las NORMAL y estas antes que las HIGH (webhooks de pago, crear pedido).
+@Component
+public class ConcurrencyLimitFilter extends AbstractGatewayFilterFactory<ConcurrencyLimitFilter.Config> {
+
+    // Despues de AuthenticationFilter y RateLimitFilter: solo ocupa hueco lo que de verdad va a ir al servicio
+    private static final int CONCURRENCY_LIMIT_FILTER_ORDER = 20;
+
+    private final ConcurrencyLimiterRegistry registry;
+    private final RequestPriorityClassifier priorityClassifier;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimiterRegistry registry, RequestPriorityClassifier priorityClassifier) {
+        super(Config.class);
+        this.registry = registry;
+        this.priorityClassifier = priorityClassifier;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            String backend = ConcurrencyLimiterRegistry.backendOf(route);
+
+            AdaptiveConcurrencyLimiter limiter = registry.forBackend(backend, config.getInitialLimit(),
+                    config.getMinLimit(), config.getMaxLimit());
+            Priority priority = priorityClassifier.classify(request.getMethod(), request.getURI().getPath());
+
+            if (!limiter.tryAcquire(priority)) {
+                registry.recordShed(backend, priority);
+                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                exchange.getResponse().getHeaders().add("X-Error-Reason", "Gateway over capacity");
+                return exchange.getResponse().setComplete();
+            }
+
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    limiter.release();
+                    return;
+                }
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean dropped = signal == SignalType.ON_ERROR
+                        || (status != null && (status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                                || status.value() == HttpStatus.GATEWAY_TIMEOUT.value()));
+                limiter.onSample(System.nanoTime() - start, dropped);
+            });
+        }, CONCURRENCY_LIMIT_FILTER_ORDER);
+    }
+
+    public static class Config {
+
+        private int initialLimit = 50;
+        private int minLimit = 5;
+        private int maxLimit = 500;
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+}
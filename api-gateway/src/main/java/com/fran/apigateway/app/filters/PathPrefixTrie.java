@@ -0,0 +1,138 @@
+package com.fran.apigateway.app.filters;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpMethod;
+
+import com.fran.apigateway.app.config.AccessRulesProperties;
+
+// Trie de prefijos por segmento de ruta, con una raiz por metodo HTTP (y otra para "cualquier metodo").
+// Se compila una vez y es inmutable: la busqueda recorre el path con indices, sin substring ni split.
+public final class PathPrefixTrie {
+
+    private final Node anyMethodRoot;
+    private final Map<HttpMethod, Node> methodRoots;
+
+    private PathPrefixTrie(Node anyMethodRoot, Map<HttpMethod, Node> methodRoots) {
+        this.anyMethodRoot = anyMethodRoot;
+        this.methodRoots = methodRoots;
+    }
+
+    public static PathPrefixTrie compile(List<AccessRulesProperties.Rule> rules) {
+        NodeBuilder anyMethod = new NodeBuilder();
+        Map<HttpMethod, NodeBuilder> byMethod = new LinkedHashMap<>();
+
+        for (AccessRulesProperties.Rule rule : rules) {
+            if (rule.getPath() == null || rule.getPath().isBlank()) {
+                throw new IllegalArgumentException("Regla de ruta con path vacio");
+            }
+            if (rule.getMethods() == null || rule.getMethods().isEmpty()) {
+                anyMethod.insert(rule.getPath());
+            } else {
+                for (String method : rule.getMethods()) {
+                    byMethod.computeIfAbsent(HttpMethod.valueOf(method.trim().toUpperCase()), m -> new NodeBuilder())
+                            .insert(rule.getPath());
+                }
+            }
+        }
+
+        Map<HttpMethod, Node> methodRoots = new HashMap<>();
+        byMethod.forEach((method, builder) -> methodRoots.put(method, builder.build()));
+        return new PathPrefixTrie(anyMethod.build(), methodRoots);
+    }
+
+    public boolean matches(HttpMethod method, String path) {
+        if (matches(anyMethodRoot, path)) {
+            return true;
+        }
+        Node root = method != null ? methodRoots.get(method) : null;
+        return root != null && matches(root, path);
+    }
+
+    private static boolean matches(Node root, String path) {
+        if (root.terminal) {
+            return true;
+        }
+
+        int length = path.length();
+        int start = (length > 0 && path.charAt(0) == '/') ? 1 : 0;
+        Node node = root;
+
+        while (start <= length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+
+            node = node.child(path, start, end - start);
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+            if (end == length) {
+                return false;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static final class Node {
+
+        private final String[] segments;
+        private final Node[] children;
+        // Una regla termina aqui: el path coincide con este prefijo o cuelga de el
+        private final boolean terminal;
+
+        private Node(String[] segments, Node[] children, boolean terminal) {
+            this.segments = segments;
+            this.children = children;
+            this.terminal = terminal;
+        }
+
+        // Pocas ramas por nivel: busqueda lineal comparando la region del path sin crear Strings
+        private Node child(String path, int offset, int length) {
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.length() == length && path.regionMatches(offset, segment, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class NodeBuilder {
+
+        private final Map<String, NodeBuilder> children = new LinkedHashMap<>();
+        private boolean terminal;
+
+        private void insert(String path) {
+            NodeBuilder node = this;
+            for (String segment : path.trim().split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                node = node.children.computeIfAbsent(segment, s -> new NodeBuilder());
+            }
+            node.terminal = true;
+        }
+
+        private Node build() {
+            String[] segments = new String[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<String, NodeBuilder> entry : children.entrySet()) {
+                segments[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+            return new Node(segments, nodes, terminal);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.fran.apigateway.app.filters;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import com.fran.apigateway.app.config.AccessRulesProperties;
+
+// Decide si una peticion puede pasar sin token segun gateway.access.public-rules.
+// Las reglas se compilan al arrancar y se recompilan tras POST /actuator/refresh.
+@Component
+public class PublicRouteMatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicRouteMatcher.class);
+
+    private final AccessRulesProperties properties;
+    private volatile PathPrefixTrie trie;
+
+    public PublicRouteMatcher(AccessRulesProperties properties) {
+        this.properties = properties;
+        this.trie = PathPrefixTrie.compile(properties.getPublicRules());
+    }
+
+    public boolean isPublic(HttpMethod method, String path) {
+        return trie.matches(method, path);
+    }
+
+    // Se publica cuando el refresh ya ha re-enlazado las @ConfigurationProperties
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reload() {
+        try {
+            this.trie = PathPrefixTrie.compile(properties.getPublicRules());
+            logger.info("Reglas de acceso publico recargadas: {} reglas", properties.getPublicRules().size());
+        } catch (IllegalArgumentException e) {
+            // Una regla mal escrita no debe dejar el gateway sin reglas: mantenemos las anteriores
+            logger.error("Reglas de acceso publico invalidas, se mantienen las anteriores: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.fran.apigateway.app.filters;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import com.fran.apigateway.app.services.RateLimitStore;
+
+// Rate limit por ruta sin almacen externo: replenish-rate peticiones por period, con rafagas de hasta burst-capacity.
+// Clave: X-User-Email (lo pone AuthenticationFilter tras validar el token) o la IP del cliente en rutas publicas.
+// Al superar el limite -> 429 con Retry-After en segundos.
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    // Despues de AuthenticationFilter (default-filter, orden 1) para que X-User-Email ya sea el del token
+    private static final int RATE_LIMIT_FILTER_ORDER = 10;
+
+    private final RateLimitStore store;
+    private final PublicRouteMatcher publicRouteMatcher;
+    private final boolean trustForwardedFor;
+
+    public RateLimitFilter(RateLimitStore store, PublicRouteMatcher publicRouteMatcher,
+            @Value("${gateway.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor) {
+        super(Config.class);
+        this.store = store;
+        this.publicRouteMatcher = publicRouteMatcher;
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getReplenishRate() <= 0 || config.getPeriod().isZero() || config.getPeriod().isNegative()) {
+            throw new IllegalArgumentException("RateLimitFilter: replenish-rate y period deben ser positivos");
+        }
+        long emissionIntervalNanos = Math.max(1, config.getPeriod().toNanos() / config.getReplenishRate());
+        int burstCapacity = config.getBurstCapacity() > 0 ? config.getBurstCapacity() : config.getReplenishRate();
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "unknown";
+
+            long waitNanos = store.tryAcquire(routeId, resolveKey(request), emissionIntervalNanos, burstCapacity);
+            if (waitNanos == 0) {
+                return chain.filter(exchange);
+            }
+
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().add(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            exchange.getResponse().getHeaders().add("X-Error-Reason", "Rate limit exceeded");
+            return exchange.getResponse().setComplete();
+        }, RATE_LIMIT_FILTER_ORDER);
+    }
+
+    // En rutas publicas no hay token: X-User-Email lo podria inventar el cliente, asi que se usa la IP
+    private String resolveKey(ServerHttpRequest request) {
+        if (!publicRouteMatcher.isPublic(request.getMethod(), request.getURI().getPath())) {
+            String userEmail = request.getHeaders().getFirst("X-User-Email");
+            if (userEmail != null) {
+                return "user:" + userEmail;
+            }
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    private String clientIp(ServerHttpRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma >= 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+            }
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null) {
+            return "unknown";
+        }
+        return remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress()
+                : remoteAddress.getHostString();
+    }
+
+    public static class Config {
+
+        private int replenishRate = 10;
+        private Duration period = Duration.ofSeconds(1);
+        private int burstCapacity;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.fran.apigateway.app.filters;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import com.fran.apigateway.app.config.ConcurrencyLimitProperties;
+import com.fran.apigateway.app.services.AdaptiveConcurrencyLimiter.Priority;
+
+// Prioridad de una peticion segun gateway.concurrency.high-priority / low-priority (mismo formato que gateway.access).
+// Se recompila tras POST /actuator/refresh, igual que PublicRouteMatcher.
+@Component
+public class RequestPriorityClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestPriorityClassifier.class);
+
+    private final ConcurrencyLimitProperties properties;
+    private volatile PathPrefixTrie highPriority;
+    private volatile PathPrefixTrie lowPriority;
+
+    public RequestPriorityClassifier(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.highPriority = PathPrefixTrie.compile(properties.getHighPriority());
+        this.lowPriority = PathPrefixTrie.compile(properties.getLowPriority());
+    }
+
+    public Priority classify(HttpMethod method, String path) {
+        if (highPriority.matches(method, path)) {
+            return Priority.HIGH;
+        }
+        if (lowPriority.matches(method, path)) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reload() {
+        try {
+            PathPrefixTrie high = PathPrefixTrie.compile(properties.getHighPriority());
+            PathPrefixTrie low = PathPrefixTrie.compile(properties.getLowPriority());
+            this.highPriority = high;
+            this.lowPriority = low;
+            logger.info("Prioridades de concurrencia recargadas: {} high, {} low", properties.getHighPriority().size(),
+                    properties.getLowPriority().size());
+        } catch (IllegalArgumentException e) {
+            logger.error("Prioridades de concurrencia invalidas, se mantienen las anteriores: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.fran.apigateway.app.filters;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fran.apigateway.app.services.ResponseCacheStore;
+import com.fran.apigateway.app.services.ResponseCacheStore.CachedResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Cache en el gateway para GET publicos (catalogo). Por ruta: ttl y ventana stale-while-revalidate.
+// - Fresca: se sirve desde memoria (304 si el cliente manda If-None-Match con el mismo ETag).
+// - Stale dentro de la ventana: se sirve igualmente y se revalida en segundo plano contra el servicio
+//   (If-None-Match si el servicio dio ETag), asi un catalog-service lento o caido no afecta al cliente.
+// - Respeta Cache-Control del servicio: no-store/no-cache/private no se guardan, max-age/s-maxage fijan el ttl.
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)\\s*=\\s*(\\d+)");
+    private static final List<String> NOT_STORED_HEADERS = List.of(
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.DATE, HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.AGE, CACHE_STATUS_HEADER);
+
+    private final ResponseCacheStore store;
+    private final PublicRouteMatcher publicRouteMatcher;
+    private final WebClient revalidationClient;
+    private final Duration revalidationTimeout;
+    private final long maxEntryBytes;
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    public ResponseCacheFilter(ResponseCacheStore store, PublicRouteMatcher publicRouteMatcher,
+            @LoadBalanced WebClient.Builder webClientBuilder,
+            @Value("${gateway.response-cache.revalidation-timeout:5s}") Duration revalidationTimeout,
+            @Value("${gateway.response-cache.max-entry-size:1MB}") DataSize maxEntrySize) {
+        super(Config.class);
+        this.store = store;
+        this.publicRouteMatcher = publicRouteMatcher;
+        this.revalidationClient = webClientBuilder.clone().build();
+        this.revalidationTimeout = revalidationTimeout;
+        this.maxEntryBytes = maxEntrySize.toBytes();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        long ttlNanos = config.getTtl().toNanos();
+        long staleNanos = config.getStaleWhileRevalidate().toNanos();
+
+        // Antes que NettyWriteResponseFilter para poder envolver la respuesta que este escribe
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "unknown";
+
+            if (request.getMethod() != HttpMethod.GET) {
+                // Escrituras (alta/edicion/borrado de productos) invalidan los GET cacheados de la ruta
+                return chain.filter(exchange).doOnSuccess(done -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is2xxSuccessful()) {
+                        store.invalidateRoute(routeId);
+                    }
+                });
+            }
+
+            // Nunca servimos desde cache algo que requiere token
+            if (!publicRouteMatcher.isPublic(HttpMethod.GET, request.getURI().getPath())
+                    || hasDirective(request.getHeaders().getCacheControl(), "no-store")) {
+                return chain.filter(exchange);
+            }
+
+            String rawQuery = request.getURI().getRawQuery();
+            String key = routeId + " " + request.getURI().getRawPath() + (rawQuery != null ? "?" + rawQuery : "");
+            long now = System.nanoTime();
+
+            CachedResponse cached = store.get(key);
+            if (cached != null) {
+                if (cached.isFresh(now)) {
+                    return serveFromCache(exchange, routeId, cached, ResponseCacheStore.RESULT_HIT, now);
+                }
+                revalidateInBackground(route, request.getURI(), key, cached, ttlNanos, staleNanos);
+                return serveFromCache(exchange, routeId, cached, ResponseCacheStore.RESULT_STALE, now);
+            }
+
+            ServerHttpResponse cachingResponse = new CachingResponse(exchange.getResponse(), routeId, key, ttlNanos,
+                    staleNanos);
+            return chain.filter(exchange.mutate().response(cachingResponse).build());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> serveFromCache(ServerWebExchange exchange, String routeId, CachedResponse cached,
+            String result, long now) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.setETag(cached.etag());
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds(now)));
+        headers.set(CACHE_STATUS_HEADER, result.toUpperCase());
+
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().contains(cached.etag())) {
+            store.record(routeId, result, 0);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+        headers.setContentLength(cached.body().length);
+        store.record(routeId, result, cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    // Una sola revalidacion por clave a la vez; si falla o tarda se sigue sirviendo la copia stale
+    private void revalidateInBackground(Route route, URI requestUri, String key, CachedResponse cached,
+            long ttlNanos, long staleNanos) {
+        if (route == null || !"lb".equals(route.getUri().getScheme()) || !revalidating.add(key)) {
+            return;
+        }
+
+        URI upstreamUri = UriComponentsBuilder.fromUri(route.getUri())
+                .scheme("http")
+                .replacePath(requestUri.getRawPath())
+                .replaceQuery(requestUri.getRawQuery())
+                .build(true)
+                .toUri();
+        String upstreamEtag = cached.headers().getETag();
+
+        revalidationClient.get()
+                .uri(upstreamUri)
+                .headers(headers -> {
+                    if (upstreamEtag != null) {
+                        headers.setIfNoneMatch(upstreamEtag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                        store.put(key, cached.revalidated(System.nanoTime()));
+                        return response.releaseBody();
+                    }
+                    if (response.statusCode().value() == HttpStatus.OK.value()) {
+                        HttpHeaders upstreamHeaders = response.headers().asHttpHeaders();
+                        return response.bodyToMono(byte[].class)
+                                .defaultIfEmpty(new byte[0])
+                                .doOnNext(body -> {
+                                    CachedResponse fresh = toCachedResponse(HttpStatus.OK.value(), upstreamHeaders,
+                                            body, ttlNanos, staleNanos);
+                                    if (fresh != null) {
+                                        store.put(key, fresh);
+                                    }
+                                })
+                                .then();
+                    }
+                    return response.releaseBody();
+                })
+                .timeout(revalidationTimeout)
+                .doFinally(signal -> revalidating.remove(key))
+                .subscribe(done -> {
+                }, e -> logger.debug("No se pudo revalidar {}: {}", key, e.getMessage()));
+    }
+
+    // null si la respuesta no se puede guardar segun sus cabeceras
+    private CachedResponse toCachedResponse(int status, HttpHeaders upstreamHeaders, byte[] body, long defaultTtlNanos,
+            long staleNanos) {
+        if (!isStorable(upstreamHeaders) || body.length > maxEntryBytes) {
+            return null;
+        }
+
+        long ttlNanos = defaultTtlNanos;
+        Matcher maxAge = MAX_AGE.matcher(upstreamHeaders.getCacheControl() != null ? upstreamHeaders.getCacheControl() : "");
+        if (maxAge.find()) {
+            ttlNanos = Duration.ofSeconds(Long.parseLong(maxAge.group(1))).toNanos();
+        }
+        if (ttlNanos <= 0) {
+            return null;
+        }
+
+        HttpHeaders stored = new HttpHeaders();
+        upstreamHeaders.forEach((name, values) -> {
+            if (NOT_STORED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                stored.put(name, values);
+            }
+        });
+
+        String etag = upstreamHeaders.getETag() != null
+                ? upstreamHeaders.getETag()
+                : "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(stored), body, etag, System.nanoTime(),
+                ttlNanos, staleNanos);
+    }
+
+    private static boolean isStorable(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && !hasDirective(cacheControl, "no-store")
+                && !hasDirective(cacheControl, "no-cache")
+                && !hasDirective(cacheControl, "private");
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        return cacheControl != null && cacheControl.toLowerCase().contains(directive);
+    }
+
+    // Deja pasar el cuerpo tal cual hacia el cliente y se queda una copia para la cache (hasta max-entry-size)
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String routeId;
+        private final String key;
+        private final long ttlNanos;
+        private final long staleNanos;
+
+        CachingResponse(ServerHttpResponse delegate, String routeId, String key, long ttlNanos, long staleNanos) {
+            super(delegate);
+            this.routeId = routeId;
+            this.key = key;
+            this.ttlNanos = ttlNanos;
+            this.staleNanos = staleNanos;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            store.record(routeId, ResponseCacheStore.RESULT_MISS, 0);
+            getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+
+            HttpStatusCode status = getStatusCode();
+            long contentLength = getHeaders().getContentLength();
+            if (status == null || status.value() != HttpStatus.OK.value() || !isStorable(getHeaders())
+                    || contentLength > maxEntryBytes) {
+                return super.writeWith(body);
+            }
+
+            // Copia de las cabeceras antes del commit: despues Spring Security anade su Cache-Control no-store
+            HttpHeaders upstreamHeaders = new HttpHeaders();
+            upstreamHeaders.addAll(getHeaders());
+
+            ByteArrayOutputStream copy = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 1024);
+            boolean[] overflow = { false };
+
+            Flux<? extends DataBuffer> teed = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        if (overflow[0]) {
+                            return;
+                        }
+                        int readable = buffer.readableByteCount();
+                        if (copy.size() + readable > maxEntryBytes) {
+                            overflow[0] = true;
+                            return;
+                        }
+                        int position = buffer.readPosition();
+                        byte[] chunk = new byte[readable];
+                        buffer.read(chunk);
+                        buffer.readPosition(position);
+                        copy.writeBytes(chunk);
+                    })
+                    .doOnComplete(() -> {
+                        if (!overflow[0]) {
+                            CachedResponse entry = toCachedResponse(status.value(), upstreamHeaders,
+                                    copy.toByteArray(), ttlNanos, staleNanos);
+                            if (entry != null) {
+                                store.put(key, entry);
+                            }
+                        }
+                    });
+
+            return super.writeWith(teed);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).flatMapSequential(publisher -> publisher));
+        }
+    }
+
+    public static class Config {
+
+        private Duration ttl = Duration.ofSeconds(30);
+        private Duration staleWhileRevalidate = Duration.ofSeconds(60);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+    }
+}
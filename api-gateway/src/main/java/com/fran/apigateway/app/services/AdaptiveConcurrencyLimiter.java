@@ -0,0 +1,112 @@
+package com.fran.apigateway.app.services;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Limite de peticiones en vuelo hacia un servicio que se ajusta solo segun la latencia observada (algoritmo gradiente).
+// - longRtt: media lenta (latencia "sin carga"); shortRtt: media rapida (latencia actual).
+// - gradiente = longRtt / shortRtt acotado a [0.5, 1]: si la latencia sube el limite baja, si se mantiene crece
+//   poco a poco (+ sqrt(limite) de margen de cola).
+// - Cada prioridad solo puede ocupar su parte del limite: lo que queda libre es el hueco reservado para HIGH.
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        HIGH, NORMAL, LOW
+    }
+
+    private static final double SHORT_RTT_ALPHA = 0.1;
+    private static final double LONG_RTT_ALPHA = 1.0 / 500;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double normalShare;
+    private final double lowShare;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double normalShare,
+            double lowShare) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limites de concurrencia invalidos: min=" + minLimit + " max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.normalShare = normalShare;
+        this.lowShare = lowShare;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    // Reserva un hueco; false = la peticion se descarta (503) sin llegar al servicio
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * share(priority)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Libera el hueco sin muestra de latencia (peticion cancelada por el cliente)
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    // Libera el hueco y ajusta el limite. dropped = timeout/error/503 del servicio -> se reduce el limite
+    public void onSample(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        synchronized (this) {
+            double current = limit;
+            if (dropped) {
+                limit = Math.max(minLimit, current * DROP_BACKOFF);
+                return;
+            }
+
+            if (longRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+            } else {
+                shortRttNanos += (rttNanos - shortRttNanos) * SHORT_RTT_ALPHA;
+                longRttNanos += (rttNanos - longRttNanos) * LONG_RTT_ALPHA;
+            }
+            // Si la latencia lleva tiempo alta se acepta como nueva referencia para no quedarse en el minimo
+            if (longRttNanos / shortRttNanos > 2) {
+                longRttNanos *= 0.95;
+            }
+
+            // Con poco trafico la latencia no dice nada de la capacidad: no se sube el limite
+            if (inFlightAtCompletion < current / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRttNanos));
+            double target = current * gradient + Math.sqrt(current);
+            double smoothed = current * (1 - SMOOTHING) + target * SMOOTHING;
+            limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private double share(Priority priority) {
+        return switch (priority) {
+            case HIGH -> 1.0;
+            case NORMAL -> normalShare;
+            case LOW -> lowShare;
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.fran.apigateway.app.services;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+
+import com.fran.apigateway.app.config.ConcurrencyLimitProperties;
+import com.fran.apigateway.app.services.AdaptiveConcurrencyLimiter.Priority;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Un limitador adaptativo por servicio de destino (authority de la uri de la ruta: lb://catalog-service ->
+// catalog-service), compartido por todas las rutas que van a el: la capacidad que se mide es la del servicio.
+// Exporta gateway.concurrency.limit / in.flight (gauges) y gateway.concurrency.shed{backend,priority}
+// (peticiones descartadas con 503).
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrencyLimitProperties properties;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> shedCounters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiterRegistry(MeterRegistry meterRegistry, ConcurrencyLimitProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    // La configuracion del primer filtro que llega a un servicio es la que vale para todas sus rutas
+    public AdaptiveConcurrencyLimiter forBackend(String backend, int initialLimit, int minLimit, int maxLimit) {
+        return limiters.computeIfAbsent(backend, id -> {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                    properties.getNormalShare(), properties.getLowShare());
+            Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Limite actual de peticiones en vuelo por servicio")
+                    .tag("backend", id)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Peticiones en vuelo por servicio")
+                    .tag("backend", id)
+                    .register(meterRegistry);
+            return limiter;
+        });
+    }
+
+    public void recordShed(String backend, Priority priority) {
+        shedCounters.computeIfAbsent(backend + " " + priority, key -> Counter.builder("gateway.concurrency.shed")
+                .description("Peticiones descartadas con 503 por exceso de concurrencia")
+                .tag("backend", backend)
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry))
+                .increment();
+    }
+
+    public static String backendOf(Route route) {
+        if (route == null) {
+            return "unknown";
+        }
+        URI uri = route.getUri();
+        return uri != null && uri.getAuthority() != null ? uri.getAuthority() : route.getId();
+    }
+}
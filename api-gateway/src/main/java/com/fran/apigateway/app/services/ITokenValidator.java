@@ -0,0 +1,9 @@
+package com.fran.apigateway.app.services;
+
+import reactor.core.publisher.Mono;
+
+public interface ITokenValidator {
+
+    // Devuelve el email (subject) del token o un error si no es valido
+    Mono<String> validate(String token);
+}
@@ -0,0 +1,144 @@
+package com.fran.apigateway.app.services;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.stereotype.Component;
+
+// Carga observada de cada instancia (Eureka): peticiones en vuelo + EWMA de latencia.
+// Es un LoadBalancerLifecycle, asi que lo alimentan tanto las rutas lb:// como el WebClient @LoadBalanced.
+@Component
+public class InstanceLoadTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private static final double EWMA_ALPHA = 0.2;
+    // Suelo de latencia: una instancia sin muestras no puede tener coste 0 o se llevaria todo el trafico
+    private static final long MIN_LATENCY_NANOS = Duration.ofMillis(1).toNanos();
+    private static final long PURGE_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final long decayNanos;
+    private final long outstandingTimeoutNanos;
+    private final long failurePenaltyNanos;
+
+    public InstanceLoadTracker(
+            @Value("${gateway.loadbalancer.latency-decay:10s}") Duration latencyDecay,
+            @Value("${gateway.loadbalancer.outstanding-timeout:60s}") Duration outstandingTimeout,
+            @Value("${gateway.loadbalancer.failure-penalty:1s}") Duration failurePenalty) {
+        this.decayNanos = latencyDecay.toNanos();
+        this.outstandingTimeoutNanos = outstandingTimeout.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse != null && lbResponse.hasServer()) {
+            statsFor(lbResponse.getServer()).start(request, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED;
+        statsFor(lbResponse.getServer()).finish(completionContext.getLoadBalancerRequest(), failed, System.nanoTime());
+    }
+
+    // Menor es mejor: latencia esperada * (peticiones en vuelo + 1)
+    public double cost(ServiceInstance instance) {
+        InstanceStats instanceStats = stats.get(key(instance));
+        if (instanceStats == null) {
+            return MIN_LATENCY_NANOS;
+        }
+        return instanceStats.cost(System.nanoTime());
+    }
+
+    public int outstanding(ServiceInstance instance) {
+        InstanceStats instanceStats = stats.get(key(instance));
+        return instanceStats != null ? instanceStats.outstanding.size() : 0;
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new InstanceStats());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId()
+                : instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    private class InstanceStats {
+
+        // Por identidad de la peticion: si el cliente cancela no llega onComplete y la entrada caduca sola
+        private final Map<RequestKey, Long> outstanding = new ConcurrentHashMap<>();
+        private volatile long lastPurgeNanos;
+        private double ewmaNanos;
+        private long lastSampleNanos;
+
+        void start(Request<?> request, long now) {
+            outstanding.put(new RequestKey(request), now);
+        }
+
+        void finish(Request<?> request, boolean failed, long now) {
+            Long startedAt = outstanding.remove(new RequestKey(request));
+            if (startedAt == null) {
+                return;
+            }
+            long latency = failed ? Math.max(now - startedAt, failurePenaltyNanos) : now - startedAt;
+            synchronized (this) {
+                ewmaNanos = lastSampleNanos == 0 ? latency : ewmaNanos + (latency - ewmaNanos) * EWMA_ALPHA;
+                lastSampleNanos = now;
+            }
+        }
+
+        double cost(long now) {
+            purgeAbandoned(now);
+            double latency;
+            synchronized (this) {
+                // Sin trafico reciente la latencia guardada pierde peso para volver a probar la instancia
+                double decay = lastSampleNanos == 0 ? 0 : Math.exp(-(double) (now - lastSampleNanos) / decayNanos);
+                latency = Math.max(MIN_LATENCY_NANOS, ewmaNanos * decay);
+            }
+            return latency * (outstanding.size() + 1);
+        }
+
+        private void purgeAbandoned(long now) {
+            if (now - lastPurgeNanos < PURGE_INTERVAL_NANOS) {
+                return;
+            }
+            lastPurgeNanos = now;
+            outstanding.values().removeIf(startedAt -> now - startedAt > outstandingTimeoutNanos);
+        }
+    }
+
+    private record RequestKey(Request<?> request) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RequestKey key && key.request == request;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(request);
+        }
+    }
+}
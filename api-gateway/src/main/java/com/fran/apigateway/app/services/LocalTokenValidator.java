@@ -0,0 +1,136 @@
+package com.fran.apigateway.app.services;
+
+import java.security.Key;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.fran.apigateway.app.errors.InvalidTokenException;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import reactor.core.publisher.Mono;
+
+// Verifica en el propio gateway los tokens firmados por el JwtService de users-service (HS256).
+// Tokens sin kid -> jwt.secret; con kid -> jwt.keys.<kid> (mismas claves que users-service, recargables con refresh).
+// Los tokens revocados en users-service (logout) se rechazan por su jti (RevokedTokenRegistry).
+@Component
+public class LocalTokenValidator implements ITokenValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalTokenValidator.class);
+
+    private final Environment environment;
+    private final RevokedTokenRegistry revokedTokens;
+    private volatile Key legacyKey;
+    private volatile Map<String, Key> keys;
+
+    // El parser es thread-safe y se construye una sola vez: la clave se elige por el kid de cada token
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return verificationKey(header.getKeyId());
+                }
+            })
+            .build();
+
+    public LocalTokenValidator(Environment environment, RevokedTokenRegistry revokedTokens) {
+        this.environment = environment;
+        this.revokedTokens = revokedTokens;
+        this.legacyKey = toKey(environment.getProperty("jwt.secret"));
+        this.keys = bindKeys(environment);
+    }
+
+    public boolean isEnabled() {
+        return legacyKey != null || !keys.isEmpty();
+    }
+
+    // Mismo evento que el JwtService de users-service: tras /actuator/refresh (o config server) con cambios en jwt.*
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith("jwt."))) {
+            return;
+        }
+        try {
+            Key newLegacyKey = toKey(environment.getProperty("jwt.secret"));
+            Map<String, Key> newKeys = bindKeys(environment);
+            this.legacyKey = newLegacyKey;
+            this.keys = newKeys;
+            logger.info("Claves JWT del gateway recargadas: {} kids", newKeys.size());
+        } catch (RuntimeException e) {
+            logger.error("Claves JWT invalidas, se mantienen las anteriores: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Mono<String> validate(String token) {
+        // Solo CPU (HMAC + JSON), se ejecuta en el propio hilo del event-loop
+        return Mono.fromCallable(() -> extractEmail(token));
+    }
+
+    public String extractEmail(String token) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("jwt.secret no configurado en el gateway");
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException e) {
+            throw new InvalidTokenException("Token expired", e);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid token", e);
+        }
+
+        // jjwt ya rechaza tokens caducados; un token sin exp no lo emite users-service
+        if (claims.getExpiration() == null || claims.getSubject() == null) {
+            throw new InvalidTokenException("Token without subject or expiration");
+        }
+        if (revokedTokens.isRevoked(claims.getId())) {
+            throw new InvalidTokenException("Token revoked");
+        }
+
+        return claims.getSubject();
+    }
+
+    // Clave desconocida = SignatureException: con remote-fallback se consulta a users-service (rotacion en curso)
+    private Key verificationKey(String kid) {
+        Key key = kid == null ? legacyKey : keys.get(kid);
+        if (key == null) {
+            throw new SignatureException("Clave de firma desconocida: " + kid);
+        }
+        return key;
+    }
+
+    private static Map<String, Key> bindKeys(Environment environment) {
+        Map<String, Key> keys = new HashMap<>();
+        Binder.get(environment)
+                .bind("jwt.keys", Bindable.mapOf(String.class, String.class))
+                .orElseGet(Map::of)
+                .forEach((kid, secret) -> keys.put(kid, toKey(secret)));
+        return Map.copyOf(keys);
+    }
+
+    private static Key toKey(String secret) {
+        if (secret == null || secret.isBlank()) {
+            return null;
+        }
+        return Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret.trim()));
+    }
+}
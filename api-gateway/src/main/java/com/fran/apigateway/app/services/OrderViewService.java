@@ -0,0 +1,125 @@
+package com.fran.apigateway.app.services;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fran.apigateway.app.dtos.OrderDto;
+import com.fran.apigateway.app.dtos.OrderItemDto;
+import com.fran.apigateway.app.dtos.OrderItemViewDto;
+import com.fran.apigateway.app.dtos.OrderViewDto;
+import com.fran.apigateway.app.dtos.ProductDto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Vista de pedido para el frontend: 1 llamada a order-service + los productos en paralelo a catalog-service.
+// El pedido es obligatorio (si falla, falla la vista); cada producto tiene su propio timeout y si no llega
+// la vista se devuelve igualmente marcada como parcial.
+@Service
+public class OrderViewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderViewService.class);
+
+    private static final String ORDER_URL = "http://order-service/api/v1/orders/{id}";
+    private static final String PRODUCT_URL = "http://catalog-service/api/v1/products/{id}";
+
+    private final WebClient webClient;
+    private final Duration orderTimeout;
+    private final Duration productTimeout;
+    private final int productConcurrency;
+
+    public OrderViewService(@LoadBalanced WebClient.Builder webClientBuilder,
+            @Value("${gateway.views.order-timeout:2s}") Duration orderTimeout,
+            @Value("${gateway.views.product-timeout:1s}") Duration productTimeout,
+            @Value("${gateway.views.product-concurrency:16}") int productConcurrency) {
+        this.webClient = webClientBuilder.clone().build();
+        this.orderTimeout = orderTimeout;
+        this.productTimeout = productTimeout;
+        this.productConcurrency = productConcurrency;
+    }
+
+    public Mono<OrderViewDto> getOrderView(Long orderId, String userEmail) {
+        return fetchOrder(orderId, userEmail)
+                .flatMap(order -> fetchProducts(order.items())
+                        .map(products -> toView(order, products)));
+    }
+
+    private Mono<OrderDto> fetchOrder(Long orderId, String userEmail) {
+        return webClient.get()
+                .uri(ORDER_URL, orderId)
+                .header("X-User-Email", userEmail)
+                .retrieve()
+                .bodyToMono(OrderDto.class)
+                .timeout(orderTimeout)
+                .onErrorMap(WebClientResponseException.class, e -> e.getStatusCode().is4xxClientError()
+                        ? new ResponseStatusException(e.getStatusCode(), "Order not found")
+                        : new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Order-Service error"))
+                .onErrorMap(TimeoutException.class,
+                        e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Order-Service timeout"))
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found")));
+    }
+
+    // Un producto repetido en varios items se pide una sola vez
+    private Mono<Map<String, Optional<ProductDto>>> fetchProducts(List<OrderItemDto> items) {
+        Set<String> productIds = new LinkedHashSet<>();
+        if (items != null) {
+            items.stream()
+                    .map(OrderItemDto::productId)
+                    .filter(productId -> productId != null)
+                    .forEach(productIds::add);
+        }
+
+        return Flux.fromIterable(productIds)
+                .flatMap(productId -> fetchProduct(productId).map(product -> Map.entry(productId, product)),
+                        productConcurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private Mono<Optional<ProductDto>> fetchProduct(String productId) {
+        return webClient.get()
+                .uri(PRODUCT_URL, productId)
+                .retrieve()
+                .bodyToMono(ProductDto.class)
+                .timeout(productTimeout)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> {
+                    logger.warn("Producto {} no disponible para la vista de pedido: {}", productId, e.toString());
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    private OrderViewDto toView(OrderDto order, Map<String, Optional<ProductDto>> products) {
+        List<OrderItemDto> items = order.items() != null ? order.items() : List.of();
+
+        List<OrderItemViewDto> itemViews = items.stream()
+                .map(item -> new OrderItemViewDto(item.productId(), item.quantity(), item.priceAtOrder(),
+                        item.subtotal(), products.getOrDefault(item.productId(), Optional.empty()).orElse(null)))
+                .toList();
+
+        List<String> missingProducts = items.stream()
+                .map(OrderItemDto::productId)
+                .filter(productId -> productId != null)
+                .distinct()
+                .filter(productId -> products.getOrDefault(productId, Optional.empty()).isEmpty())
+                .toList();
+
+        return new OrderViewDto(order.id(), order.userEmail(), order.status(), order.totalPrice(), order.createdAt(),
+                itemViews, !missingProducts.isEmpty(), missingProducts);
+    }
+}
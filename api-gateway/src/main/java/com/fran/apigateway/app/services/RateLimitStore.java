@@ -0,0 +1,57 @@
+package com.fran.apigateway.app.services;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Buckets de rate limit en memoria del gateway (sin Redis), clave = ruta + usuario/IP.
+// Acotado por max-keys y los buckets sin uso durante idle-timeout se descartan (un bucket inactivo ya esta lleno).
+@Component
+public class RateLimitStore {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    public RateLimitStore(MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.max-keys:1000000}") long maxKeys,
+            @Value("${gateway.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "gateway.rate.limit.buckets");
+    }
+
+    // 0 si se admite la peticion; si no, nanosegundos de espera para el Retry-After
+    public long tryAcquire(String routeId, String key, long emissionIntervalNanos, int burstCapacity) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(routeId + " " + key,
+                k -> new TokenBucket(emissionIntervalNanos, burstCapacity, now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            rejectedCounters.computeIfAbsent(routeId, this::rejectedCounter).increment();
+        }
+        return waitNanos;
+    }
+
+    private Counter rejectedCounter(String routeId) {
+        return Counter.builder("gateway.rate.limit.rejected")
+                .description("Peticiones rechazadas con 429 por el rate limit del gateway")
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,103 @@
+package com.fran.apigateway.app.services;
+
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fran.apigateway.app.errors.InvalidTokenException;
+
+import reactor.core.publisher.Mono;
+
+// Validacion delegada en users-service (/api/v1/security/validate-token).
+// Los tokens revocados (logout) se rechazan por su jti antes de mirar la cache (RevokedTokenRegistry).
+@Component
+public class RemoteTokenValidator implements ITokenValidator {
+
+    private static final String VALIDATE_TOKEN_URL = "http://users-service/api/v1/security/validate-token";
+
+    private final WebClient webClient;
+    private final TokenValidationCache cache;
+    private final RevokedTokenRegistry revokedTokens;
+    private final Map<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RemoteTokenValidator(@Qualifier("usersServiceWebClient") WebClient webClient, TokenValidationCache cache,
+            RevokedTokenRegistry revokedTokens) {
+        this.webClient = webClient;
+        this.cache = cache;
+        this.revokedTokens = revokedTokens;
+    }
+
+    @Override
+    public Mono<String> validate(String token) {
+        // Una entrada de la cache puede ser anterior al logout: sin esta comprobacion el token
+        // seguiria valiendo hasta que caduque la entrada (max-ttl)
+        if (revokedTokens.isRevoked(unverifiedJti(token))) {
+            return Mono.error(new InvalidTokenException("Token revoked"));
+        }
+
+        // El mismo token se repite en cada peticion de la sesion: evitamos la llamada si ya lo validamos
+        String cachedEmail = cache.getIfPresent(token);
+        if (cachedEmail != null) {
+            return Mono.just(cachedEmail);
+        }
+
+        // Single-flight: las peticiones concurrentes con el mismo token comparten una unica llamada
+        // a users-service. cache() reparte el resultado (o el error) a todos los suscriptores sin bloquear.
+        // defer: la entrada solo se crea al suscribirse, un Mono ensamblado y nunca suscrito no deja nada en el mapa
+        return Mono.defer(() -> inFlight.computeIfAbsent(token, this::sharedValidation));
+    }
+
+    private Mono<String> sharedValidation(String token) {
+        AtomicReference<Mono<String>> self = new AtomicReference<>();
+
+        // La entrada se retira con cualquier final de la llamada (valor, error o cancelacion) y antes de
+        // entregar el resultado, para que una peticion posterior no reciba uno ya consumido
+        Mono<String> shared = callUsersService(token)
+                .doOnNext(email -> cache.put(token, email))
+                .doOnEach(signal -> inFlight.remove(token, self.get()))
+                .doOnCancel(() -> inFlight.remove(token, self.get()))
+                .cache();
+
+        self.set(shared);
+        return shared;
+    }
+
+    private Mono<String> callUsersService(String token) {
+        return webClient
+                .get()
+                .uri(VALIDATE_TOKEN_URL)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, response ->
+                    Mono.error(new InvalidTokenException("Token validation failed in Users-Service"))
+                )
+                .onStatus(HttpStatusCode::is5xxServerError, response ->
+                    Mono.error(new Exception("Users-Service Internal Error"))
+                )
+                .bodyToMono(String.class);
+    }
+
+    // La firma la verifica users-service (o ya la verifico al cachear), aqui solo necesitamos leer el claim jti
+    private String unverifiedJti(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length < 2) {
+                return null;
+            }
+            JsonNode jti = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1])).get("jti");
+            return jti != null && jti.isTextual() ? jti.asText() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
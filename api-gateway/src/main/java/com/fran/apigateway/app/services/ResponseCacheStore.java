@@ -0,0 +1,137 @@
+package com.fran.apigateway.app.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Almacen en memoria de respuestas GET publicas, acotado por bytes.
+// Cada entrada vive ttl + stale-while-revalidate; dentro de esa ventana el filtro decide si es fresca o stale.
+@Component
+public class ResponseCacheStore {
+
+    public static final String RESULT_HIT = "hit";
+    public static final String RESULT_STALE = "stale";
+    public static final String RESULT_MISS = "miss";
+
+    private final Cache<String, CachedResponse> cache;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteMeters> routeMeters = new ConcurrentHashMap<>();
+
+    public ResponseCacheStore(MeterRegistry meterRegistry,
+            @Value("${gateway.response-cache.max-size:50MB}") DataSize maxSize) {
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, CachedResponse value) -> key.length() + value.body().length)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        return value.retentionNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime,
+                            long currentDuration) {
+                        return value.retentionNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response");
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    // Tras un POST/PUT/DELETE en la ruta, sus GET cacheados dejan de ser validos
+    public void invalidateRoute(String routeId) {
+        String prefix = routeId + " ";
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    // gateway.response.cache.requests{route,result} y gateway.response.cache.served.bytes{route}
+    public void record(String routeId, String result, long bytesServed) {
+        RouteMeters meters = routeMeters.computeIfAbsent(routeId, this::registerMeters);
+        switch (result) {
+            case RESULT_HIT -> meters.hits().increment();
+            case RESULT_STALE -> meters.stale().increment();
+            default -> meters.misses().increment();
+        }
+        if (bytesServed > 0) {
+            meters.bytesServed().increment(bytesServed);
+        }
+    }
+
+    private RouteMeters registerMeters(String routeId) {
+        return new RouteMeters(
+                requestCounter(routeId, RESULT_HIT),
+                requestCounter(routeId, RESULT_STALE),
+                requestCounter(routeId, RESULT_MISS),
+                Counter.builder("gateway.response.cache.served.bytes")
+                        .description("Bytes servidos desde la cache del gateway")
+                        .baseUnit("bytes")
+                        .tag("route", routeId)
+                        .register(meterRegistry));
+    }
+
+    private Counter requestCounter(String routeId, String result) {
+        return Counter.builder("gateway.response.cache.requests")
+                .description("Peticiones GET cacheables por resultado de la cache")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public record CachedResponse(
+            int status,
+            HttpHeaders headers,
+            byte[] body,
+            String etag,
+            long storedAtNanos,
+            long ttlNanos,
+            long staleWhileRevalidateNanos) {
+
+        public boolean isFresh(long nowNanos) {
+            return nowNanos - storedAtNanos < ttlNanos;
+        }
+
+        public long ageSeconds(long nowNanos) {
+            return Math.max(0, (nowNanos - storedAtNanos) / 1_000_000_000L);
+        }
+
+        public CachedResponse revalidated(long nowNanos) {
+            return new CachedResponse(status, headers, body, etag, nowNanos, ttlNanos, staleWhileRevalidateNanos);
+        }
+
+        private long retentionNanos() {
+            return ttlNanos + staleWhileRevalidateNanos;
+        }
+    }
+
+    private record RouteMeters(Counter hits, Counter stale, Counter misses, Counter bytesServed) {
+    }
+}
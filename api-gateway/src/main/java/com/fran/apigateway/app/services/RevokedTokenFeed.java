@@ -0,0 +1,73 @@
+package com.fran.apigateway.app.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fran.apigateway.app.dtos.RevokedTokenDto;
+
+// Trae de users-service las revocaciones (logout) para que la validacion local las rechace igual que
+// validate-token. La primera lectura trae todas las vigentes; despues solo las nuevas, solapando dos
+// intervalos por desfase de reloj (volver a anadir un jti es idempotente). Si users-service no responde
+// se reintenta en el siguiente ciclo desde el mismo punto.
+@Component
+@ConditionalOnProperty(name = "gateway.auth.revocation.enabled", havingValue = "true", matchIfMissing = true)
+public class RevokedTokenFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenFeed.class);
+
+    private static final String REVOCATIONS_URL = "http://users-service/api/v1/security/revocations";
+
+    private final WebClient webClient;
+    private final RevokedTokenRegistry registry;
+    private final Duration pollInterval;
+    private final Duration timeout;
+
+    private volatile Instant lastPoll;
+
+    public RevokedTokenFeed(@Qualifier("usersServiceWebClient") WebClient webClient, RevokedTokenRegistry registry,
+            @Value("${gateway.auth.revocation.poll-interval:PT5S}") Duration pollInterval,
+            @Value("${gateway.auth.revocation.timeout:PT2S}") Duration timeout) {
+        this.webClient = webClient;
+        this.registry = registry;
+        this.pollInterval = pollInterval;
+        this.timeout = timeout;
+    }
+
+    // Corre en el hilo del scheduler, no en el event-loop: se puede bloquear hasta el timeout
+    @Scheduled(fixedDelayString = "${gateway.auth.revocation.poll-interval:PT5S}")
+    public void poll() {
+        Instant now = Instant.now();
+        Instant since = lastPoll == null ? null : lastPoll.minus(pollInterval.multipliedBy(2));
+        try {
+            List<RevokedTokenDto> revocations = fetch(since);
+            revocations.forEach(token -> registry.revoke(token.jti(), token.expiresAt()));
+            registry.pruneExpired();
+            this.lastPoll = now;
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron leer las revocaciones de users-service: {}", e.getMessage());
+        }
+    }
+
+    private List<RevokedTokenDto> fetch(Instant since) {
+        WebClient.RequestHeadersSpec<?> request = since == null
+                ? webClient.get().uri(REVOCATIONS_URL)
+                : webClient.get().uri(REVOCATIONS_URL + "?since={since}", since.toString());
+        List<RevokedTokenDto> revocations = request
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<RevokedTokenDto>>() {
+                })
+                .block(timeout);
+        return revocations == null ? List.of() : revocations;
+    }
+}
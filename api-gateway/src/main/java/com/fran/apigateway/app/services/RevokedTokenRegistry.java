@@ -0,0 +1,39 @@
+package com.fran.apigateway.app.services;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+// jti -> exp de los tokens revocados en users-service (logout) que todavia no han caducado.
+// Lo rellena RevokedTokenFeed; LocalTokenValidator lo consulta en cada token.
+@Component
+public class RevokedTokenRegistry {
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Instant expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti != null && expiresAt != null && expiresAt.isAfter(Instant.now())) {
+            revoked.put(jti, expiresAt);
+        }
+    }
+
+    // Un token caducado ya lo rechaza la validacion de exp
+    public void pruneExpired() {
+        Instant now = Instant.now();
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
@@ -0,0 +1,36 @@
+package com.fran.apigateway.app.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket sin locks (GCRA): todo el estado es un unico long con el "theoretical arrival time" (TAT).
+// Cada peticion admitida adelanta el TAT un intervalo de emision; se rechaza si se pasaria de la rafaga permitida.
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstWindowNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    public TokenBucket(long emissionIntervalNanos, int burstCapacity, long nowNanos) {
+        if (emissionIntervalNanos <= 0 || burstCapacity <= 0) {
+            throw new IllegalArgumentException("El intervalo de emision y la rafaga deben ser positivos");
+        }
+        this.emissionIntervalNanos = emissionIntervalNanos;
+        this.burstWindowNanos = emissionIntervalNanos * burstCapacity;
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    // 0 si la peticion entra; si no, nanosegundos hasta que habra un token libre
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrivalTime.get();
+            long newTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long waitNanos = newTat - nowNanos - burstWindowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.fran.apigateway.app.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Cache de tokens ya validados por users-service: clave = SHA-256 del token, valor = email.
+// Cada entrada caduca en el exp del token o en max-ttl, lo que llegue antes.
+@Component
+public class TokenValidationCache {
+
+    private final Cache<String, CachedValidation> cache;
+    private final boolean enabled;
+    private final long maxTtlNanos;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public TokenValidationCache(MeterRegistry meterRegistry,
+            @Value("${gateway.auth.cache.enabled:true}") boolean enabled,
+            @Value("${gateway.auth.cache.max-size:10000}") long maxSize,
+            @Value("${gateway.auth.cache.max-ttl:5m}") Duration maxTtl) {
+        this.enabled = enabled;
+        this.maxTtlNanos = maxTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedValidation>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedValidation value, long currentTime) {
+                        return value.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedValidation value, long currentTime,
+                            long currentDuration) {
+                        return value.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedValidation value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size... en /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.token.validation");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getIfPresent(String token) {
+        if (!enabled) {
+            return null;
+        }
+        CachedValidation cached = cache.getIfPresent(hash(token));
+        return cached != null ? cached.email() : null;
+    }
+
+    public void put(String token, String email) {
+        if (!enabled) {
+            return;
+        }
+        long ttl = Math.min(maxTtlNanos, nanosUntilExpiration(token));
+        if (ttl > 0) {
+            cache.put(hash(token), new CachedValidation(email, ttl));
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // users-service ya ha verificado la firma, aqui solo necesitamos leer el claim exp del payload
+    private long nanosUntilExpiration(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length < 2) {
+                return 0;
+            }
+            JsonNode payload = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            JsonNode exp = payload.get("exp");
+            if (exp == null || !exp.canConvertToLong()) {
+                return 0;
+            }
+            long millisLeft = exp.asLong() * 1000 - System.currentTimeMillis();
+            return millisLeft > 0 ? Duration.ofMillis(millisLeft).toNanos() : 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private record CachedValidation(String email, long ttlNanos) {
+    }
+}
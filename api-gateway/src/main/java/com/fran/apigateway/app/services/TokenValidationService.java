@@ -0,0 +1,63 @@
+package com.fran.apigateway.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fran.apigateway.app.errors.InvalidTokenException;
+
+import io.jsonwebtoken.security.SignatureException;
+import reactor.core.publisher.Mono;
+
+@Service
+public class TokenValidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenValidationService.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final LocalTokenValidator localValidator;
+    private final RemoteTokenValidator remoteValidator;
+    private final boolean localMode;
+    private final boolean remoteFallback;
+
+    public TokenValidationService(LocalTokenValidator localValidator,
+            RemoteTokenValidator remoteValidator,
+            @Value("${gateway.auth.validation-mode:local}") String validationMode,
+            @Value("${gateway.auth.remote-fallback:false}") boolean remoteFallback) {
+        this.localValidator = localValidator;
+        this.remoteValidator = remoteValidator;
+        this.remoteFallback = remoteFallback;
+
+        // Sin jwt.secret no se puede verificar en local: se usa siempre users-service
+        this.localMode = "local".equalsIgnoreCase(validationMode) && localValidator.isEnabled();
+        if ("local".equalsIgnoreCase(validationMode) && !localValidator.isEnabled()) {
+            logger.warn("gateway.auth.validation-mode=local pero jwt.secret no esta configurado, se usara users-service");
+        }
+    }
+
+    // Recibe el header Authorization completo y devuelve el email del usuario
+    public Mono<String> validate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return Mono.error(new InvalidTokenException("Authorization header is not a Bearer token"));
+        }
+
+        String token = authHeader.substring(BEARER_PREFIX.length());
+
+        if (!localMode) {
+            return remoteValidator.validate(token);
+        }
+
+        Mono<String> local = localValidator.validate(token);
+        if (!remoteFallback) {
+            return local;
+        }
+
+        // Firma que no cuadra con nuestra clave (p.ej. rotacion de secret en curso): preguntamos a users-service.
+        // Un token caducado o mal formado se rechaza directamente.
+        return local.onErrorResume(
+                e -> e instanceof InvalidTokenException && e.getCause() instanceof SignatureException,
+                e -> remoteValidator.validate(token));
+    }
+}
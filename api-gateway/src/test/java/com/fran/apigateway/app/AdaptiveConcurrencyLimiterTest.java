@@ -0,0 +1,82 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.fran.apigateway.app.services.AdaptiveConcurrencyLimiter;
+import com.fran.apigateway.app.services.AdaptiveConcurrencyLimiter.Priority;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(400);
+
+    // Simula un servicio con la cola llena: cada muestra se toma con el limite completo en vuelo
+    private static void runAtCapacity(AdaptiveConcurrencyLimiter limiter, long rttNanos, int samples) {
+        for (int i = 0; i < samples; i++) {
+            while (limiter.tryAcquire(Priority.HIGH)) {
+            }
+            limiter.onSample(rttNanos, false);
+            while (limiter.getInFlight() > 0) {
+                limiter.release();
+            }
+        }
+    }
+
+    @Test
+    void tryAcquire_ShouldShedLowPriorityFirst() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0.8, 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(Priority.LOW));
+        }
+        assertFalse(limiter.tryAcquire(Priority.LOW));
+        assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        assertFalse(limiter.tryAcquire(Priority.NORMAL));
+        assertTrue(limiter.tryAcquire(Priority.HIGH));
+        assertTrue(limiter.tryAcquire(Priority.HIGH));
+        assertFalse(limiter.tryAcquire(Priority.HIGH));
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    void onSample_ShouldGrowLimit_WhileLatencyIsStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0.8, 0.5);
+
+        runAtCapacity(limiter, FAST, 50);
+
+        assertTrue(limiter.getLimit() > 10, "limite: " + limiter.getLimit());
+    }
+
+    @Test
+    void onSample_ShouldShrinkLimit_WhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, 0.8, 0.5);
+        runAtCapacity(limiter, FAST, 20);
+        int beforeSlowdown = limiter.getLimit();
+
+        runAtCapacity(limiter, SLOW, 30);
+
+        assertTrue(limiter.getLimit() < beforeSlowdown / 2,
+                "antes: " + beforeSlowdown + ", despues: " + limiter.getLimit());
+    }
+
+    @Test
+    void onSample_ShouldBackOff_OnDrops_ButNotBelowMinLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 100, 0.8, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(Priority.HIGH);
+            limiter.onSample(FAST, true);
+        }
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,87 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.fran.apigateway.app.config.AccessRulesProperties;
+import com.fran.apigateway.app.filters.AuthenticationFilter;
+import com.fran.apigateway.app.filters.PublicRouteMatcher;
+import com.fran.apigateway.app.services.TokenValidationService;
+
+import reactor.core.publisher.Mono;
+
+public class AuthenticationFilterTest {
+
+    private final TokenValidationService tokenValidationService = mock(TokenValidationService.class);
+    private final AtomicBoolean forwarded = new AtomicBoolean();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(true);
+        return Mono.empty();
+    };
+
+    private GatewayFilter filter;
+
+    // Las reglas publicas reales de application.yml, enlazadas igual que @ConfigurationProperties
+    @BeforeEach
+    void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))
+                .forEach(environment.getPropertySources()::addLast);
+        AccessRulesProperties properties = Binder.get(environment)
+                .bind("gateway.access", AccessRulesProperties.class)
+                .get();
+        filter = new AuthenticationFilter(tokenValidationService, new PublicRouteMatcher(properties))
+                .apply(new AuthenticationFilter.Config());
+    }
+
+    @Test
+    void refresh_ShouldReachUsersService_WithoutAuthorizationHeader() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/api/v1/users/refresh").body("{\"refreshToken\":\"abc\"}"));
+
+        filter.filter(exchange, chain).block();
+
+        assertTrue(forwarded.get());
+        verify(tokenValidationService, never()).validate(anyString());
+    }
+
+    @Test
+    void refresh_ShouldOnlyBePublicForPost() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/refresh"));
+
+        filter.filter(exchange, chain).block();
+
+        assertFalse(forwarded.get());
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void protectedRoute_ShouldReturn401_WithoutAuthorizationHeader() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders"));
+
+        filter.filter(exchange, chain).block();
+
+        assertFalse(forwarded.get());
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+    }
+}
@@ -0,0 +1,75 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.fran.apigateway.app.config.ConcurrencyLimitProperties;
+import com.fran.apigateway.app.filters.ConcurrencyLimitFilter;
+import com.fran.apigateway.app.filters.RequestPriorityClassifier;
+import com.fran.apigateway.app.services.ConcurrencyLimiterRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+public class ConcurrencyLimitFilterTest {
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        ConcurrencyLimitFilter factory = new ConcurrencyLimitFilter(
+                new ConcurrencyLimiterRegistry(new SimpleMeterRegistry(), properties),
+                new RequestPriorityClassifier(properties));
+        ConcurrencyLimitFilter.Config config = new ConcurrencyLimitFilter.Config();
+        config.setInitialLimit(1);
+        config.setMinLimit(1);
+        config.setMaxLimit(1);
+        filter = factory.apply(config);
+    }
+
+    private static Route route(String id, String uri) {
+        return Route.async().id(id).uri(uri).predicate(exchange -> true).build();
+    }
+
+    private static MockServerWebExchange exchange(Route route, String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post(path));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    // Las dos rutas van a catalog-service: una peticion colgada en una ocupa el hueco del servicio
+    @Test
+    void filter_ShouldShareLimit_BetweenRoutesToTheSameBackend() {
+        Disposable inFlight = filter.filter(exchange(route("catalog-service", "lb://catalog-service"),
+                "/api/v1/products"), exchange -> Mono.never()).subscribe();
+
+        MockServerWebExchange other = exchange(route("catalog-batch", "lb://catalog-service"), "/api/v1/products/batch");
+        filter.filter(other, exchange -> Mono.empty()).block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, other.getResponse().getStatusCode());
+        inFlight.dispose();
+    }
+
+    @Test
+    void filter_ShouldNotShareLimit_BetweenDifferentBackends() {
+        Disposable inFlight = filter.filter(exchange(route("catalog-service", "lb://catalog-service"),
+                "/api/v1/products"), exchange -> Mono.never()).subscribe();
+
+        MockServerWebExchange other = exchange(route("order-service", "lb://order-service"), "/api/v1/orders");
+        filter.filter(other, exchange -> Mono.empty()).block();
+
+        assertNull(other.getResponse().getStatusCode());
+        inFlight.dispose();
+    }
+}
@@ -0,0 +1,53 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+public class GatewayRoutesTest {
+
+    private List<RouteDefinition> routes;
+
+    // Las rutas reales de application.yml, en el orden en que se evaluan
+    @BeforeEach
+    void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))
+                .forEach(environment.getPropertySources()::addLast);
+        routes = Binder.get(environment)
+                .bind("spring.cloud.gateway", GatewayProperties.class)
+                .get()
+                .getRoutes();
+    }
+
+    private int indexOf(String id) {
+        for (int i = 0; i < routes.size(); i++) {
+            if (routes.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        throw new AssertionError("No existe la ruta " + id);
+    }
+
+    @Test
+    void stripeWebhooks_ShouldSkipThePaymentsRateLimit() {
+        RouteDefinition webhooks = routes.get(indexOf("payment-webhooks"));
+        RouteDefinition payments = routes.get(indexOf("payment-service"));
+
+        assertTrue(indexOf("payment-webhooks") < indexOf("payment-service"));
+        assertEquals(payments.getUri(), webhooks.getUri());
+        assertTrue(webhooks.getFilters().stream().noneMatch(filter -> filter.getName().equals("RateLimitFilter")));
+        assertTrue(payments.getFilters().stream().anyMatch(filter -> filter.getName().equals("RateLimitFilter")));
+    }
+}
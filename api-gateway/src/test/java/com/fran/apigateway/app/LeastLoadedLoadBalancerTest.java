@@ -0,0 +1,112 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import com.fran.apigateway.app.services.InstanceLoadTracker;
+import com.fran.apigateway.app.services.LeastLoadedLoadBalancer;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class LeastLoadedLoadBalancerTest {
+
+    private static final String SERVICE_ID = "order-service";
+
+    private final ServiceInstance fast1 = instance("fast-1", 8081);
+    private final ServiceInstance fast2 = instance("fast-2", 8082);
+    private final ServiceInstance fast3 = instance("fast-3", 8083);
+    private final ServiceInstance slow = instance("slow", 8084);
+
+    // Latencia simulada de cada instancia
+    private final Map<String, Duration> latencies = Map.of(
+            "fast-1", Duration.ofMillis(5),
+            "fast-2", Duration.ofMillis(5),
+            "fast-3", Duration.ofMillis(5),
+            "slow", Duration.ofMillis(250));
+
+    private InstanceLoadTracker tracker;
+    private LeastLoadedLoadBalancer loadBalancer;
+
+    private static ServiceInstance instance(String instanceId, int port) {
+        return new DefaultServiceInstance(instanceId, SERVICE_ID, "localhost", port, false);
+    }
+
+    @BeforeEach
+    void setUp() {
+        tracker = new InstanceLoadTracker(Duration.ofSeconds(10), Duration.ofSeconds(60), Duration.ofSeconds(1));
+        loadBalancer = new LeastLoadedLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider(SERVICE_ID, fast1, fast2, fast3, slow), SERVICE_ID, tracker);
+    }
+
+    // Una peticion completa: elegir instancia, "llamarla" (espera su latencia) y notificar el final al tracker
+    private Mono<String> call() {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        return Mono.from(loadBalancer.choose(request)).flatMap(response -> {
+            tracker.onStartRequest(request, response);
+            String instanceId = response.getServer().getInstanceId();
+            return Mono.delay(latencies.get(instanceId))
+                    .doOnNext(tick -> tracker.onComplete(
+                            new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response)))
+                    .thenReturn(instanceId);
+        });
+    }
+
+    @Test
+    void choose_ShouldAvoidSlowInstance_UnderConcurrentLoad() {
+        Map<String, AtomicInteger> picks = new ConcurrentHashMap<>();
+
+        Flux.range(0, 2000)
+                .flatMap(i -> call(), 32)
+                .doOnNext(instanceId -> picks.computeIfAbsent(instanceId, id -> new AtomicInteger()).incrementAndGet())
+                .blockLast(Duration.ofSeconds(30));
+
+        int slowPicks = picks.getOrDefault("slow", new AtomicInteger()).get();
+        // Round-robin le daria el 25% (500); con P2C + carga debe quedarse muy por debajo
+        assertTrue(slowPicks < 100, "peticiones a la instancia lenta: " + picks);
+        assertTrue(picks.get("fast-1").get() > 400 && picks.get("fast-2").get() > 400 && picks.get("fast-3").get() > 400,
+                "reparto entre instancias rapidas: " + picks);
+    }
+
+    @Test
+    void onComplete_ShouldReleaseOutstandingRequests() {
+        call().block(Duration.ofSeconds(5));
+        call().block(Duration.ofSeconds(5));
+
+        assertEquals(0, tracker.outstanding(fast1) + tracker.outstanding(fast2) + tracker.outstanding(fast3)
+                + tracker.outstanding(slow));
+    }
+
+    @Test
+    void choose_ShouldPreferInstanceWithFewerOutstandingRequests() {
+        LeastLoadedLoadBalancer twoInstances = new LeastLoadedLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider(SERVICE_ID, fast1, slow), SERVICE_ID, tracker);
+        // Tres peticiones colgadas en "slow" que todavia no han terminado
+        for (int i = 0; i < 3; i++) {
+            tracker.onStartRequest(new DefaultRequest<>(new DefaultRequestContext()),
+                    new DefaultResponse(slow));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            ServiceInstance chosen = Mono.from(twoInstances.choose(new DefaultRequest<>(new DefaultRequestContext())))
+                    .block().getServer();
+            assertEquals("fast-1", chosen.getInstanceId());
+        }
+    }
+}
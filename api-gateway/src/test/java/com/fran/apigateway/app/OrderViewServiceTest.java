@@ -0,0 +1,115 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fran.apigateway.app.dtos.OrderViewDto;
+import com.fran.apigateway.app.services.OrderViewService;
+
+import reactor.core.publisher.Mono;
+
+public class OrderViewServiceTest {
+
+    private static final String TEST_EMAIL = "test@example.com";
+
+    private static final String ORDER_JSON = """
+            {"id":1,"userEmail":"test@example.com","status":"PENDING","totalPrice":35.0,
+             "createdAt":"2024-01-10T12:00:00",
+             "items":[{"productId":"p1","quantity":1,"priceAtOrder":10.0,"subtotal":10.0},
+                      {"productId":"p2","quantity":1,"priceAtOrder":5.0,"subtotal":5.0},
+                      {"productId":"p1","quantity":2,"priceAtOrder":10.0,"subtotal":20.0}]}
+            """;
+
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    private static String productJson(String id) {
+        return "{\"id\":\"" + id + "\",\"name\":\"Producto " + id + "\",\"price\":10.0,\"stock\":5}";
+    }
+
+    private static ClientResponse json(HttpStatus status, String body) {
+        return ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+
+    // order-service y catalog-service simulados; cada producto con su latencia
+    private OrderViewService serviceWith(HttpStatus orderStatus, Map<String, Duration> productLatencies) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            String path = request.url().getPath();
+            calls.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            if (path.startsWith("/api/v1/orders/")) {
+                return Mono.just(json(orderStatus, orderStatus == HttpStatus.OK ? ORDER_JSON : ""));
+            }
+            String productId = path.substring(path.lastIndexOf('/') + 1);
+            Duration latency = productLatencies.getOrDefault(productId, Duration.ZERO);
+            return Mono.delay(latency).map(tick -> json(HttpStatus.OK, productJson(productId)));
+        });
+        return new OrderViewService(builder, Duration.ofSeconds(2), Duration.ofSeconds(1), 16);
+    }
+
+    @Test
+    void getOrderView_ShouldMergeOrderWithProducts() {
+        OrderViewService service = serviceWith(HttpStatus.OK, Map.of());
+
+        OrderViewDto view = service.getOrderView(1L, TEST_EMAIL).block(Duration.ofSeconds(5));
+
+        assertEquals(1L, view.id());
+        assertEquals(3, view.items().size());
+        assertEquals("Producto p1", view.items().get(0).product().name());
+        assertEquals("Producto p2", view.items().get(1).product().name());
+        assertFalse(view.partial());
+        // p1 aparece dos veces en el pedido pero se pide una sola vez
+        assertEquals(1, calls.get("/api/v1/products/p1").get());
+    }
+
+    @Test
+    void getOrderView_ShouldFetchProductsConcurrently() {
+        OrderViewService service = serviceWith(HttpStatus.OK,
+                Map.of("p1", Duration.ofMillis(300), "p2", Duration.ofMillis(300)));
+
+        long start = System.nanoTime();
+        service.getOrderView(1L, TEST_EMAIL).block(Duration.ofSeconds(5));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMillis < 550, "las dos llamadas de 300ms deberian solaparse: " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void getOrderView_ShouldReturnPartialView_WhenAProductTimesOut() {
+        OrderViewService service = serviceWith(HttpStatus.OK, Map.of("p2", Duration.ofSeconds(3)));
+
+        OrderViewDto view = service.getOrderView(1L, TEST_EMAIL).block(Duration.ofSeconds(5));
+
+        assertTrue(view.partial());
+        assertEquals(List.of("p2"), view.missingProducts());
+        assertNull(view.items().get(1).product());
+        assertEquals("Producto p1", view.items().get(0).product().name());
+    }
+
+    @Test
+    void getOrderView_ShouldPropagateNotFound_WhenOrderDoesNotExist() {
+        OrderViewService service = serviceWith(HttpStatus.NOT_FOUND, Map.of());
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> service.getOrderView(99L, TEST_EMAIL).block(Duration.ofSeconds(5)));
+        assertEquals(HttpStatus.NOT_FOUND, error.getStatusCode());
+    }
+}
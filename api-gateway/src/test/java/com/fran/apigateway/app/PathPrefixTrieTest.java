@@ -0,0 +1,73 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import com.fran.apigateway.app.config.AccessRulesProperties;
+import com.fran.apigateway.app.filters.PathPrefixTrie;
+
+public class PathPrefixTrieTest {
+
+    private PathPrefixTrie trie;
+
+    private static AccessRulesProperties.Rule rule(String path, String... methods) {
+        AccessRulesProperties.Rule rule = new AccessRulesProperties.Rule();
+        rule.setPath(path);
+        rule.setMethods(List.of(methods));
+        return rule;
+    }
+
+    @BeforeEach
+    void setUp() {
+        trie = PathPrefixTrie.compile(List.of(
+                rule("/api/v1/users/register"),
+                rule("/api/v1/users/login"),
+                rule("/api/v1/payments"),
+                rule("/actuator"),
+                rule("/api/v1/products", "GET")));
+    }
+
+    @Test
+    void matches_ShouldAllowUnconditionalRoutes_ForAnyMethod() {
+        assertTrue(trie.matches(HttpMethod.POST, "/api/v1/users/login"));
+        assertTrue(trie.matches(HttpMethod.POST, "/api/v1/users/register"));
+        assertTrue(trie.matches(HttpMethod.POST, "/api/v1/payments/webhooks/events"));
+        assertTrue(trie.matches(HttpMethod.GET, "/actuator/health"));
+    }
+
+    @Test
+    void matches_ShouldAllowProductsOnlyForGet() {
+        assertTrue(trie.matches(HttpMethod.GET, "/api/v1/products"));
+        assertTrue(trie.matches(HttpMethod.GET, "/api/v1/products/abc123"));
+        assertFalse(trie.matches(HttpMethod.POST, "/api/v1/products"));
+        assertFalse(trie.matches(HttpMethod.DELETE, "/api/v1/products/abc123"));
+    }
+
+    @Test
+    void matches_ShouldRequireTokenForEverythingElse() {
+        assertFalse(trie.matches(HttpMethod.GET, "/api/v1/orders"));
+        assertFalse(trie.matches(HttpMethod.POST, "/api/v1/users/profile"));
+        assertFalse(trie.matches(HttpMethod.GET, "/api/v1/users"));
+        assertFalse(trie.matches(HttpMethod.GET, "/"));
+        assertFalse(trie.matches(HttpMethod.GET, ""));
+    }
+
+    @Test
+    void matches_ShouldCompareWholeSegments() {
+        assertFalse(trie.matches(HttpMethod.GET, "/api/v1/productsExtra"));
+        assertFalse(trie.matches(HttpMethod.POST, "/api/v1/users/login2"));
+        assertFalse(trie.matches(HttpMethod.POST, "/api/v1//users/login"));
+    }
+
+    @Test
+    void compile_ShouldRejectEmptyPaths() {
+        assertThrows(IllegalArgumentException.class, () -> PathPrefixTrie.compile(List.of(rule(" "))));
+    }
+}
@@ -0,0 +1,100 @@
+package com.fran.apigateway.app;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpMethod;
+
+import com.fran.apigateway.app.config.AccessRulesProperties;
+import com.fran.apigateway.app.filters.PathPrefixTrie;
+
+// Benchmark de la tabla de rutas publicas (no se ejecuta en el build normal):
+//   mvn test -Dtest=PublicRouteMatcherBenchmarkTest -Dgateway.benchmark=true
+// Trie compilado desde application.yml frente al recorrido con stream que hacia AuthenticationFilter.
+// Mide ns y bytes reservados por peticion sobre una mezcla de rutas habitual; solo informa, sin umbral.
+@EnabledIfSystemProperty(named = "gateway.benchmark", matches = "true")
+public class PublicRouteMatcherBenchmarkTest {
+
+    private static final int ITERATIONS = 5_000_000;
+
+    // Lo que habia antes en AuthenticationFilter
+    private static final List<String> OPEN_API_ENDPOINTS = List.of(
+            "/api/v1/users/register",
+            "/api/v1/users/login",
+            "/api/v1/payments/",
+            "/actuator/",
+            "/eureka/");
+
+    private static final HttpMethod[] METHODS = {
+            HttpMethod.GET, HttpMethod.GET, HttpMethod.POST, HttpMethod.POST, HttpMethod.GET, HttpMethod.GET,
+            HttpMethod.POST, HttpMethod.PUT };
+    private static final String[] PATHS = {
+            "/api/v1/products",
+            "/api/v1/products/65f1c2a9e4b0a1b2c3d4e5f6",
+            "/api/v1/orders/create",
+            "/api/v1/users/login",
+            "/api/v1/orders/42",
+            "/api/v1/users/profile/test@example.com",
+            "/api/v1/payments/webhooks/stripe",
+            "/api/v1/users/updateProfile" };
+
+    private interface Matcher {
+        boolean matches(HttpMethod method, String path);
+    }
+
+    private static boolean streamScan(HttpMethod method, String path) {
+        if (OPEN_API_ENDPOINTS.stream().anyMatch(path::startsWith)) {
+            return true;
+        }
+        return method == HttpMethod.GET && path.startsWith("/api/v1/products");
+    }
+
+    private static PathPrefixTrie compileFromApplicationYml() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))
+                .forEach(environment.getPropertySources()::addLast);
+        AccessRulesProperties properties = Binder.get(environment)
+                .bind("gateway.access", AccessRulesProperties.class)
+                .get();
+        return PathPrefixTrie.compile(properties.getPublicRules());
+    }
+
+    private static String run(String name, Matcher matcher) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int matched = 0;
+
+        // Calentamiento del JIT
+        for (int i = 0; i < ITERATIONS; i++) {
+            matched += matcher.matches(METHODS[i & 7], PATHS[i & 7]) ? 1 : 0;
+        }
+
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            matched += matcher.matches(METHODS[i & 7], PATHS[i & 7]) ? 1 : 0;
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        return String.format("%s %.1f ns/peticion, %.1f bytes/peticion (%d publicas)", name,
+                (double) nanos / ITERATIONS, (double) bytes / ITERATIONS, matched / 2);
+    }
+
+    @Test
+    void benchmark_TrieVsStreamScan() throws IOException {
+        PathPrefixTrie trie = compileFromApplicationYml();
+
+        String before = run("stream", PublicRouteMatcherBenchmarkTest::streamScan);
+        String after = run("trie", trie::matches);
+
+        System.out.printf("Rutas publicas: %s | %s%n", before, after);
+    }
+}
@@ -0,0 +1,65 @@
+package com.fran.apigateway.app;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.fran.apigateway.app.services.RateLimitStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Benchmark del rate limit (no se ejecuta en el build normal):
+//   mvn test -Dtest=RateLimitStoreBenchmarkTest -Dgateway.benchmark=true
+// Todos los hilos sobre la misma clave (peor caso de contencion); solo informa, sin umbral.
+@EnabledIfSystemProperty(named = "gateway.benchmark", matches = "true")
+public class RateLimitStoreBenchmarkTest {
+
+    private static final int PER_THREAD = 200_000;
+
+    private static long run(RateLimitStore store, int threads) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < PER_THREAD; i++) {
+                    store.tryAcquire("order-service", "user:hot@example.com", 1_000, 100);
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        // Tiempo medio que ve cada hilo por peticion
+        return elapsed / PER_THREAD;
+    }
+
+    @Test
+    void benchmark_HotKeyUnderContention() throws Exception {
+        RateLimitStore store = new RateLimitStore(new SimpleMeterRegistry(), 1000, Duration.ofMinutes(1));
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        // Calentamiento del JIT
+        run(store, threads);
+
+        long singleThread = run(store, 1);
+        long contended = run(store, threads);
+
+        System.out.printf("RateLimitStore, misma clave: 1 hilo %d ns/peticion, %d hilos %d ns/peticion%n",
+                singleThread, threads, contended);
+    }
+}
@@ -0,0 +1,151 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fran.apigateway.app.errors.InvalidTokenException;
+import com.fran.apigateway.app.services.RemoteTokenValidator;
+import com.fran.apigateway.app.services.RevokedTokenRegistry;
+import com.fran.apigateway.app.services.TokenValidationCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+public class RemoteTokenValidatorTest {
+
+    private static final String TEST_EMAIL = "test@example.com";
+    private static final String TOKEN = "a.b.c";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private TokenValidationCache cache;
+    private RevokedTokenRegistry revokedTokens;
+
+    @BeforeEach
+    void setUp() {
+        // Cache desactivada para medir solo la coalescencia de llamadas en vuelo
+        cache = new TokenValidationCache(new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(5));
+        revokedTokens = new RevokedTokenRegistry();
+    }
+
+    // users-service simulado: responde con retraso para que las peticiones se solapen
+    private RemoteTokenValidator validatorRespondingWith(HttpStatus status, String body) {
+        WebClient webClient = WebClient.builder().exchangeFunction(request -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(200))
+                    .map(tick -> ClientResponse.create(status).body(body).build());
+        }).build();
+        return new RemoteTokenValidator(webClient, cache, revokedTokens);
+    }
+
+    // Solo importa el payload: la firma la comprueba users-service
+    private static String tokenWithJti(String jti) {
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        String payload = "{\"jti\":\"" + jti + "\",\"sub\":\"" + TEST_EMAIL + "\",\"exp\":" + exp + "}";
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".firma";
+    }
+
+    @Test
+    void validate_ShouldRejectCachedToken_OnceItIsRevoked() {
+        cache = new TokenValidationCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(5));
+        RemoteTokenValidator validator = validatorRespondingWith(HttpStatus.OK, TEST_EMAIL);
+        String token = tokenWithJti("jti-logout");
+
+        assertEquals(TEST_EMAIL, validator.validate(token).block(Duration.ofSeconds(5)));
+        assertEquals(TEST_EMAIL, cache.getIfPresent(token));
+
+        revokedTokens.revoke("jti-logout", Instant.now().plusSeconds(3600));
+
+        assertThrows(InvalidTokenException.class, () -> validator.validate(token).block(Duration.ofSeconds(5)));
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void validate_ShouldShareOneUpstreamCall_ForConcurrentRequestsWithSameToken() {
+        RemoteTokenValidator validator = validatorRespondingWith(HttpStatus.OK, TEST_EMAIL);
+
+        List<String> emails = Flux.range(0, 10)
+                .flatMap(i -> validator.validate(TOKEN).subscribeOn(Schedulers.parallel()))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(10, emails.size());
+        emails.forEach(email -> assertEquals(TEST_EMAIL, email));
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void validate_ShouldPropagateSameError_ToAllWaiters() {
+        RemoteTokenValidator validator = validatorRespondingWith(HttpStatus.UNAUTHORIZED, "");
+
+        List<Mono<String>> waiters = List.of(validator.validate(TOKEN), validator.validate(TOKEN),
+                validator.validate(TOKEN));
+        // Los tres suscritos antes de que llegue la respuesta
+        List<CompletableFuture<String>> results = waiters.stream().map(Mono::toFuture).toList();
+
+        results.forEach(result -> {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(InvalidTokenException.class, e.getCause());
+        });
+        assertEquals(1, upstreamCalls.get());
+        assertTrue(inFlight(validator).isEmpty());
+    }
+
+    @Test
+    void validate_ShouldNotRegisterInFlightCall_UntilSubscribed() {
+        RemoteTokenValidator validator = validatorRespondingWith(HttpStatus.OK, TEST_EMAIL);
+
+        validator.validate(TOKEN);
+
+        assertTrue(inFlight(validator).isEmpty());
+        assertEquals(0, upstreamCalls.get());
+    }
+
+    @Test
+    void validate_ShouldRemoveInFlightCall_WhenItFinishes() {
+        RemoteTokenValidator validator = validatorRespondingWith(HttpStatus.OK, TEST_EMAIL);
+
+        CompletableFuture<String> pending = validator.validate(TOKEN).toFuture();
+        assertEquals(1, inFlight(validator).size());
+
+        assertEquals(TEST_EMAIL, pending.join());
+        assertTrue(inFlight(validator).isEmpty());
+    }
+
+    @Test
+    void validate_ShouldCallAgain_OnceThePreviousCallHasFinished() {
+        RemoteTokenValidator validator = validatorRespondingWith(HttpStatus.OK, TEST_EMAIL);
+
+        validator.validate(TOKEN).block(Duration.ofSeconds(5));
+        validator.validate(TOKEN).block(Duration.ofSeconds(5));
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Mono<String>> inFlight(RemoteTokenValidator validator) {
+        return (Map<String, Mono<String>>) ReflectionTestUtils.getField(validator, "inFlight");
+    }
+}
@@ -0,0 +1,238 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fran.apigateway.app.config.AccessRulesProperties;
+import com.fran.apigateway.app.filters.PublicRouteMatcher;
+import com.fran.apigateway.app.filters.ResponseCacheFilter;
+import com.fran.apigateway.app.services.ResponseCacheStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+public class ResponseCacheFilterTest {
+
+    private static final Route CATALOG = Route.async()
+            .id("catalog-service")
+            .uri("lb://catalog-service")
+            .predicate(exchange -> true)
+            .build();
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicInteger revalidations = new AtomicInteger();
+    private ResponseCacheStore store;
+    private ResponseCacheFilter factory;
+
+    // Cuerpo y Cache-Control que devuelve el "catalog-service" de la cadena y de la revalidacion
+    private String upstreamBody = "[\"v1\"]";
+    private String upstreamCacheControl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))
+                .forEach(environment.getPropertySources()::addLast);
+        AccessRulesProperties properties = Binder.get(environment)
+                .bind("gateway.access", AccessRulesProperties.class)
+                .get();
+
+        WebClient.Builder revalidationClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    revalidations.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(upstreamBody)
+                            .build());
+                });
+
+        store = new ResponseCacheStore(new SimpleMeterRegistry(), DataSize.ofMegabytes(1));
+        factory = new ResponseCacheFilter(store, new PublicRouteMatcher(properties), revalidationClient,
+                Duration.ofSeconds(1), DataSize.ofKilobytes(64));
+    }
+
+    private GatewayFilter filter(Duration ttl, Duration staleWhileRevalidate) {
+        ResponseCacheFilter.Config config = new ResponseCacheFilter.Config();
+        config.setTtl(ttl);
+        config.setStaleWhileRevalidate(staleWhileRevalidate);
+        return factory.apply(config);
+    }
+
+    private GatewayFilter filter() {
+        return filter(Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    private final GatewayFilterChain upstream = exchange -> {
+        upstreamCalls.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        if (!"GET".equals(exchange.getRequest().getMethod().name())) {
+            response.setStatusCode(HttpStatus.CREATED);
+            return response.setComplete();
+        }
+        byte[] body = upstreamBody.getBytes(StandardCharsets.UTF_8);
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        if (upstreamCacheControl != null) {
+            response.getHeaders().setCacheControl(upstreamCacheControl);
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    };
+
+    private MockServerWebExchange send(GatewayFilter filter, MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, CATALOG);
+        filter.filter(exchange, upstream).block();
+        return exchange;
+    }
+
+    private MockServerWebExchange get(GatewayFilter filter, String path) {
+        return send(filter, MockServerHttpRequest.get(path).build());
+    }
+
+    private static String body(MockServerWebExchange exchange) {
+        return exchange.getResponse().getBodyAsString().block();
+    }
+
+    private static String cacheStatus(MockServerWebExchange exchange) {
+        return exchange.getResponse().getHeaders().getFirst("X-Cache");
+    }
+
+    @Test
+    void get_ShouldMissFirst_AndServeFromMemoryAfterwards() {
+        GatewayFilter filter = filter();
+
+        MockServerWebExchange first = get(filter, "/api/v1/products/1");
+        MockServerWebExchange second = get(filter, "/api/v1/products/1");
+
+        assertEquals("MISS", cacheStatus(first));
+        assertEquals("[\"v1\"]", body(first));
+        assertEquals("HIT", cacheStatus(second));
+        assertEquals("[\"v1\"]", body(second));
+        assertEquals(MediaType.APPLICATION_JSON, second.getResponse().getHeaders().getContentType());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void get_ShouldAnswer304_WhenIfNoneMatchHasTheCachedEtag() {
+        GatewayFilter filter = filter();
+        get(filter, "/api/v1/products/1");
+        String etag = store.get("catalog-service /api/v1/products/1").etag();
+
+        MockServerWebExchange revalidated = send(filter, MockServerHttpRequest.get("/api/v1/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .build());
+        MockServerWebExchange otherEtag = send(filter, MockServerHttpRequest.get("/api/v1/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"otro\"")
+                .build());
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getResponse().getStatusCode());
+        assertEquals(etag, revalidated.getResponse().getHeaders().getETag());
+        assertEquals("", body(revalidated));
+        assertEquals(HttpStatus.OK, otherEtag.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void get_ShouldKeyByQueryString() {
+        GatewayFilter filter = filter();
+
+        get(filter, "/api/v1/products?page=1");
+        get(filter, "/api/v1/products?page=2");
+        MockServerWebExchange repeated = get(filter, "/api/v1/products?page=1");
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("HIT", cacheStatus(repeated));
+    }
+
+    // Caducada pero dentro de la ventana: se sirve la copia vieja y se refresca en segundo plano
+    @Test
+    void get_ShouldServeStaleCopy_AndRevalidateInBackground() throws InterruptedException {
+        GatewayFilter filter = filter(Duration.ofMillis(1), Duration.ofMinutes(1));
+        get(filter, "/api/v1/products/1");
+        Thread.sleep(5);
+        upstreamBody = "[\"v2\"]";
+
+        MockServerWebExchange stale = get(filter, "/api/v1/products/1");
+
+        assertEquals("STALE", cacheStatus(stale));
+        assertEquals("[\"v1\"]", body(stale));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, revalidations.get());
+        assertArrayEquals("[\"v2\"]".getBytes(StandardCharsets.UTF_8),
+                store.get("catalog-service /api/v1/products/1").body());
+    }
+
+    @Test
+    void write_ShouldInvalidateCachedGetsOfTheRoute() {
+        GatewayFilter filter = filter();
+        get(filter, "/api/v1/products/1");
+        get(filter, "/api/v1/products?page=1");
+
+        send(filter, MockServerHttpRequest.post("/api/v1/products").build());
+        MockServerWebExchange afterWrite = get(filter, "/api/v1/products/1");
+
+        assertNull(store.get("catalog-service /api/v1/products?page=1"));
+        assertEquals("MISS", cacheStatus(afterWrite));
+        assertEquals(4, upstreamCalls.get());
+    }
+
+    @Test
+    void get_ShouldNotStore_WhenServiceSaysNoStore() {
+        GatewayFilter filter = filter();
+        upstreamCacheControl = "no-store";
+
+        get(filter, "/api/v1/products/1");
+        get(filter, "/api/v1/products/1");
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void get_ShouldNotCache_RoutesThatRequireToken() {
+        GatewayFilter filter = filter();
+
+        MockServerWebExchange first = get(filter, "/api/v1/orders/1");
+        get(filter, "/api/v1/orders/1");
+
+        assertNull(cacheStatus(first));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void store_ShouldExpireEntries_AfterTtlPlusStaleWindow() throws InterruptedException {
+        GatewayFilter filter = filter(Duration.ofMillis(1), Duration.ofMillis(1));
+        get(filter, "/api/v1/products/1");
+        Thread.sleep(10);
+
+        assertNull(store.get("catalog-service /api/v1/products/1"));
+        assertEquals("MISS", cacheStatus(get(filter, "/api/v1/products/1")));
+        assertEquals(2, upstreamCalls.get());
+    }
+}
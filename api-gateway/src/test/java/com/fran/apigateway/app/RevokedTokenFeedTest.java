@@ -0,0 +1,100 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fran.apigateway.app.services.RevokedTokenFeed;
+import com.fran.apigateway.app.services.RevokedTokenRegistry;
+
+import reactor.core.publisher.Mono;
+
+public class RevokedTokenFeedTest {
+
+    private final List<URI> requests = new ArrayList<>();
+    private final RevokedTokenRegistry registry = new RevokedTokenRegistry();
+    private HttpStatus status;
+    private String body;
+    private RevokedTokenFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        status = HttpStatus.OK;
+        body = "[]";
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request.url());
+                    return Mono.just(ClientResponse.create(status)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(body)
+                            .build());
+                })
+                .build();
+        feed = new RevokedTokenFeed(webClient, registry, Duration.ofSeconds(5), Duration.ofSeconds(2));
+    }
+
+    private static String revocation(String jti, Instant expiresAt) {
+        return "{\"jti\":\"" + jti + "\",\"expiresAt\":\"" + expiresAt + "\",\"revokedAt\":\"" + Instant.now() + "\"}";
+    }
+
+    private String since(int request) {
+        String since = UriComponentsBuilder.fromUri(requests.get(request)).build().getQueryParams().getFirst("since");
+        return since == null ? null : URLDecoder.decode(since, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void poll_ShouldLoadAllActiveFirst_AndThenOnlyNewRevocations() {
+        body = "[" + revocation("jti-1", Instant.now().plusSeconds(600)) + "]";
+        feed.poll();
+        body = "[" + revocation("jti-2", Instant.now().plusSeconds(600)) + "]";
+        feed.poll();
+
+        assertNull(since(0));
+        assertTrue(Instant.parse(since(1)).isBefore(Instant.now()));
+        assertTrue(registry.isRevoked("jti-1"));
+        assertTrue(registry.isRevoked("jti-2"));
+        assertFalse(registry.isRevoked("jti-3"));
+    }
+
+    @Test
+    void poll_ShouldIgnoreExpiredTokens() {
+        body = "[" + revocation("old", Instant.now().minusSeconds(1)) + "]";
+
+        feed.poll();
+
+        assertFalse(registry.isRevoked("old"));
+        assertEquals(0, registry.size());
+    }
+
+    // Si users-service falla no se avanza: el siguiente ciclo vuelve a pedir desde el mismo punto
+    @Test
+    void poll_ShouldRetryFromScratch_WhenUsersServiceFails() {
+        status = HttpStatus.SERVICE_UNAVAILABLE;
+        feed.poll();
+        status = HttpStatus.OK;
+        body = "[" + revocation("jti-1", Instant.now().plusSeconds(600)) + "]";
+        feed.poll();
+
+        assertNull(since(0));
+        assertNull(since(1));
+        assertTrue(registry.isRevoked("jti-1"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fran.apigateway.app.services.LocalTokenValidator;
+import com.fran.apigateway.app.services.RemoteTokenValidator;
+import com.fran.apigateway.app.services.RevokedTokenRegistry;
+import com.fran.apigateway.app.services.TokenValidationCache;
+import com.fran.apigateway.app.services.TokenValidationService;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+// Benchmark de la validacion de tokens del gateway (no se ejecuta en el build normal):
+//   mvn test -Dtest=TokenValidationBenchmarkTest -Dgateway.benchmark=true
+// local: firma y expiracion en proceso. remote: HTTP real por loopback contra un validate-token simulado
+// (sin la cache de validaciones), asi que es la cota inferior del salto a users-service. Solo informa, sin umbral.
+@EnabledIfSystemProperty(named = "gateway.benchmark", matches = "true")
+public class TokenValidationBenchmarkTest {
+
+    private static final String SECRET = "bXlfc3VwZXJfc2VjcmV0X2tleV9mb3Jfanp3dF9pbl9iYXNlNjQ=";
+    private static final String TEST_EMAIL = "test@example.com";
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 20_000;
+
+    private static DisposableServer usersService;
+    private static TokenValidationService localMode;
+    private static TokenValidationService remoteMode;
+    private static String authHeader;
+
+    @BeforeAll
+    static void setUp() {
+        usersService = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/api/v1/security/validate-token",
+                        (request, response) -> response.sendString(Mono.just(TEST_EMAIL))))
+                .bindNow();
+
+        // http://users-service/... (lb en el gateway) -> el servidor local
+        WebClient webClient = WebClient.builder()
+                .filter((request, next) -> {
+                    URI local = UriComponentsBuilder.fromUri(request.url())
+                            .host(usersService.host())
+                            .port(usersService.port())
+                            .build(true)
+                            .toUri();
+                    return next.exchange(ClientRequest.from(request).url(local).build());
+                })
+                .build();
+        TokenValidationCache noCache = new TokenValidationCache(new SimpleMeterRegistry(), false, 1,
+                Duration.ofMinutes(5));
+
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of("jwt.secret", SECRET)));
+        RevokedTokenRegistry revokedTokens = new RevokedTokenRegistry();
+        LocalTokenValidator localValidator = new LocalTokenValidator(environment, revokedTokens);
+        RemoteTokenValidator remoteValidator = new RemoteTokenValidator(webClient, noCache, revokedTokens);
+
+        localMode = new TokenValidationService(localValidator, remoteValidator, "local", false);
+        remoteMode = new TokenValidationService(localValidator, remoteValidator, "remote", false);
+        authHeader = "Bearer " + Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .claim("rol", "USER")
+                .setSubject(TEST_EMAIL)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        usersService.disposeNow();
+    }
+
+    private static long[] latencies(TokenValidationService service, int iterations) {
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            assertEquals(TEST_EMAIL, service.validate(authHeader).block());
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static String report(String mode, long[] sorted) {
+        return String.format("%s: p50 %d us, p99 %d us", mode,
+                sorted[sorted.length / 2] / 1_000, sorted[(int) (sorted.length * 0.99)] / 1_000);
+    }
+
+    @Test
+    void benchmark_LocalVsRemoteValidation() {
+        latencies(localMode, WARMUP);
+        latencies(remoteMode, WARMUP);
+
+        long[] local = latencies(localMode, ITERATIONS);
+        long[] remote = latencies(remoteMode, ITERATIONS);
+
+        System.out.printf("Validacion de token (%d peticiones): %s | %s%n", ITERATIONS,
+                report("local", local), report("remote", remote));
+    }
+}
@@ -0,0 +1,76 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fran.apigateway.app.services.TokenValidationCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TokenValidationCacheTest {
+
+    private static final String TEST_EMAIL = "test@example.com";
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenValidationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TokenValidationCache(meterRegistry, true, 100, Duration.ofMinutes(5));
+    }
+
+    // Solo importa el payload: la firma ya la ha comprobado users-service
+    private String tokenExpiringIn(long seconds) {
+        long exp = System.currentTimeMillis() / 1000 + seconds;
+        String payload = "{\"sub\":\"" + TEST_EMAIL + "\",\"exp\":" + exp + "}";
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".firma";
+    }
+
+    @Test
+    void getIfPresent_ShouldReturnEmail_AfterPut() {
+        String token = tokenExpiringIn(3600);
+
+        assertNull(cache.getIfPresent(token));
+        cache.put(token, TEST_EMAIL);
+
+        assertEquals(TEST_EMAIL, cache.getIfPresent(token));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void put_ShouldIgnoreExpiredTokens() {
+        String token = tokenExpiringIn(-10);
+
+        cache.put(token, TEST_EMAIL);
+
+        assertNull(cache.getIfPresent(token));
+    }
+
+    @Test
+    void put_ShouldIgnoreTokensWithoutReadablePayload() {
+        cache.put("no-es-un-jwt", TEST_EMAIL);
+
+        assertNull(cache.getIfPresent("no-es-un-jwt"));
+    }
+
+    @Test
+    void getIfPresent_ShouldReturnNull_WhenDisabled() {
+        TokenValidationCache disabled = new TokenValidationCache(meterRegistry, false, 100, Duration.ofMinutes(5));
+        String token = tokenExpiringIn(3600);
+
+        disabled.put(token, TEST_EMAIL);
+
+        assertNull(disabled.getIfPresent(token));
+    }
+}
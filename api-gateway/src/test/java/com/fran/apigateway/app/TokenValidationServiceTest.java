@@ -0,0 +1,166 @@
+package com.fran.apigateway.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import com.fran.apigateway.app.errors.InvalidTokenException;
+import com.fran.apigateway.app.services.LocalTokenValidator;
+import com.fran.apigateway.app.services.RemoteTokenValidator;
+import com.fran.apigateway.app.services.RevokedTokenRegistry;
+import com.fran.apigateway.app.services.TokenValidationService;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import reactor.core.publisher.Mono;
+
+public class TokenValidationServiceTest {
+
+    private static final String SECRET = "bXlfc3VwZXJfc2VjcmV0X2tleV9mb3Jfanp3dF9pbl9iYXNlNjQ=";
+    private static final String OTHER_SECRET = "b3RyYV9jbGF2ZV9zZWNyZXRhX2Rpc3RpbnRhX3BhcmFfZmlybWFy";
+    private static final String TEST_EMAIL = "test@example.com";
+
+    private final Map<String, Object> properties = new HashMap<>();
+    private StandardEnvironment environment;
+    private RevokedTokenRegistry revokedTokens;
+    private LocalTokenValidator localValidator;
+    private RemoteTokenValidator remoteValidator;
+
+    @BeforeEach
+    void setUp() {
+        // Las claves se leen del Environment igual que en el gateway (jwt.secret y jwt.keys.<kid>)
+        properties.put("jwt.secret", SECRET);
+        environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        revokedTokens = new RevokedTokenRegistry();
+        localValidator = new LocalTokenValidator(environment, revokedTokens);
+        remoteValidator = mock(RemoteTokenValidator.class);
+    }
+
+    private String token(String secret, long expiresInMillis) {
+        return token(secret, expiresInMillis, UUID.randomUUID().toString());
+    }
+
+    private String token(String secret, long expiresInMillis, String jti) {
+        return token(secret, expiresInMillis, jti, null);
+    }
+
+    private String token(String secret, long expiresInMillis, String jti, String kid) {
+        return Jwts.builder()
+                .setHeaderParam("kid", kid)
+                .setId(jti)
+                .claim("rol", "USER")
+                .setSubject(TEST_EMAIL)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + expiresInMillis))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Test
+    void validate_ShouldReturnEmail_WhenLocalTokenIsValid() {
+        TokenValidationService service = new TokenValidationService(localValidator, remoteValidator, "local", false);
+
+        String email = service.validate("Bearer " + token(SECRET, 60_000)).block();
+
+        assertEquals(TEST_EMAIL, email);
+        verify(remoteValidator, never()).validate(anyString());
+    }
+
+    @Test
+    void validate_ShouldFail_WhenLocalTokenWasRevoked() {
+        TokenValidationService service = new TokenValidationService(localValidator, remoteValidator, "local", true);
+        String jti = UUID.randomUUID().toString();
+        String token = token(SECRET, 60_000, jti);
+        assertEquals(TEST_EMAIL, service.validate("Bearer " + token).block());
+
+        revokedTokens.revoke(jti, Instant.now().plusSeconds(60));
+
+        assertThrows(InvalidTokenException.class, service.validate("Bearer " + token)::block);
+        verify(remoteValidator, never()).validate(anyString());
+    }
+
+    @Test
+    void validate_ShouldFail_WhenLocalTokenIsExpired() {
+        TokenValidationService service = new TokenValidationService(localValidator, remoteValidator, "local", true);
+
+        Mono<String> result = service.validate("Bearer " + token(SECRET, -60_000));
+
+        assertThrows(InvalidTokenException.class, result::block);
+        verify(remoteValidator, never()).validate(anyString());
+    }
+
+    @Test
+    void validate_ShouldFail_WhenSignatureDoesNotMatchAndNoFallback() {
+        TokenValidationService service = new TokenValidationService(localValidator, remoteValidator, "local", false);
+
+        Mono<String> result = service.validate("Bearer " + token(OTHER_SECRET, 60_000));
+
+        assertThrows(InvalidTokenException.class, result::block);
+        verify(remoteValidator, never()).validate(anyString());
+    }
+
+    @Test
+    void validate_ShouldAskUsersService_WhenSignatureDoesNotMatchAndFallbackEnabled() {
+        String foreignToken = token(OTHER_SECRET, 60_000);
+        when(remoteValidator.validate(foreignToken)).thenReturn(Mono.just(TEST_EMAIL));
+        TokenValidationService service = new TokenValidationService(localValidator, remoteValidator, "local", true);
+
+        String email = service.validate("Bearer " + foreignToken).block();
+
+        assertEquals(TEST_EMAIL, email);
+        verify(remoteValidator).validate(foreignToken);
+    }
+
+    @Test
+    void validate_ShouldUseUsersService_WhenRemoteMode() {
+        String token = token(SECRET, 60_000);
+        when(remoteValidator.validate(token)).thenReturn(Mono.just(TEST_EMAIL));
+        TokenValidationService service = new TokenValidationService(localValidator, remoteValidator, "remote", false);
+
+        assertEquals(TEST_EMAIL, service.validate("Bearer " + token).block());
+        verify(remoteValidator).validate(token);
+    }
+
+    @Test
+    void validate_ShouldFail_WhenHeaderIsNotBearer() {
+        TokenValidationService service = new TokenValidationService(localValidator, remoteValidator, "local", false);
+
+        assertThrows(InvalidTokenException.class, () -> service.validate("Basic abc").block());
+    }
+
+    // Rotacion: una clave nueva en jwt.keys se acepta tras el EnvironmentChangeEvent del refresh
+    @Test
+    void validate_ShouldAcceptNewKid_AfterEnvironmentChange() {
+        TokenValidationService service = new TokenValidationService(localValidator, remoteValidator, "local", false);
+        String rotatedToken = token(OTHER_SECRET, 60_000, UUID.randomUUID().toString(), "2024-06");
+        assertThrows(InvalidTokenException.class, service.validate("Bearer " + rotatedToken)::block);
+
+        properties.put("jwt.keys.2024-06", OTHER_SECRET);
+        localValidator.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("other.property")));
+        assertThrows(InvalidTokenException.class, service.validate("Bearer " + rotatedToken)::block);
+
+        localValidator.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("jwt.keys.2024-06")));
+        assertEquals(TEST_EMAIL, service.validate("Bearer " + rotatedToken).block());
+        assertEquals(TEST_EMAIL, service.validate("Bearer " + token(SECRET, 60_000)).block());
+    }
+}
@@ -0,0 +1,51 @@
+package com.plataforma_deliveri.catalog_service.config;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import com.plataforma_deliveri.catalog_service.models.Product;
+import com.plataforma_deliveri.catalog_service.models.StockReservation;
+
+// Crea los indices declarados en Product y StockReservation (auto-index-creation esta desactivado por defecto en Spring Data).
+// Va en segundo plano al arrancar: sin Mongo disponible el servicio arranca igual y solo se registra el error
+@Component
+public class ProductIndexInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIndexInitializer.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexesOnStartup() {
+        CompletableFuture.runAsync(this::ensureIndexes)
+                .exceptionally(e -> {
+                    logger.error("No se han podido crear los indices del catalogo: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    public void ensureIndexes() {
+        for (Class<?> entity : List.of(Product.class, StockReservation.class)) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            new MongoPersistentEntityIndexResolver(mappingContext)
+                    .resolveIndexFor(entity)
+                    .forEach(indexOps::ensureIndex);
+        }
+        logger.info("Indices de products y stock_reservations comprobados");
+    }
+}
@@ -7,15 +7,22 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.plataforma_deliveri.catalog_service.dtos.ProductBatchRequestDto;
+import com.plataforma_deliveri.catalog_service.dtos.ProductFilterDto;
+import com.plataforma_deliveri.catalog_service.dtos.ProductLookupDto;
+import com.plataforma_deliveri.catalog_service.dtos.ProductPageDto;
 import com.plataforma_deliveri.catalog_service.dtos.ProductRequestDto;
 import com.plataforma_deliveri.catalog_service.dtos.ProductResponseDto;
+import com.plataforma_deliveri.catalog_service.dtos.StockAdjustmentDto;
 import com.plataforma_deliveri.catalog_service.services.ProductService;
 
 
@@ -26,9 +33,18 @@ public class ProductController {
     @Autowired
     private ProductService service;
 
+    // ?category=&active=&minPrice=&maxPrice=&after=<cursor>&size=&fields=id,name,price
     @GetMapping()
-    public ResponseEntity<List<ProductResponseDto>> findAll() {
-        return ResponseEntity.ok(service.getAllProducts());
+    public ResponseEntity<ProductPageDto> findAll(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "true") Boolean active,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) List<String> fields) {
+        ProductFilterDto filter = new ProductFilterDto(category, active, minPrice, maxPrice);
+        return ResponseEntity.ok(service.listProducts(filter, after, size, fields));
     }
 
     @GetMapping("/{id}")
@@ -36,17 +52,29 @@ public class ProductController {
         return ResponseEntity.ok(service.findById(id));
     }
 
+    // Resolucion de varios productos en una llamada (order-service al crear un pedido), hasta 100 ids
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductLookupDto>> findByIds(@RequestBody ProductBatchRequestDto request) {
+        return ResponseEntity.ok(service.lookupProducts(request));
+    }
+
     @PostMapping()
     public ResponseEntity<ProductResponseDto> createProduct(@RequestBody ProductRequestDto product) {
         ProductResponseDto createdProduct = service.createProduct(product);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
     }
 
+    // El stock del cuerpo se ignora: se cambia con PATCH /{id}/stock o con las reservas
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponseDto> updateProduct(@PathVariable String id, @RequestBody ProductRequestDto product) {
         return ResponseEntity.ok(service.updateProduct(id, product));
     }
 
+    @PatchMapping("/{id}/stock")
+    public ResponseEntity<ProductResponseDto> adjustStock(@PathVariable String id, @RequestBody StockAdjustmentDto request) {
+        return ResponseEntity.ok(service.adjustStock(id, request));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable String id) {
         service.deleteProduct(id);
@@ -0,0 +1,42 @@
+package com.plataforma_deliveri.catalog_service.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.plataforma_deliveri.catalog_service.dtos.StockReservationDto;
+import com.plataforma_deliveri.catalog_service.dtos.StockReservationRequestDto;
+import com.plataforma_deliveri.catalog_service.services.StockReservationService;
+
+// Reservas de stock por pedido (order-service). PUT, confirm y DELETE son idempotentes: se pueden reintentar
+@RestController
+@RequestMapping("/api/v1/products/reservations")
+public class StockReservationController {
+
+    @Autowired
+    private StockReservationService service;
+
+    // 200 con la reserva; 409 si algun producto no tiene stock (no se descuenta ninguno)
+    @PutMapping("/{orderId}")
+    public ResponseEntity<StockReservationDto> reserve(@PathVariable String orderId,
+            @RequestBody StockReservationRequestDto request) {
+        return ResponseEntity.ok(service.reserve(orderId, request));
+    }
+
+    // Pago completado: sin confirmar, la reserva caduca en catalog.stock.reservation-ttl y el stock vuelve
+    @PostMapping("/{orderId}/confirm")
+    public ResponseEntity<StockReservationDto> confirm(@PathVariable String orderId) {
+        return ResponseEntity.ok(service.confirm(orderId));
+    }
+
+    @DeleteMapping("/{orderId}")
+    public ResponseEntity<StockReservationDto> release(@PathVariable String orderId) {
+        return ResponseEntity.ok(service.release(orderId));
+    }
+}
@@ -0,0 +1,10 @@
+package com.plataforma_deliveri.catalog_service.dtos;
+
+// Evento en product-events (clave = id del producto) cuando cambia precio, stock o estado, o se borra
+public record ProductChangedEventDto(
+    String productId,
+    Double price,
+    Integer stock,
+    boolean active,
+    boolean deleted
+) {}
@@ -0,0 +1,8 @@
+package com.plataforma_deliveri.catalog_service.dtos;
+
+public record ProductFilterDto(
+    String category,
+    Boolean active,
+    Double minPrice,
+    Double maxPrice
+) {}
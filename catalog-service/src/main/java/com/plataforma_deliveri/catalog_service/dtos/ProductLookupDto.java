@@ -0,0 +1,8 @@
+package com.plataforma_deliveri.catalog_service.dtos;
+
+// Resultado por id del lote: los ids que no existen vuelven con found = false en lugar de fallar la llamada
+public record ProductLookupDto(
+    String id,
+    boolean found,
+    ProductResponseDto product
+) {}
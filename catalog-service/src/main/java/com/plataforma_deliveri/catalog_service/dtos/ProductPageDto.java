@@ -0,0 +1,9 @@
+package com.plataforma_deliveri.catalog_service.dtos;
+
+import java.util.List;
+
+// nextCursor = id del ultimo producto; null cuando no hay mas paginas
+public record ProductPageDto(
+    List<ProductResponseDto> items,
+    String nextCursor
+) {}
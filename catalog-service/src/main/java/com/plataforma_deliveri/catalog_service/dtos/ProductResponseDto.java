@@ -2,6 +2,10 @@ package com.plataforma_deliveri.catalog_service.dtos;
 
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Con fields= solo llegan algunos campos; los que no se han pedido no se serializan
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record ProductResponseDto(
     String id,
     String name,
@@ -0,0 +1,6 @@
+package com.plataforma_deliveri.catalog_service.dtos;
+
+// Unidades a sumar (o restar si es negativo) al stock actual
+public record StockAdjustmentDto(
+    Integer delta
+) {}
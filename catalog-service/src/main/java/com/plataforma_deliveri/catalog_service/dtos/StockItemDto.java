@@ -0,0 +1,6 @@
+package com.plataforma_deliveri.catalog_service.dtos;
+
+public record StockItemDto(
+    String productId,
+    Integer quantity
+) {}
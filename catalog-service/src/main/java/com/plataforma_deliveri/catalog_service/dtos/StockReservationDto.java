@@ -0,0 +1,12 @@
+package com.plataforma_deliveri.catalog_service.dtos;
+
+import java.time.Instant;
+import java.util.List;
+
+// status: PENDING, RESERVED, CONFIRMED o RELEASED. Sin confirmar, el stock vuelve solo en expiresAt
+public record StockReservationDto(
+    String orderId,
+    String status,
+    List<StockItemDto> items,
+    Instant expiresAt
+) {}
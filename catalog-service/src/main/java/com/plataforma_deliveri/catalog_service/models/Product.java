@@ -5,10 +5,18 @@ import java.time.LocalDate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+// Indices del listado paginado (GET /api/v1/products): igualdad (active, categoria), despues _id por el
+// que se ordena y se hace el seek, y al final el rango de precio
 @Document(collection = "products")
+@CompoundIndexes({
+        @CompoundIndex(name = "idx_active_category_id_price", def = "{'active': 1, 'product_category': 1, '_id': 1, 'price': 1}"),
+        @CompoundIndex(name = "idx_active_id_price", def = "{'active': 1, '_id': 1, 'price': 1}")
+})
 public class Product {
 
     @Id
@@ -0,0 +1,85 @@
+package com.plataforma_deliveri.catalog_service.models;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Stock descontado para un pedido. El _id es el id del pedido: reservar dos veces el mismo pedido
+// devuelve la reserva existente y liberarla dos veces no devuelve el stock dos veces.
+//   PENDING -> se estan descontando las lineas (cada una se marca applied al descontarla)
+//   RESERVED -> todo descontado, pendiente del pago
+//   CONFIRMED -> pedido pagado, el stock ya no vuelve
+//   RELEASED -> stock devuelto (pago fallido, caducada o liberada antes de reservar)
+// Las PENDING y RESERVED que pasan de expiresAt las libera StockReservationService.releaseExpired
+@Document(collection = "stock_reservations")
+@CompoundIndex(name = "idx_status_expires_at", def = "{'status': 1, 'expiresAt': 1}")
+public class StockReservation {
+
+    public static final String PENDING = "PENDING";
+    public static final String RESERVED = "RESERVED";
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String RELEASED = "RELEASED";
+
+    @Id
+    private String orderId;
+
+    private List<StockReservationItem> items;
+    private String status;
+    private Instant createdAt;
+    private Instant expiresAt;
+
+    public StockReservation() {
+    }
+
+    public StockReservation(String orderId, List<StockReservationItem> items, String status, Instant createdAt,
+            Instant expiresAt) {
+        this.orderId = orderId;
+        this.items = items;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public List<StockReservationItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockReservationItem> items) {
+        this.items = items;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,42 @@
+package com.plataforma_deliveri.catalog_service.models;
+
+public class StockReservationItem {
+
+    private String productId;
+    private Integer quantity;
+
+    // true mientras el stock de esta linea esta descontado; quien lo pasa a false es quien lo devuelve
+    private boolean applied;
+
+    public StockReservationItem() {
+    }
+
+    public StockReservationItem(String productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+}
@@ -0,0 +1,13 @@
+package com.plataforma_deliveri.catalog_service.repositories;
+
+import java.util.List;
+import java.util.Set;
+
+import com.plataforma_deliveri.catalog_service.dtos.ProductFilterDto;
+import com.plataforma_deliveri.catalog_service.models.Product;
+
+public interface IProductQueryRepository {
+
+    // Productos con id > afterId (null = desde el principio) ordenados por id. fields vacio = documento completo
+    List<Product> findPage(ProductFilterDto filter, String afterId, int limit, Set<String> fields);
+}
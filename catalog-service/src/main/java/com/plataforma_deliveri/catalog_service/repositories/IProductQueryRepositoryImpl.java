@@ -0,0 +1,51 @@
+package com.plataforma_deliveri.catalog_service.repositories;
+
+import java.util.List;
+import java.util.Set;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.plataforma_deliveri.catalog_service.dtos.ProductFilterDto;
+import com.plataforma_deliveri.catalog_service.models.Product;
+
+public class IProductQueryRepositoryImpl implements IProductQueryRepository {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Product> findPage(ProductFilterDto filter, String afterId, int limit, Set<String> fields) {
+        Query query = new Query();
+
+        if (filter.active() != null) {
+            query.addCriteria(Criteria.where("active").is(filter.active()));
+        }
+        if (filter.category() != null) {
+            query.addCriteria(Criteria.where("category").is(filter.category()));
+        }
+        if (filter.minPrice() != null || filter.maxPrice() != null) {
+            Criteria price = Criteria.where("price");
+            if (filter.minPrice() != null) {
+                price.gte(filter.minPrice());
+            }
+            if (filter.maxPrice() != null) {
+                price.lte(filter.maxPrice());
+            }
+            query.addCriteria(price);
+        }
+        // Seek: se continua desde el ultimo _id devuelto, sin skip
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(new ObjectId(afterId)));
+        }
+
+        query.with(Sort.by(Sort.Direction.ASC, "id")).limit(limit);
+        fields.forEach(field -> query.fields().include(field));
+
+        return mongoTemplate.find(query, Product.class);
+    }
+}
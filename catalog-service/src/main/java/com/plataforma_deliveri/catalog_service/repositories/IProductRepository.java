@@ -6,6 +6,7 @@ import org.springframework.stereotype.Repository;
 import com.plataforma_deliveri.catalog_service.models.Product;
 
 @Repository
-public interface IProductRepository extends MongoRepository<Product, String> {
+public interface IProductRepository extends MongoRepository<Product, String>, IProductQueryRepository,
+        IProductStockRepository, IProductUpdateRepository {
 
 }
@@ -0,0 +1,16 @@
+package com.plataforma_deliveri.catalog_service.repositories;
+
+import java.util.Optional;
+
+import com.plataforma_deliveri.catalog_service.models.Product;
+
+public interface IProductStockRepository {
+
+    // Un unico update atomico: solo descuenta si el producto esta activo y le quedan al menos quantity unidades
+    boolean decrementStock(String productId, int quantity);
+
+    void incrementStock(String productId, int quantity);
+
+    // Ajuste manual (+/-) sin dejar el stock en negativo; vacio si no existe o no hay unidades suficientes
+    Optional<Product> adjustStock(String productId, int delta);
+}
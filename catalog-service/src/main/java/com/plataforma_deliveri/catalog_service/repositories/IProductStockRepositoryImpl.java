@@ -0,0 +1,44 @@
+package com.plataforma_deliveri.catalog_service.repositories;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.plataforma_deliveri.catalog_service.models.Product;
+
+public class IProductStockRepositoryImpl implements IProductStockRepository {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean decrementStock(String productId, int quantity) {
+        // La condicion y el $inc van en la misma operacion: dos pedidos no pueden vender la misma unidad
+        Query query = new Query(Criteria.where("id").is(productId)
+                .and("active").is(true)
+                .and("stock").gte(quantity));
+        return mongoTemplate.updateFirst(query, new Update().inc("stock", -quantity), Product.class)
+                .getModifiedCount() == 1;
+    }
+
+    @Override
+    public void incrementStock(String productId, int quantity) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(productId)),
+                new Update().inc("stock", quantity), Product.class);
+    }
+
+    @Override
+    public Optional<Product> adjustStock(String productId, int delta) {
+        Criteria criteria = Criteria.where("id").is(productId);
+        if (delta < 0) {
+            criteria = criteria.and("stock").gte(-delta);
+        }
+        return Optional.ofNullable(mongoTemplate.findAndModify(new Query(criteria), new Update().inc("stock", delta),
+                FindAndModifyOptions.options().returnNew(true), Product.class));
+    }
+}
@@ -0,0 +1,11 @@
+package com.plataforma_deliveri.catalog_service.repositories;
+
+import java.util.Optional;
+
+import com.plataforma_deliveri.catalog_service.models.Product;
+
+public interface IProductUpdateRepository {
+
+    // $set de los datos del producto sin tocar el stock; vacio si no existe
+    Optional<Product> updateDetails(String id, String name, String descripction, Double price, String category);
+}
@@ -0,0 +1,32 @@
+package com.plataforma_deliveri.catalog_service.repositories;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.plataforma_deliveri.catalog_service.models.Product;
+
+public class IProductUpdateRepositoryImpl implements IProductUpdateRepository {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Product> updateDetails(String id, String name, String descripction, Double price,
+            String category) {
+        Update update = new Update()
+                .set("name", name)
+                .set("descripction", descripction)
+                .set("price", price)
+                .set("category", category)
+                .set("updatedAt", LocalDate.now());
+        return Optional.ofNullable(mongoTemplate.findAndModify(new Query(Criteria.where("id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), Product.class));
+    }
+}
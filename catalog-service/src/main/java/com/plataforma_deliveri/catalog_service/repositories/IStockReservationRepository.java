@@ -0,0 +1,12 @@
+package com.plataforma_deliveri.catalog_service.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.plataforma_deliveri.catalog_service.models.StockReservation;
+
+@Repository
+public interface IStockReservationRepository
+        extends MongoRepository<StockReservation, String>, IStockReservationStatusRepository {
+
+}
@@ -0,0 +1,25 @@
+package com.plataforma_deliveri.catalog_service.repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import com.plataforma_deliveri.catalog_service.models.StockReservation;
+
+// Transiciones atomicas (un update condicional cada una): si dos llamadas compiten solo una gana
+public interface IStockReservationStatusRepository {
+
+    // from -> to; false si la reserva no existe o no estaba en ninguno de los estados from
+    boolean changeStatus(String orderId, Collection<String> from, String to);
+
+    // Como changeStatus a RELEASED, pero solo si sigue PENDING o RESERVED y ha pasado expiresAt
+    boolean releaseIfExpired(String orderId, Instant now);
+
+    // Linea descontada: solo mientras la reserva sigue PENDING
+    boolean markItemApplied(String orderId, String productId);
+
+    // applied true -> false; quien recibe true es el unico que debe devolver ese stock
+    boolean takeAppliedItem(String orderId, String productId);
+
+    List<StockReservation> findExpired(Instant now, int limit);
+}
@@ -0,0 +1,63 @@
+package com.plataforma_deliveri.catalog_service.repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.plataforma_deliveri.catalog_service.models.StockReservation;
+
+public class IStockReservationStatusRepositoryImpl implements IStockReservationStatusRepository {
+
+    private static final List<String> OPEN = List.of(StockReservation.PENDING, StockReservation.RESERVED);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean changeStatus(String orderId, Collection<String> from, String to) {
+        Query query = new Query(Criteria.where("orderId").is(orderId).and("status").in(from));
+        return update(query, new Update().set("status", to));
+    }
+
+    @Override
+    public boolean releaseIfExpired(String orderId, Instant now) {
+        Query query = new Query(Criteria.where("orderId").is(orderId)
+                .and("status").in(OPEN)
+                .and("expiresAt").lt(now));
+        return update(query, new Update().set("status", StockReservation.RELEASED));
+    }
+
+    @Override
+    public boolean markItemApplied(String orderId, String productId) {
+        Query query = new Query(Criteria.where("orderId").is(orderId)
+                .and("status").is(StockReservation.PENDING)
+                .and("items").elemMatch(Criteria.where("productId").is(productId).and("applied").is(false)));
+        return update(query, new Update().set("items.$.applied", true));
+    }
+
+    @Override
+    public boolean takeAppliedItem(String orderId, String productId) {
+        Query query = new Query(Criteria.where("orderId").is(orderId)
+                .and("items").elemMatch(Criteria.where("productId").is(productId).and("applied").is(true)));
+        return update(query, new Update().set("items.$.applied", false));
+    }
+
+    @Override
+    public List<StockReservation> findExpired(Instant now, int limit) {
+        Query query = new Query(Criteria.where("status").in(OPEN).and("expiresAt").lt(now))
+                .with(Sort.by(Sort.Direction.ASC, "expiresAt"))
+                .limit(limit);
+        return mongoTemplate.find(query, StockReservation.class);
+    }
+
+    private boolean update(Query query, Update update) {
+        return mongoTemplate.updateFirst(query, update, StockReservation.class).getModifiedCount() == 1;
+    }
+}
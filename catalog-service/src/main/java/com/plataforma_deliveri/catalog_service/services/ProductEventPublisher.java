@@ -0,0 +1,52 @@
+package com.plataforma_deliveri.catalog_service.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataforma_deliveri.catalog_service.config.KafkaTopicConfig;
+import com.plataforma_deliveri.catalog_service.dtos.ProductChangedEventDto;
+import com.plataforma_deliveri.catalog_service.models.Product;
+
+// Avisa de cambios de precio/stock para que las caches de otros servicios (order-service) invaliden.
+// El envio es asincrono: si Kafka no esta disponible el cambio se guarda igual y solo se registra el error
+@Component
+public class ProductEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventPublisher.class);
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void publishChanged(Product product) {
+        send(new ProductChangedEventDto(product.getId(), product.getPrice(), product.getStock(),
+                product.isActive(), false));
+    }
+
+    public void publishDeleted(String productId) {
+        send(new ProductChangedEventDto(productId, null, null, false, true));
+    }
+
+    private void send(ProductChangedEventDto event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        kafkaTemplate.send(KafkaTopicConfig.PRODUCT_EVENTS_TOPIC, event.productId(), payload)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        logger.error("No se pudo publicar el cambio del producto {}: {}", event.productId(),
+                                error.getMessage());
+                    }
+                });
+    }
+}
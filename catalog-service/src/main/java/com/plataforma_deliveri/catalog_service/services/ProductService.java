@@ -1,13 +1,25 @@
 package com.plataforma_deliveri.catalog_service.services;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.plataforma_deliveri.catalog_service.dtos.ProductBatchRequestDto;
+import com.plataforma_deliveri.catalog_service.dtos.ProductFilterDto;
+import com.plataforma_deliveri.catalog_service.dtos.ProductLookupDto;
+import com.plataforma_deliveri.catalog_service.dtos.ProductPageDto;
 import com.plataforma_deliveri.catalog_service.dtos.ProductRequestDto;
 import com.plataforma_deliveri.catalog_service.dtos.ProductResponseDto;
+import com.plataforma_deliveri.catalog_service.dtos.StockAdjustmentDto;
 import com.plataforma_deliveri.catalog_service.errors.ProductNotFoundException;
 import com.plataforma_deliveri.catalog_service.models.Product;
 import com.plataforma_deliveri.catalog_service.repositories.IProductRepository;
@@ -15,9 +27,24 @@ import com.plataforma_deliveri.catalog_service.repositories.IProductRepository;
 @Service
 public class ProductService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private static final Map<String, String> LIST_FIELDS = Map.of(
+            "id", "id",
+            "name", "name",
+            "description", "descripction",
+            "price", "price",
+            "stock", "stock",
+            "category", "category",
+            "createdAt", "createdAt");
+
     @Autowired
     private IProductRepository repository;
 
+    @Autowired
+    private ProductEventPublisher eventPublisher;
+
     public ProductResponseDto createProduct(ProductRequestDto request) {
         Product product = ProductMapper.toEntity(request);
 
@@ -31,24 +58,91 @@ public class ProductService {
         return ProductMapper.toResponseDTO(product);
     }
 
-    public List<ProductResponseDto> getAllProducts() {
-        List<Product> products = repository.findAll();
+    // Un solo find con $in para todo el lote; la respuesta sigue el orden (y los repetidos) de la peticion
+    public List<ProductLookupDto> lookupProducts(ProductBatchRequestDto request) {
+        List<String> ids = request.ids() == null ? List.of() : request.ids();
+        if (ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indica al menos un id");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Maximo " + MAX_BATCH_SIZE + " productos por lote");
+        }
+
+        Map<String, ProductResponseDto> byId = new HashMap<>();
+        repository.findAllById(new LinkedHashSet<>(ids))
+                .forEach(product -> byId.put(product.getId(), ProductMapper.toResponseDTO(product)));
+
+        return ids.stream()
+                .map(id -> new ProductLookupDto(id, byId.containsKey(id), byId.get(id)))
+                .toList();
+    }
+
+    // Paginacion por cursor sobre _id: cada pagina es un seek por indice, no recorre ni carga la coleccion entera
+    public ProductPageDto listProducts(ProductFilterDto filter, String after, int size, List<String> fields) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        if (after != null && !ObjectId.isValid(after)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor no valido: " + after);
+        }
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice() > filter.maxPrice()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPrice no puede ser mayor que maxPrice");
+        }
+
+        // Se pide uno de mas para saber si hay pagina siguiente sin un count()
+        List<Product> products = repository.findPage(filter, after, size + 1, toProperties(fields));
+        boolean hasMore = products.size() > size;
+        List<ProductResponseDto> items = products.stream()
+                .limit(size)
+                .map(ProductMapper::toResponseDTO)
+                .collect(Collectors.toList());
 
-        return products.stream()
-        .map(ProductMapper::toResponseDTO)
-        .collect(Collectors.toList());
+        String nextCursor = hasMore ? items.get(items.size() - 1).id() : null;
+        return new ProductPageDto(items, nextCursor);
     }
 
+    // Nombres de la API -> propiedades de Product. El id siempre se incluye (es el cursor)
+    private static Set<String> toProperties(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> properties = new LinkedHashSet<>();
+        properties.add("id");
+        for (String field : fields) {
+            String property = LIST_FIELDS.get(field.trim());
+            if (property == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Campo no valido: " + field + ". Permitidos: " + LIST_FIELDS.keySet());
+            }
+            properties.add(property);
+        }
+        return properties;
+    }
+
+    // $set de los datos, sin leer y guardar el documento entero: el stock solo cambia con $inc (reservas y
+    // adjustStock), y un save() pisaria las reservas que llegasen entre el findById y el save
     public ProductResponseDto updateProduct(String id, ProductRequestDto request) {
-        Product existingProduct = repository.findById(id).orElseThrow(() -> new ProductNotFoundException("Producto con id: " + id + " no encontrado"));
+        Product updatedProduct = repository.updateDetails(id, request.name(), request.description(), request.price(),
+                request.category())
+                .orElseThrow(() -> new ProductNotFoundException("Producto con id: " + id + " no encontrado"));
+        eventPublisher.publishChanged(updatedProduct);
 
-        existingProduct.setName(request.name());
-        existingProduct.setDescripction(request.description());
-        existingProduct.setPrice(request.price());
-        existingProduct.setStock(request.stock());
-        existingProduct.setCategory(request.category());
+        return ProductMapper.toResponseDTO(updatedProduct);
+    }
+
+    // Entrada de mercancia (delta > 0) o correccion de inventario (delta < 0)
+    public ProductResponseDto adjustStock(String id, StockAdjustmentDto request) {
+        if (request == null || request.delta() == null || request.delta() == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indica un delta distinto de 0");
+        }
 
-        Product updatedProduct = repository.save(existingProduct);
+        Product updatedProduct = repository.adjustStock(id, request.delta()).orElseThrow(() -> {
+            if (!repository.existsById(id)) {
+                return new ProductNotFoundException("Producto con id: " + id + " no encontrado");
+            }
+            return new ResponseStatusException(HttpStatus.CONFLICT, "El stock del producto " + id + " no puede quedar negativo");
+        });
+        eventPublisher.publishChanged(updatedProduct);
 
         return ProductMapper.toResponseDTO(updatedProduct);
     }
@@ -59,5 +153,6 @@ public class ProductService {
         }
 
         repository.deleteById(id);
+        eventPublisher.publishDeleted(id);
     }
 }
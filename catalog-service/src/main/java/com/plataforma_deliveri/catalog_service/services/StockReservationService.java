@@ -0,0 +1,247 @@
+package com.plataforma_deliveri.catalog_service.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.plataforma_deliveri.catalog_service.dtos.StockItemDto;
+import com.plataforma_deliveri.catalog_service.dtos.StockReservationDto;
+import com.plataforma_deliveri.catalog_service.dtos.StockReservationRequestDto;
+import com.plataforma_deliveri.catalog_service.errors.ProductNotFoundException;
+import com.plataforma_deliveri.catalog_service.models.Product;
+import com.plataforma_deliveri.catalog_service.models.StockReservation;
+import com.plataforma_deliveri.catalog_service.models.StockReservationItem;
+import com.plataforma_deliveri.catalog_service.repositories.IProductRepository;
+import com.plataforma_deliveri.catalog_service.repositories.IStockReservationRepository;
+
+// Reserva de stock para pedidos: todo o nada. Primero se guarda la reserva PENDING con su caducidad, despues
+// cada producto se descuenta con un update condicional y su linea se marca applied. Lo que se haya
+// descontado se devuelve al fallar, al liberar o, si el proceso muere a medias, al caducar.
+@Service
+public class StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private IStockReservationRepository reservationRepository;
+
+    // Tiempo maximo para confirmar (pago completado); despues el stock vuelve al catalogo
+    @Value("${catalog.stock.reservation-ttl:30m}")
+    private Duration reservationTtl;
+
+    public StockReservationDto reserve(String orderId, StockReservationRequestDto request) {
+        Map<String, Integer> quantities = mergeItems(request);
+
+        // Reintento del mismo pedido: se devuelve la reserva que ya hay, aunque traiga otras lineas
+        StockReservation existing = reservationRepository.findById(orderId).orElse(null);
+        if (existing != null) {
+            return toExistingReservation(existing);
+        }
+
+        Instant now = Instant.now();
+        List<StockReservationItem> items = quantities.entrySet().stream()
+                .map(item -> new StockReservationItem(item.getKey(), item.getValue()))
+                .toList();
+        StockReservation reservation = new StockReservation(orderId, items, StockReservation.PENDING, now,
+                now.plus(reservationTtl));
+        try {
+            reservationRepository.insert(reservation);
+        } catch (DuplicateKeyException e) {
+            // Otra llamada del mismo pedido se ha adelantado: vale la suya
+            return toExistingReservation(reservationRepository.findById(orderId).orElseThrow(() -> e));
+        }
+
+        try {
+            for (StockReservationItem item : items) {
+                if (!productRepository.decrementStock(item.getProductId(), item.getQuantity())) {
+                    throw unavailable(item.getProductId());
+                }
+                if (!reservationRepository.markItemApplied(orderId, item.getProductId())) {
+                    // Liberada mientras se reservaba: esta linea no la tiene apuntada nadie, se devuelve aqui
+                    productRepository.incrementStock(item.getProductId(), item.getQuantity());
+                    throw releasedMeanwhile(orderId);
+                }
+                item.setApplied(true);
+            }
+            if (!reservationRepository.changeStatus(orderId, List.of(StockReservation.PENDING),
+                    StockReservation.RESERVED)) {
+                throw releasedMeanwhile(orderId);
+            }
+        } catch (RuntimeException e) {
+            abort(orderId);
+            throw e;
+        }
+
+        reservation.setStatus(StockReservation.RESERVED);
+        return toDto(reservation);
+    }
+
+    // Pago completado: la reserva deja de caducar
+    public StockReservationDto confirm(String orderId) {
+        if (reservationRepository.changeStatus(orderId, List.of(StockReservation.RESERVED),
+                StockReservation.CONFIRMED)) {
+            return toDto(findReservation(orderId));
+        }
+
+        StockReservation existing = findReservation(orderId);
+        if (!StockReservation.CONFIRMED.equals(existing.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "La reserva del pedido " + orderId + " esta " + existing.getStatus() + " y no se puede confirmar");
+        }
+        return toDto(existing);
+    }
+
+    // Pago fallido: devuelve el stock una sola vez aunque se llame varias. Si aun no hay reserva se deja una
+    // RELEASED vacia, para que un reserve que llegue tarde (timeout en order-service) se rechace
+    public StockReservationDto release(String orderId) {
+        if (reservationRepository.changeStatus(orderId,
+                List.of(StockReservation.PENDING, StockReservation.RESERVED), StockReservation.RELEASED)) {
+            restoreAppliedItems(orderId);
+            logger.info("Reserva del pedido {} liberada", orderId);
+            return toDto(findReservation(orderId));
+        }
+
+        StockReservation existing = reservationRepository.findById(orderId).orElse(null);
+        if (existing == null) {
+            Instant now = Instant.now();
+            try {
+                return toDto(reservationRepository.insert(
+                        new StockReservation(orderId, List.of(), StockReservation.RELEASED, now, now)));
+            } catch (DuplicateKeyException e) {
+                return release(orderId);
+            }
+        }
+        if (StockReservation.CONFIRMED.equals(existing.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "La reserva del pedido " + orderId + " ya esta confirmada");
+        }
+        return toDto(existing);
+    }
+
+    // Reservas sin confirmar ni liberar pasado su plazo (order-service caido, timeout, proceso muerto a medias)
+    @Scheduled(initialDelayString = "${catalog.stock.sweep-interval:PT1M}",
+            fixedDelayString = "${catalog.stock.sweep-interval:PT1M}")
+    public void releaseExpired() {
+        try {
+            Instant now = Instant.now();
+            for (StockReservation reservation : reservationRepository.findExpired(now, SWEEP_BATCH_SIZE)) {
+                if (reservationRepository.releaseIfExpired(reservation.getOrderId(), now)) {
+                    restoreAppliedItems(reservation.getOrderId());
+                    logger.warn("Reserva del pedido {} caducada ({}), stock devuelto",
+                            reservation.getOrderId(), reservation.getStatus());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("No se pudieron liberar las reservas caducadas: {}", e.getMessage());
+        }
+    }
+
+    // Lineas repetidas del mismo producto se suman; el orden por id evita depender del orden del pedido
+    private Map<String, Integer> mergeItems(StockReservationRequestDto request) {
+        List<StockItemDto> items = request == null || request.items() == null ? List.of() : request.items();
+        if (items.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indica al menos un producto");
+        }
+        if (items.size() > ProductService.MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Maximo " + ProductService.MAX_BATCH_SIZE + " productos por reserva");
+        }
+
+        Map<String, Integer> quantities = new TreeMap<>();
+        for (StockItemDto item : items) {
+            if (item.productId() == null || item.productId().isBlank() || item.quantity() == null
+                    || item.quantity() <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Cada linea necesita productId y una cantidad mayor que 0");
+            }
+            quantities.merge(item.productId(), item.quantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    // Reserva fallida: se cierra y se devuelve lo descontado. Si Mongo no responde, lo hara releaseExpired
+    private void abort(String orderId) {
+        try {
+            if (reservationRepository.changeStatus(orderId, List.of(StockReservation.PENDING),
+                    StockReservation.RELEASED)) {
+                restoreAppliedItems(orderId);
+            }
+        } catch (RuntimeException e) {
+            logger.error("No se pudo deshacer la reserva del pedido {}, se liberara al caducar: {}",
+                    orderId, e.getMessage());
+        }
+    }
+
+    // takeAppliedItem es condicional: aunque liberen a la vez release, abort y releaseExpired, cada linea
+    // se devuelve una sola vez
+    private void restoreAppliedItems(String orderId) {
+        StockReservation reservation = reservationRepository.findById(orderId).orElse(null);
+        if (reservation == null) {
+            return;
+        }
+        for (StockReservationItem item : reservation.getItems()) {
+            if (item.isApplied() && reservationRepository.takeAppliedItem(orderId, item.getProductId())) {
+                productRepository.incrementStock(item.getProductId(), item.getQuantity());
+            }
+        }
+    }
+
+    private StockReservation findReservation(String orderId) {
+        return reservationRepository.findById(orderId).orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No hay reserva para el pedido " + orderId));
+    }
+
+    // Solo se lee el producto cuando ya ha fallado el update, para explicar el motivo
+    private RuntimeException unavailable(String productId) {
+        Product product = productRepository.findById(productId).orElse(null);
+        if (product == null) {
+            return new ProductNotFoundException("Producto no encontrado: " + productId);
+        }
+        if (!product.isActive()) {
+            return new ResponseStatusException(HttpStatus.CONFLICT, "Producto no disponible: " + productId);
+        }
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Stock insuficiente para el producto " + productId);
+    }
+
+    private static ResponseStatusException releasedMeanwhile(String orderId) {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "La reserva del pedido " + orderId + " se libero mientras se creaba");
+    }
+
+    private StockReservationDto toExistingReservation(StockReservation reservation) {
+        if (StockReservation.RELEASED.equals(reservation.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "La reserva del pedido " + reservation.getOrderId() + " ya fue liberada");
+        }
+        if (StockReservation.PENDING.equals(reservation.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "La reserva del pedido " + reservation.getOrderId() + " se esta creando");
+        }
+        return toDto(reservation);
+    }
+
+    private static StockReservationDto toDto(StockReservation reservation) {
+        return new StockReservationDto(reservation.getOrderId(), reservation.getStatus(),
+                reservation.getItems().stream()
+                        .map(item -> new StockItemDto(item.getProductId(), item.getQuantity()))
+                        .toList(),
+                reservation.getExpiresAt());
+    }
+}
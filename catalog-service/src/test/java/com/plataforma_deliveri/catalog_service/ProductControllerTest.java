@@ -16,8 +16,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.plataforma_deliveri.catalog_service.controllers.ProductController;
+import com.plataforma_deliveri.catalog_service.dtos.ProductBatchRequestDto;
+import com.plataforma_deliveri.catalog_service.dtos.ProductFilterDto;
+import com.plataforma_deliveri.catalog_service.dtos.ProductLookupDto;
+import com.plataforma_deliveri.catalog_service.dtos.ProductPageDto;
 import com.plataforma_deliveri.catalog_service.dtos.ProductRequestDto;
 import com.plataforma_deliveri.catalog_service.dtos.ProductResponseDto;
+import com.plataforma_deliveri.catalog_service.dtos.StockAdjustmentDto;
 import com.plataforma_deliveri.catalog_service.services.ProductService;
 
 import com.plataforma_deliveri.catalog_service.errors.ProductNotFoundException;
@@ -25,6 +30,7 @@ import com.plataforma_deliveri.catalog_service.errors.ProductNotFoundException;
 import org.springframework.http.MediaType;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -79,20 +85,66 @@ public class ProductControllerTest {
         }
 
         @Test
-        void findAll_ShouldReturnListOfProducts_AndStatus200() throws Exception {
+        void findAll_ShouldReturnPageOfProducts_AndStatus200() throws Exception {
 
                 ProductResponseDto product2 = new ProductResponseDto(
                                 "id-2", "Product 2", "D2", 20.00, 10, "CatB", LocalDate.now());
-                List<ProductResponseDto> expectedList = Arrays.asList(responseDto, product2);
+                ProductPageDto page = new ProductPageDto(Arrays.asList(responseDto, product2), "id-2");
 
-                when(productService.getAllProducts()).thenReturn(expectedList);
+                when(productService.listProducts(any(ProductFilterDto.class), eq(null), eq(20), eq(null)))
+                                .thenReturn(page);
 
                 mockMvc.perform(get(API_URL).contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items.length()").value(2))
+                                .andExpect(jsonPath("$.items[0].name").value("Test Product"))
+                                .andExpect(jsonPath("$.nextCursor").value("id-2"));
+
+                verify(productService, times(1)).listProducts(
+                                eq(new ProductFilterDto(null, true, null, null)), eq(null), eq(20), eq(null));
+        }
+
+        @Test
+        void findAll_ShouldPassFiltersCursorAndFields() throws Exception {
+
+                ProductResponseDto sparse = new ProductResponseDto(
+                                PRODUCT_ID, "Test Product", null, 10.50, null, null, null);
+                when(productService.listProducts(any(ProductFilterDto.class), any(), anyInt(), any()))
+                                .thenReturn(new ProductPageDto(List.of(sparse), null));
+
+                mockMvc.perform(get(API_URL)
+                                .param("category", "CatA")
+                                .param("minPrice", "5")
+                                .param("maxPrice", "15")
+                                .param("after", "65a000000000000000000001")
+                                .param("size", "10")
+                                .param("fields", "name,price"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items[0].price").value(10.50))
+                                .andExpect(jsonPath("$.items[0].description").doesNotExist());
+
+                verify(productService, times(1)).listProducts(
+                                eq(new ProductFilterDto("CatA", true, 5.0, 15.0)),
+                                eq("65a000000000000000000001"), eq(10), eq(List.of("name", "price")));
+        }
+
+        @Test
+        void findByIds_ShouldReturnLookupPerId_AndStatus200() throws Exception {
+
+                ProductBatchRequestDto batch = new ProductBatchRequestDto(List.of(PRODUCT_ID, "no-existe"));
+                when(productService.lookupProducts(batch)).thenReturn(List.of(
+                                new ProductLookupDto(PRODUCT_ID, true, responseDto),
+                                new ProductLookupDto("no-existe", false, null)));
+
+                mockMvc.perform(post(API_URL + "/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batch)))
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.length()").value(2))
-                                .andExpect(jsonPath("$[0].name").value("Test Product"));
+                                .andExpect(jsonPath("$[0].product.name").value("Test Product"))
+                                .andExpect(jsonPath("$[1].found").value(false));
 
-                verify(productService, times(1)).getAllProducts();
+                verify(productService, times(1)).lookupProducts(batch);
         }
 
         @Test
@@ -138,6 +190,23 @@ public class ProductControllerTest {
                 verify(productService, times(1)).updateProduct(eq(PRODUCT_ID), any(ProductRequestDto.class));
         }
 
+        @Test
+        void adjustStock_ShouldReturnUpdatedProduct_AndStatus200() throws Exception {
+
+                ProductResponseDto adjusted = new ProductResponseDto(
+                                PRODUCT_ID, "Test Product", "Desc", 10.50, 12, "CatA", LocalDate.now());
+
+                when(productService.adjustStock(eq(PRODUCT_ID), any(StockAdjustmentDto.class))).thenReturn(adjusted);
+
+                mockMvc.perform(patch(API_URL + "/{id}/stock", PRODUCT_ID)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"delta\":7}"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.stock").value(12));
+
+                verify(productService, times(1)).adjustStock(PRODUCT_ID, new StockAdjustmentDto(7));
+        }
+
         @Test
         void updateProduct_ShouldReturnError_WhenProductNotFound() throws Exception {
 
@@ -0,0 +1,123 @@
+package com.plataforma_deliveri.catalog_service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.plataforma_deliveri.catalog_service.dtos.ProductFilterDto;
+import com.plataforma_deliveri.catalog_service.models.Product;
+import com.plataforma_deliveri.catalog_service.repositories.IProductQueryRepositoryImpl;
+
+// Benchmark contra un Mongo local (no se ejecuta en el build normal):
+//   mvn test -Dtest=ProductPaginationBenchmarkTest -Dcatalog.benchmark.mongodb-uri=mongodb://localhost:27017
+// Crea 1M productos en la base catalog_benchmark (solo la primera vez) y compara skip/limit con seek por _id.
+@EnabledIfSystemProperty(named = "catalog.benchmark.mongodb-uri", matches = ".+")
+public class ProductPaginationBenchmarkTest {
+
+    private static final int DOCUMENTS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGES = 200;
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static IProductQueryRepositoryImpl repository;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create(System.getProperty("catalog.benchmark.mongodb-uri"));
+        mongoTemplate = new MongoTemplate(client, "catalog_benchmark");
+        repository = new IProductQueryRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "mongoTemplate", mongoTemplate);
+
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(Product.class)
+                .forEach(mongoTemplate.indexOps(Product.class)::ensureIndex);
+
+        long existing = mongoTemplate.getCollection("products").countDocuments();
+        List<Document> batch = new ArrayList<>();
+        for (long i = existing; i < DOCUMENTS; i++) {
+            batch.add(new Document("name", "Producto " + i)
+                    .append("descripction", "Descripcion larga del producto " + i + " ".repeat(200))
+                    .append("price", (double) (i % 500))
+                    .append("stock", (int) (i % 50))
+                    .append("product_category", "cat-" + (i % 20))
+                    .append("active", i % 10 != 0));
+            if (batch.size() == 10_000) {
+                mongoTemplate.getCollection("products").insertMany(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.getCollection("products").insertMany(batch);
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.close();
+    }
+
+    private static long skipPages(ProductFilterDto filter) {
+        long start = System.nanoTime();
+        for (int page = 0; page < PAGES; page++) {
+            Query query = new Query(Criteria.where("active").is(filter.active())
+                    .and("category").is(filter.category()))
+                    .with(Sort.by(Sort.Direction.ASC, "id"))
+                    .skip((long) page * PAGE_SIZE)
+                    .limit(PAGE_SIZE);
+            mongoTemplate.find(query, Product.class);
+        }
+        return (System.nanoTime() - start) / PAGES / 1000;
+    }
+
+    private static long seekPages(ProductFilterDto filter, Set<String> fields) {
+        long start = System.nanoTime();
+        String cursor = null;
+        for (int page = 0; page < PAGES; page++) {
+            List<Product> products = repository.findPage(filter, cursor, PAGE_SIZE, fields);
+            assertEquals(PAGE_SIZE, products.size());
+            cursor = products.get(products.size() - 1).getId();
+        }
+        return (System.nanoTime() - start) / PAGES / 1000;
+    }
+
+    @Test
+    void benchmark_SeekVsSkip_AndSparseProjection() {
+        ProductFilterDto filter = new ProductFilterDto("cat-3", true, null, null);
+        // Calentamiento
+        seekPages(filter, Set.of());
+        skipPages(filter);
+
+        long skipMicros = skipPages(filter);
+        long seekMicros = seekPages(filter, Set.of());
+        long sparseMicros = seekPages(filter, Set.of("id", "name", "price"));
+
+        System.out.printf("products (%d docs), %d paginas de %d: skip %d us/pag, seek %d us/pag, seek+fields %d us/pag%n",
+                DOCUMENTS, PAGES, PAGE_SIZE, skipMicros, seekMicros, sparseMicros);
+
+        Document plan = mongoTemplate.getDb().runCommand(new Document("explain", new Document("find", "products")
+                .append("filter", new Document("active", true).append("product_category", "cat-3"))
+                .append("sort", new Document("_id", 1))
+                .append("limit", PAGE_SIZE)));
+        assertTrue(plan.toJson().contains("idx_active_category_id_price"), "el listado deberia usar el indice compuesto");
+        assertTrue(seekMicros < skipMicros, "seek deberia ser mas rapido que skip en paginas profundas");
+    }
+}
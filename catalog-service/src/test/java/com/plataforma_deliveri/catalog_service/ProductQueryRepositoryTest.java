@@ -0,0 +1,69 @@
+package com.plataforma_deliveri.catalog_service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import java.util.Set;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.plataforma_deliveri.catalog_service.dtos.ProductFilterDto;
+import com.plataforma_deliveri.catalog_service.models.Product;
+import com.plataforma_deliveri.catalog_service.repositories.IProductQueryRepositoryImpl;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductQueryRepositoryTest {
+
+    private static final String CURSOR = "65a000000000000000000001";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private IProductQueryRepositoryImpl repository;
+
+    @Captor
+    private ArgumentCaptor<Query> query;
+
+    @Test
+    void findPage_ShouldSeekFromCursor_WithFiltersSortAndLimit() {
+        repository.findPage(new ProductFilterDto("CatA", true, 5.0, 15.0), CURSOR, 21, Set.of());
+
+        verify(mongoTemplate).find(query.capture(), eq(Product.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals(true, filter.get("active"));
+        assertEquals("CatA", filter.get("category"));
+        assertEquals(new Document("$gte", 5.0).append("$lte", 15.0), filter.get("price"));
+        assertEquals(new Document("$gt", new ObjectId(CURSOR)), filter.get("id"));
+        assertEquals(new Document("id", 1), query.getValue().getSortObject());
+        assertEquals(21, query.getValue().getLimit());
+        assertEquals(0, query.getValue().getSkip());
+        assertTrue(query.getValue().getFieldsObject().isEmpty());
+    }
+
+    @Test
+    void findPage_ShouldOnlyFetchRequestedFields() {
+        repository.findPage(new ProductFilterDto(null, true, null, 15.0), null, 11, Set.of("id", "name", "price"));
+
+        verify(mongoTemplate).find(query.capture(), eq(Product.class));
+        Document filter = query.getValue().getQueryObject();
+        assertFalse(filter.containsKey("id"));
+        assertFalse(filter.containsKey("category"));
+        assertEquals(new Document("$lte", 15.0), filter.get("price"));
+        assertEquals(new Document("id", 1).append("name", 1).append("price", 1).keySet(),
+                query.getValue().getFieldsObject().keySet());
+    }
+}
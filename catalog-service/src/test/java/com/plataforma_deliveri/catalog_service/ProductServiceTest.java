@@ -1,9 +1,14 @@
 package com.plataforma_deliveri.catalog_service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
@@ -15,6 +20,8 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,11 +30,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.plataforma_deliveri.catalog_service.dtos.ProductBatchRequestDto;
+import com.plataforma_deliveri.catalog_service.dtos.ProductFilterDto;
+import com.plataforma_deliveri.catalog_service.dtos.ProductLookupDto;
+import com.plataforma_deliveri.catalog_service.dtos.ProductPageDto;
 import com.plataforma_deliveri.catalog_service.dtos.ProductRequestDto;
 import com.plataforma_deliveri.catalog_service.dtos.ProductResponseDto;
+import com.plataforma_deliveri.catalog_service.dtos.StockAdjustmentDto;
 import com.plataforma_deliveri.catalog_service.errors.ProductNotFoundException;
 import com.plataforma_deliveri.catalog_service.repositories.IProductRepository;
+import com.plataforma_deliveri.catalog_service.services.ProductEventPublisher;
 import com.plataforma_deliveri.catalog_service.services.ProductMapper;
 import com.plataforma_deliveri.catalog_service.services.ProductService;
 import com.plataforma_deliveri.catalog_service.models.Product;
@@ -38,6 +53,9 @@ public class ProductServiceTest {
     @Mock
     private IProductRepository repository;
 
+    @Mock
+    private ProductEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductService productService;
 
@@ -115,30 +133,95 @@ public class ProductServiceTest {
     }
 
     @Test
-    void getAllProducts_ShouldReturnListOfResponseDtos() {
+    void listProducts_ShouldReturnNextCursor_WhenThereAreMorePages() {
         Product product2 = new Product();
-        product2.setId("test-id-2");
+        product2.setId("65a000000000000000000002");
         product2.setName("Product 2");
+        Product product3 = new Product();
+        product3.setId("65a000000000000000000003");
+        productEntity.setId("65a000000000000000000001");
 
-        List<Product> products = Arrays.asList(productEntity, product2);
-        when(repository.findAll()).thenReturn(products);
+        ProductFilterDto filter = new ProductFilterDto("Category A", true, null, null);
+        when(repository.findPage(filter, null, 3, Set.of()))
+                .thenReturn(Arrays.asList(productEntity, product2, product3));
 
-        try (MockedStatic<ProductMapper> mockedMapper = mockStatic(ProductMapper.class)) {
-            ProductResponseDto dto1 = new ProductResponseDto(
-                    PRODUCT_ID, NAME, "d1", PRICE, 5, "c1", LocalDate.now());
-            ProductResponseDto dto2 = new ProductResponseDto(
-                    "test-id-2", "Product 2", "d2", PRICE, 5, "c1", LocalDate.now());
+        ProductPageDto page = productService.listProducts(filter, null, 2, null);
+
+        assertEquals(2, page.items().size());
+        assertEquals(NAME, page.items().get(0).name());
+        assertEquals("65a000000000000000000002", page.nextCursor());
+    }
 
-            mockedMapper.when(() -> ProductMapper.toResponseDTO(productEntity)).thenReturn(dto1);
-            mockedMapper.when(() -> ProductMapper.toResponseDTO(product2)).thenReturn(dto2);
+    @Test
+    void listProducts_ShouldReturnNullCursor_OnLastPage() {
+        ProductFilterDto filter = new ProductFilterDto(null, true, null, null);
+        when(repository.findPage(filter, "65a000000000000000000001", 21, Set.of()))
+                .thenReturn(List.of(productEntity));
 
-            List<ProductResponseDto> result = productService.getAllProducts();
+        ProductPageDto page = productService.listProducts(filter, "65a000000000000000000001", 20, null);
 
-            assertNotNull(result);
-            assertEquals(2, result.size());
-            assertEquals(NAME, result.get(0).name());
-            verify(repository, times(1)).findAll();
-        }
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void listProducts_ShouldTranslateFields_AndAlwaysIncludeId() {
+        ProductFilterDto filter = new ProductFilterDto(null, true, 5.0, 20.0);
+        when(repository.findPage(filter, null, 21, Set.of("id", "name", "descripction")))
+                .thenReturn(List.of());
+
+        productService.listProducts(filter, null, 20, List.of("name", "description"));
+
+        verify(repository, times(1)).findPage(filter, null, 21, Set.of("id", "name", "descripction"));
+    }
+
+    @Test
+    void listProducts_ShouldRejectInvalidParameters() {
+        ProductFilterDto filter = new ProductFilterDto(null, true, null, null);
+
+        assertThrows(ResponseStatusException.class,
+                () -> productService.listProducts(filter, "no-es-un-id", 20, null));
+        assertThrows(ResponseStatusException.class,
+                () -> productService.listProducts(filter, null, ProductService.MAX_PAGE_SIZE + 1, null));
+        assertThrows(ResponseStatusException.class,
+                () -> productService.listProducts(filter, null, 20, List.of("password")));
+        assertThrows(ResponseStatusException.class,
+                () -> productService.listProducts(new ProductFilterDto(null, true, 20.0, 5.0), null, 20, null));
+        verify(repository, never()).findPage(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void lookupProducts_ShouldResolveAllIdsInOneQuery_AndReportUnknownOnes() {
+        Product product2 = new Product();
+        product2.setId("test-id-2");
+        product2.setName("Product 2");
+        when(repository.findAllById(Set.of(PRODUCT_ID, "test-id-2", "no-existe")))
+                .thenReturn(Arrays.asList(product2, productEntity));
+
+        List<ProductLookupDto> result = productService.lookupProducts(
+                new ProductBatchRequestDto(List.of("test-id-2", "no-existe", PRODUCT_ID, "test-id-2")));
+
+        assertEquals(4, result.size());
+        assertEquals("Product 2", result.get(0).product().name());
+        assertFalse(result.get(1).found());
+        assertNull(result.get(1).product());
+        assertEquals("no-existe", result.get(1).id());
+        assertEquals(NAME, result.get(2).product().name());
+        assertTrue(result.get(3).found());
+        verify(repository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void lookupProducts_ShouldRejectEmptyOrOversizedBatch() {
+        List<String> tooMany = IntStream.rangeClosed(0, ProductService.MAX_BATCH_SIZE)
+                .mapToObj(i -> "id-" + i)
+                .toList();
+
+        assertThrows(ResponseStatusException.class,
+                () -> productService.lookupProducts(new ProductBatchRequestDto(List.of())));
+        assertThrows(ResponseStatusException.class,
+                () -> productService.lookupProducts(new ProductBatchRequestDto(tooMany)));
+        verify(repository, never()).findAllById(any());
     }
 
     @Test
@@ -150,12 +233,11 @@ public class ProductServiceTest {
                 15,
                 "Category B");
 
-        when(repository.findById(PRODUCT_ID)).thenReturn(Optional.of(productEntity));
-
         Product updatedProductEntity = new Product();
         updatedProductEntity.setId(PRODUCT_ID);
         updatedProductEntity.setName(updateRequest.name());
-        when(repository.save(any(Product.class))).thenReturn(updatedProductEntity);
+        when(repository.updateDetails(PRODUCT_ID, "Updated Name", "Updated Description", 20.00, "Category B"))
+                .thenReturn(Optional.of(updatedProductEntity));
 
         try (MockedStatic<ProductMapper> mockedMapper = mockStatic(ProductMapper.class)) {
             ProductResponseDto expectedResponse = new ProductResponseDto(
@@ -167,20 +249,53 @@ public class ProductServiceTest {
 
             assertNotNull(result);
             assertEquals("Updated Name", result.name());
-            verify(repository, times(1)).findById(PRODUCT_ID);
-            verify(repository, times(1)).save(any(Product.class));
+            // Sin read-modify-write: el stock no se reescribe desde la peticion
+            verify(repository, never()).findById(PRODUCT_ID);
+            verify(repository, never()).save(any(Product.class));
+            verify(eventPublisher, times(1)).publishChanged(updatedProductEntity);
         }
     }
 
     @Test
     void updateProduct_ShouldThrowProductNotFoundException_WhenNotFound() {
-        when(repository.findById(PRODUCT_ID)).thenReturn(Optional.empty());
+        when(repository.updateDetails(eq(PRODUCT_ID), any(), any(), any(), any())).thenReturn(Optional.empty());
 
         assertThrows(ProductNotFoundException.class, () -> {
             productService.updateProduct(PRODUCT_ID, requestDto);
         });
-        verify(repository, times(1)).findById(PRODUCT_ID);
         verify(repository, never()).save(any(Product.class));
+        verify(eventPublisher, never()).publishChanged(any(Product.class));
+    }
+
+    @Test
+    void adjustStock_ShouldIncrementStock_AndPublishChange() {
+        productEntity.setStock(15);
+        when(repository.adjustStock(PRODUCT_ID, 5)).thenReturn(Optional.of(productEntity));
+
+        ProductResponseDto result = productService.adjustStock(PRODUCT_ID, new StockAdjustmentDto(5));
+
+        assertEquals(15, result.stock());
+        verify(eventPublisher, times(1)).publishChanged(productEntity);
+    }
+
+    @Test
+    void adjustStock_ShouldReturnConflict_WhenStockWouldBeNegative() {
+        when(repository.adjustStock(PRODUCT_ID, -50)).thenReturn(Optional.empty());
+        when(repository.existsById(PRODUCT_ID)).thenReturn(true);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> productService.adjustStock(PRODUCT_ID, new StockAdjustmentDto(-50)));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verify(eventPublisher, never()).publishChanged(any(Product.class));
+    }
+
+    @Test
+    void adjustStock_ShouldReturnBadRequest_WhenDeltaIsZero() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> productService.adjustStock(PRODUCT_ID, new StockAdjustmentDto(0)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
     }
 
     @Test
@@ -192,6 +307,7 @@ public class ProductServiceTest {
 
         verify(repository, times(1)).existsById(PRODUCT_ID);
         verify(repository, times(1)).deleteById(PRODUCT_ID);
+        verify(eventPublisher, times(1)).publishDeleted(PRODUCT_ID);
     }
 
     @Test
@@ -0,0 +1,93 @@
+package com.plataforma_deliveri.catalog_service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.result.UpdateResult;
+import com.plataforma_deliveri.catalog_service.models.Product;
+import com.plataforma_deliveri.catalog_service.repositories.IProductStockRepositoryImpl;
+import com.plataforma_deliveri.catalog_service.repositories.IProductUpdateRepositoryImpl;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductStockRepositoryTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private IProductStockRepositoryImpl repository;
+
+    @Captor
+    private ArgumentCaptor<Query> query;
+
+    @Captor
+    private ArgumentCaptor<UpdateDefinition> update;
+
+    @Test
+    void decrementStock_ShouldGuardStockAndActive_InTheSameUpdate() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Product.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertTrue(repository.decrementStock("p1", 3));
+
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Product.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals("p1", filter.get("id"));
+        assertEquals(true, filter.get("active"));
+        assertEquals(new Document("$gte", 3), filter.get("stock"));
+        assertEquals(new Document("$inc", new Document("stock", -3)), update.getValue().getUpdateObject());
+    }
+
+    @Test
+    void decrementStock_ShouldReturnFalse_WhenNothingWasModified() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Product.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertFalse(repository.decrementStock("p1", 3));
+    }
+
+    @Test
+    void adjustStock_ShouldNotLetStockGoNegative_WhenDeltaIsNegative() {
+        repository.adjustStock("p1", -4);
+
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(Product.class));
+        assertEquals(new Document("$gte", 4), query.getValue().getQueryObject().get("stock"));
+        assertEquals(new Document("$inc", new Document("stock", -4)), update.getValue().getUpdateObject());
+    }
+
+    @Test
+    void updateDetails_ShouldSetFields_WithoutTouchingStock() {
+        IProductUpdateRepositoryImpl updateRepository = new IProductUpdateRepositoryImpl();
+        ReflectionTestUtils.setField(updateRepository, "mongoTemplate", mongoTemplate);
+
+        updateRepository.updateDetails("p1", "Pizza", "Grande", 12.5, "Comida");
+
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(Product.class));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals("Pizza", set.get("name"));
+        assertEquals(12.5, set.get("price"));
+        assertFalse(set.containsKey("stock"));
+        assertFalse(update.getValue().getUpdateObject().containsKey("$inc"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.plataforma_deliveri.catalog_service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataforma_deliveri.catalog_service.controllers.StockReservationController;
+import com.plataforma_deliveri.catalog_service.dtos.StockItemDto;
+import com.plataforma_deliveri.catalog_service.dtos.StockReservationDto;
+import com.plataforma_deliveri.catalog_service.dtos.StockReservationRequestDto;
+import com.plataforma_deliveri.catalog_service.services.StockReservationService;
+
+@WebMvcTest(StockReservationController.class)
+public class StockReservationControllerTest {
+
+    private static final String API_URL = "/api/v1/products/reservations/42";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private StockReservationService service;
+
+    private final StockReservationRequestDto request = new StockReservationRequestDto(
+            List.of(new StockItemDto("p1", 2)));
+
+    @Test
+    void reserve_ShouldReturnReservation_AndStatus200() throws Exception {
+        when(service.reserve(eq("42"), any(StockReservationRequestDto.class)))
+                .thenReturn(new StockReservationDto("42", "RESERVED", request.items(), null));
+
+        mockMvc.perform(put(API_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RESERVED"))
+                .andExpect(jsonPath("$.items[0].quantity").value(2));
+    }
+
+    @Test
+    void reserve_ShouldReturn409_WhenStockIsInsufficient() throws Exception {
+        when(service.reserve(eq("42"), any(StockReservationRequestDto.class)))
+                .thenThrow(new ResponseStatusException(HttpStatus.CONFLICT, "Stock insuficiente para el producto p1"));
+
+        mockMvc.perform(put(API_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void confirm_ShouldReturnConfirmedReservation_AndStatus200() throws Exception {
+        when(service.confirm("42")).thenReturn(new StockReservationDto("42", "CONFIRMED", request.items(), null));
+
+        mockMvc.perform(post(API_URL + "/confirm"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"));
+    }
+
+    @Test
+    void release_ShouldReturnReleasedReservation_AndStatus200() throws Exception {
+        when(service.release("42")).thenReturn(new StockReservationDto("42", "RELEASED", request.items(), null));
+
+        mockMvc.perform(delete(API_URL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RELEASED"));
+    }
+}
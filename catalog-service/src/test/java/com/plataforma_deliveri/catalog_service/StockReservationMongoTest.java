@@ -0,0 +1,227 @@
+package com.plataforma_deliveri.catalog_service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.plataforma_deliveri.catalog_service.dtos.StockItemDto;
+import com.plataforma_deliveri.catalog_service.dtos.StockReservationRequestDto;
+import com.plataforma_deliveri.catalog_service.models.Product;
+import com.plataforma_deliveri.catalog_service.models.StockReservation;
+import com.plataforma_deliveri.catalog_service.repositories.IProductQueryRepositoryImpl;
+import com.plataforma_deliveri.catalog_service.repositories.IProductRepository;
+import com.plataforma_deliveri.catalog_service.repositories.IProductStockRepositoryImpl;
+import com.plataforma_deliveri.catalog_service.repositories.IProductUpdateRepositoryImpl;
+import com.plataforma_deliveri.catalog_service.repositories.IStockReservationRepository;
+import com.plataforma_deliveri.catalog_service.repositories.IStockReservationStatusRepositoryImpl;
+import com.plataforma_deliveri.catalog_service.services.StockReservationService;
+
+// Reservas concurrentes contra un Mongo real en Testcontainers: los updates condicionales son los que
+// garantizan que no se vende de mas ni se devuelve stock dos veces. Sin Docker los tests se saltan.
+@Testcontainers(disabledWithoutDocker = true)
+public class StockReservationMongoTest {
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static final int HOT_STOCK = 200;
+    private static final int ORDERS = 1_000;
+    private static final int THREADS = 128;
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static StockReservationService service;
+
+    private String hotId;
+    private String sideId;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+        mongoTemplate = new MongoTemplate(client, "catalog_stock_test");
+
+        IProductQueryRepositoryImpl queryRepository = new IProductQueryRepositoryImpl();
+        ReflectionTestUtils.setField(queryRepository, "mongoTemplate", mongoTemplate);
+        IProductUpdateRepositoryImpl updateRepository = new IProductUpdateRepositoryImpl();
+        ReflectionTestUtils.setField(updateRepository, "mongoTemplate", mongoTemplate);
+        IProductStockRepositoryImpl stockRepository = new IProductStockRepositoryImpl();
+        ReflectionTestUtils.setField(stockRepository, "mongoTemplate", mongoTemplate);
+        IStockReservationStatusRepositoryImpl statusRepository = new IStockReservationStatusRepositoryImpl();
+        ReflectionTestUtils.setField(statusRepository, "mongoTemplate", mongoTemplate);
+
+        MongoRepositoryFactory factory = new MongoRepositoryFactory(mongoTemplate);
+        service = new StockReservationService();
+        ReflectionTestUtils.setField(service, "reservationTtl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(service, "productRepository",
+                factory.getRepository(IProductRepository.class, RepositoryFragments.just(queryRepository, stockRepository, updateRepository)));
+        ReflectionTestUtils.setField(service, "reservationRepository",
+                factory.getRepository(IStockReservationRepository.class, RepositoryFragments.just(statusRepository)));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.close();
+    }
+
+    @BeforeEach
+    void seed() {
+        ReflectionTestUtils.setField(service, "reservationTtl", Duration.ofMinutes(30));
+        mongoTemplate.dropCollection(Product.class);
+        mongoTemplate.dropCollection(StockReservation.class);
+        hotId = insertProduct("Pizza del dia", HOT_STOCK);
+        sideId = insertProduct("Bebida", ORDERS * 10);
+    }
+
+    private String insertProduct(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(10.0);
+        product.setStock(stock);
+        product.setActive(true);
+        return mongoTemplate.insert(product).getId();
+    }
+
+    private int stockOf(String productId) {
+        return mongoTemplate.findById(productId, Product.class).getStock();
+    }
+
+    @Test
+    void reserve_ShouldSellExactlyTheAvailableStock_UnderConcurrentOrders() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < ORDERS; i++) {
+            String orderId = "order-" + i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    service.reserve(orderId, new StockReservationRequestDto(
+                            List.of(new StockItemDto(sideId, 2), new StockItemDto(hotId, 1))));
+                    reserved.incrementAndGet();
+                } catch (ResponseStatusException e) {
+                    // Sin stock: esperado para ORDERS - HOT_STOCK pedidos
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(HOT_STOCK, reserved.get());
+        assertEquals(0, stockOf(hotId));
+        assertEquals(ORDERS * 10 - HOT_STOCK * 2, stockOf(sideId));
+        assertEquals(HOT_STOCK, mongoTemplate.count(
+                Query.query(Criteria.where("status").is(StockReservation.RESERVED)), StockReservation.class));
+    }
+
+    @Test
+    void release_ShouldReturnStockOnce_EvenWhenCalledConcurrently() throws Exception {
+        service.reserve("order-1", new StockReservationRequestDto(List.of(new StockItemDto(hotId, 5))));
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(pool.submit(() -> service.release("order-1")));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(HOT_STOCK, stockOf(hotId));
+    }
+
+    // Cada pedido se reserva y se libera a la vez: la liberacion puede llegar antes (lapida), durante o
+    // despues de la reserva, pero al final todo el stock tiene que haber vuelto exactamente una vez
+    @Test
+    void releaseRacingReserve_ShouldAlwaysEndWithAllStockReturned() throws Exception {
+        int orders = 300;
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < orders; i++) {
+            String orderId = "race-" + i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    service.reserve(orderId, new StockReservationRequestDto(
+                            List.of(new StockItemDto(sideId, 2), new StockItemDto(hotId, 1))));
+                } catch (ResponseStatusException e) {
+                    // Sin stock o liberada antes: el pedido no se queda con nada
+                }
+                return null;
+            }));
+            futures.add(pool.submit(() -> {
+                start.await();
+                return service.release(orderId);
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(HOT_STOCK, stockOf(hotId));
+        assertEquals(ORDERS * 10, stockOf(sideId));
+        assertEquals(orders, mongoTemplate.count(
+                Query.query(Criteria.where("status").is(StockReservation.RELEASED)), StockReservation.class));
+    }
+
+    @Test
+    void releaseExpired_ShouldReturnStockOnce_WhenRacingWithRelease() throws Exception {
+        ReflectionTestUtils.setField(service, "reservationTtl", Duration.ZERO);
+        for (int i = 0; i < 50; i++) {
+            service.reserve("expired-" + i, new StockReservationRequestDto(List.of(new StockItemDto(hotId, 2))));
+        }
+        assertEquals(HOT_STOCK - 100, stockOf(hotId));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(pool.submit(() -> service.releaseExpired()));
+        }
+        for (int i = 0; i < 50; i++) {
+            String orderId = "expired-" + i;
+            futures.add(pool.submit(() -> service.release(orderId)));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(HOT_STOCK, stockOf(hotId));
+    }
+}
@@ -0,0 +1,333 @@
+package com.plataforma_deliveri.catalog_service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.plataforma_deliveri.catalog_service.dtos.StockItemDto;
+import com.plataforma_deliveri.catalog_service.dtos.StockReservationDto;
+import com.plataforma_deliveri.catalog_service.dtos.StockReservationRequestDto;
+import com.plataforma_deliveri.catalog_service.errors.ProductNotFoundException;
+import com.plataforma_deliveri.catalog_service.models.Product;
+import com.plataforma_deliveri.catalog_service.models.StockReservation;
+import com.plataforma_deliveri.catalog_service.models.StockReservationItem;
+import com.plataforma_deliveri.catalog_service.repositories.IProductRepository;
+import com.plataforma_deliveri.catalog_service.repositories.IStockReservationRepository;
+import com.plataforma_deliveri.catalog_service.services.StockReservationService;
+
+// Logica de la reserva (compensacion, estados, idempotencia) con repositorios en memoria.
+// La atomicidad de los updates de Mongo se prueba contra una base real en StockReservationMongoTest
+@ExtendWith(MockitoExtension.class)
+public class StockReservationServiceTest {
+
+    private static final String ORDER_ID = "42";
+
+    @Mock
+    private IProductRepository productRepository;
+
+    @Mock
+    private IStockReservationRepository reservationRepository;
+
+    @InjectMocks
+    private StockReservationService service;
+
+    private final Map<String, AtomicInteger> stock = new ConcurrentHashMap<>();
+    private final Map<String, StockReservation> reservations = new ConcurrentHashMap<>();
+
+    private static StockReservation copy(StockReservation reservation) {
+        List<StockReservationItem> items = reservation.getItems().stream().map(item -> {
+            StockReservationItem copy = new StockReservationItem(item.getProductId(), item.getQuantity());
+            copy.setApplied(item.isApplied());
+            return copy;
+        }).toList();
+        return new StockReservation(reservation.getOrderId(), items, reservation.getStatus(),
+                reservation.getCreatedAt(), reservation.getExpiresAt());
+    }
+
+    private Optional<StockReservationItem> item(String orderId, String productId) {
+        StockReservation reservation = reservations.get(orderId);
+        return reservation == null ? Optional.empty() : reservation.getItems().stream()
+                .filter(item -> item.getProductId().equals(productId))
+                .findFirst();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "reservationTtl", Duration.ofMinutes(30));
+        // "pizza" es el producto caliente; "fries" se procesa antes (orden por id) y se compensa si pizza falla
+        stock.put("pizza", new AtomicInteger(100));
+        stock.put("fries", new AtomicInteger(1_000));
+
+        lenient().when(productRepository.decrementStock(anyString(), anyInt())).thenAnswer(invocation -> {
+            AtomicInteger units = stock.get(invocation.getArgument(0, String.class));
+            int quantity = invocation.getArgument(1, Integer.class);
+            return units != null && units.getAndUpdate(s -> s >= quantity ? s - quantity : s) >= quantity;
+        });
+        lenient().doAnswer(invocation -> stock.get(invocation.getArgument(0, String.class))
+                .addAndGet(invocation.getArgument(1, Integer.class)))
+                .when(productRepository).incrementStock(anyString(), anyInt());
+
+        // Cada operacion de la reserva es atomica, igual que un update condicional sobre un documento
+        lenient().when(reservationRepository.findById(anyString())).thenAnswer(invocation -> {
+            synchronized (reservations) {
+                return Optional.ofNullable(reservations.get(invocation.getArgument(0, String.class))).map(r -> copy(r));
+            }
+        });
+        lenient().when(reservationRepository.insert(any(StockReservation.class))).thenAnswer(invocation -> {
+            StockReservation reservation = invocation.getArgument(0);
+            synchronized (reservations) {
+                if (reservations.putIfAbsent(reservation.getOrderId(), copy(reservation)) != null) {
+                    throw new DuplicateKeyException("E11000 duplicate key");
+                }
+            }
+            return reservation;
+        });
+        lenient().when(reservationRepository.changeStatus(anyString(), anyCollection(), anyString()))
+                .thenAnswer(invocation -> {
+                    synchronized (reservations) {
+                        StockReservation reservation = reservations.get(invocation.getArgument(0, String.class));
+                        Collection<?> from = invocation.getArgument(1);
+                        if (reservation == null || !from.contains(reservation.getStatus())) {
+                            return false;
+                        }
+                        reservation.setStatus(invocation.getArgument(2));
+                        return true;
+                    }
+                });
+        lenient().when(reservationRepository.markItemApplied(anyString(), anyString())).thenAnswer(invocation -> {
+            synchronized (reservations) {
+                String orderId = invocation.getArgument(0);
+                Optional<StockReservationItem> item = item(orderId, invocation.getArgument(1));
+                if (!StockReservation.PENDING.equals(reservations.get(orderId).getStatus())
+                        || item.isEmpty() || item.get().isApplied()) {
+                    return false;
+                }
+                item.get().setApplied(true);
+                return true;
+            }
+        });
+        lenient().when(reservationRepository.takeAppliedItem(anyString(), anyString())).thenAnswer(invocation -> {
+            synchronized (reservations) {
+                Optional<StockReservationItem> item = item(invocation.getArgument(0), invocation.getArgument(1));
+                if (item.isEmpty() || !item.get().isApplied()) {
+                    return false;
+                }
+                item.get().setApplied(false);
+                return true;
+            }
+        });
+    }
+
+    private static StockReservationRequestDto request(StockItemDto... items) {
+        return new StockReservationRequestDto(List.of(items));
+    }
+
+    private int stockOf(String productId) {
+        return stock.get(productId).get();
+    }
+
+    private static Product activeProduct() {
+        Product product = new Product();
+        product.setActive(true);
+        product.setStock(0);
+        return product;
+    }
+
+    @Test
+    void reserve_ShouldDecrementEveryProduct_AndMergeRepeatedLines() {
+        StockReservationDto reservation = service.reserve(ORDER_ID, request(
+                new StockItemDto("fries", 3), new StockItemDto("pizza", 1), new StockItemDto("fries", 2)));
+
+        assertEquals(StockReservation.RESERVED, reservation.status());
+        assertEquals(List.of(new StockItemDto("fries", 5), new StockItemDto("pizza", 1)), reservation.items());
+        assertTrue(reservation.expiresAt().isAfter(Instant.now().plus(Duration.ofMinutes(29))));
+        assertEquals(99, stockOf("pizza"));
+        assertEquals(995, stockOf("fries"));
+        assertEquals(StockReservation.RESERVED, reservations.get(ORDER_ID).getStatus());
+    }
+
+    @Test
+    void reserve_ShouldRestoreAppliedItems_AndReturnConflict_WhenStockIsInsufficient() {
+        when(productRepository.findById("pizza")).thenReturn(Optional.of(activeProduct()));
+
+        // fries va antes por id: se descuenta y hay que devolverlo cuando falla pizza
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> service.reserve(ORDER_ID, request(new StockItemDto("pizza", 500), new StockItemDto("fries", 10))));
+
+        assertEquals(HttpStatus.CONFLICT, error.getStatusCode());
+        assertEquals(100, stockOf("pizza"));
+        assertEquals(1_000, stockOf("fries"));
+        assertEquals(StockReservation.RELEASED, reservations.get(ORDER_ID).getStatus());
+    }
+
+    @Test
+    void reserve_ShouldRestoreAppliedItems_WhenRepositoryFailsHalfway() {
+        when(productRepository.decrementStock("pizza", 1))
+                .thenThrow(new DataAccessResourceFailureException("Timed out after 30000 ms"));
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> service.reserve(ORDER_ID, request(new StockItemDto("pizza", 1), new StockItemDto("fries", 10))));
+
+        assertEquals(1_000, stockOf("fries"));
+        assertEquals(StockReservation.RELEASED, reservations.get(ORDER_ID).getStatus());
+    }
+
+    @Test
+    void reserve_ShouldThrowNotFound_WhenProductDoesNotExist() {
+        when(productRepository.findById("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(ProductNotFoundException.class,
+                () -> service.reserve(ORDER_ID, request(new StockItemDto("fries", 1), new StockItemDto("ghost", 1))));
+        assertEquals(1_000, stockOf("fries"));
+    }
+
+    @Test
+    void reserve_ShouldReturnExistingReservation_WithoutDecrementingTwice() {
+        service.reserve(ORDER_ID, request(new StockItemDto("pizza", 2)));
+        StockReservationDto retry = service.reserve(ORDER_ID, request(new StockItemDto("pizza", 2)));
+
+        assertEquals(StockReservation.RESERVED, retry.status());
+        assertEquals(98, stockOf("pizza"));
+        verify(productRepository, times(1)).decrementStock("pizza", 2);
+    }
+
+    @Test
+    void reserve_ShouldBeRefused_AfterReleaseArrivedFirst() {
+        service.release(ORDER_ID);
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> service.reserve(ORDER_ID, request(new StockItemDto("pizza", 1))));
+
+        assertEquals(HttpStatus.CONFLICT, error.getStatusCode());
+        assertEquals(100, stockOf("pizza"));
+        verify(productRepository, never()).decrementStock(anyString(), anyInt());
+    }
+
+    @Test
+    void reserve_ShouldReturnBadRequest_WhenQuantityIsNotPositive() {
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> service.reserve(ORDER_ID, request(new StockItemDto("pizza", 0))));
+
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+    }
+
+    @Test
+    void release_ShouldReturnStock_OnlyOnce() {
+        service.reserve(ORDER_ID, request(new StockItemDto("pizza", 4)));
+
+        service.release(ORDER_ID);
+        StockReservationDto second = service.release(ORDER_ID);
+
+        assertEquals(StockReservation.RELEASED, second.status());
+        assertEquals(100, stockOf("pizza"));
+        verify(productRepository, times(1)).incrementStock("pizza", 4);
+    }
+
+    @Test
+    void release_ShouldBeRefused_WhenReservationIsConfirmed() {
+        service.reserve(ORDER_ID, request(new StockItemDto("pizza", 4)));
+        service.confirm(ORDER_ID);
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, () -> service.release(ORDER_ID));
+
+        assertEquals(HttpStatus.CONFLICT, error.getStatusCode());
+        assertEquals(96, stockOf("pizza"));
+    }
+
+    @Test
+    void releaseExpired_ShouldRestoreOnlyAppliedItems_OfAbandonedReservation() {
+        // Proceso muerto a medias: fries descontado y apuntado, pizza sin descontar
+        StockReservationItem fries = new StockReservationItem("fries", 10);
+        fries.setApplied(true);
+        stock.get("fries").addAndGet(-10);
+        Instant past = Instant.now().minus(Duration.ofHours(1));
+        reservations.put(ORDER_ID, new StockReservation(ORDER_ID,
+                List.of(fries, new StockReservationItem("pizza", 1)), StockReservation.PENDING, past, past));
+        when(reservationRepository.findExpired(any(Instant.class), anyInt()))
+                .thenReturn(List.of(copy(reservations.get(ORDER_ID))));
+        when(reservationRepository.releaseIfExpired(anyString(), any(Instant.class))).thenAnswer(invocation -> {
+            reservations.get(ORDER_ID).setStatus(StockReservation.RELEASED);
+            return true;
+        });
+
+        service.releaseExpired();
+
+        assertEquals(1_000, stockOf("fries"));
+        assertEquals(100, stockOf("pizza"));
+        verify(productRepository, never()).incrementStock("pizza", 1);
+    }
+
+    // Cientos de pedidos a la vez sobre el mismo producto: se venden exactamente las unidades que hay y
+    // los pedidos rechazados no se quedan con stock de las otras lineas
+    @Test
+    void reserve_ShouldNeverOversell_UnderConcurrentOrdersForHotProduct() throws Exception {
+        lenient().when(productRepository.findById("pizza")).thenReturn(Optional.of(activeProduct()));
+        int orders = 400;
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < orders; i++) {
+            String orderId = "order-" + i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    service.reserve(orderId, request(new StockItemDto("fries", 2), new StockItemDto("pizza", 1)));
+                    reserved.incrementAndGet();
+                } catch (ResponseStatusException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(100, reserved.get());
+        assertEquals(orders - 100, rejected.get());
+        assertEquals(0, stockOf("pizza"));
+        assertEquals(1_000 - 100 * 2, stockOf("fries"));
+    }
+}
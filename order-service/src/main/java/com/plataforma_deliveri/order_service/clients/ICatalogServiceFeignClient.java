@@ -1,14 +1,40 @@
 package com.plataforma_deliveri.order_service.clients;
 
+import java.util.List;
+
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import com.plataforma_deliveri.order_service.dtos.ProductBatchRequestDto;
 import com.plataforma_deliveri.order_service.dtos.ProductDto;
+import com.plataforma_deliveri.order_service.dtos.ProductLookupDto;
+import com.plataforma_deliveri.order_service.dtos.StockReservationDto;
+import com.plataforma_deliveri.order_service.dtos.StockReservationRequestDto;
 
 @FeignClient(name = "catalog-service")
 public interface ICatalogServiceFeignClient {
 
     @GetMapping("/api/v1/products/{id}")
     ProductDto getProductById(@PathVariable("id") String id);
+
+    // Hasta 100 ids por llamada; los que no existen vuelven con found = false
+    @PostMapping("/api/v1/products/batch")
+    List<ProductLookupDto> getProductsByIds(@RequestBody ProductBatchRequestDto request);
+
+    // Todo o nada: 409 si algun producto no tiene stock. Idempotente por pedido
+    @PutMapping("/api/v1/products/reservations/{orderId}")
+    StockReservationDto reserveStock(@PathVariable("orderId") String orderId,
+            @RequestBody StockReservationRequestDto request);
+
+    // Pago completado: la reserva ya no caduca ni se puede liberar
+    @PostMapping("/api/v1/products/reservations/{orderId}/confirm")
+    StockReservationDto confirmStock(@PathVariable("orderId") String orderId);
+
+    @DeleteMapping("/api/v1/products/reservations/{orderId}")
+    StockReservationDto releaseStock(@PathVariable("orderId") String orderId);
 }
@@ -0,0 +1,20 @@
+package com.plataforma_deliveri.order_service.clients;
+
+import java.util.List;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import com.plataforma_deliveri.order_service.dtos.UserBatchRequestDto;
+import com.plataforma_deliveri.order_service.dtos.UserLookupDto;
+
+@FeignClient(name = "users-service")
+public interface IUsersServiceFeignClient {
+
+    @PostMapping("/api/v1/users/batch")
+    List<UserLookupDto> lookupUsers(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+            @RequestBody UserBatchRequestDto request);
+}
@@ -0,0 +1,67 @@
+package com.plataforma_deliveri.order_service.consumers;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import com.plataforma_deliveri.order_service.services.ProductCache;
+
+import jakarta.annotation.PostConstruct;
+
+// Cambios de precio/stock publicados por catalog-service. Cada replica usa su propio group-id para
+// recibir todos los eventos, y la clave es el id del producto (String, no Long como en payment-events).
+// El group-id es estable entre reinicios (instance-id, por defecto host-puerto) para no dejar en el broker un
+// grupo huerfano por cada arranque.
+@Component
+public class ProductEventsConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventsConsumer.class);
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Value("${catalog.cache.instance-id:}")
+    private String instanceId;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @PostConstruct
+    public void init() {
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = hostName() + "-" + serverPort;
+        }
+        logger.info("Eventos de producto con instance-id {}", instanceId);
+    }
+
+    // Lo usa el group-id del @KafkaListener
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @KafkaListener(topics = "product-events", groupId = "order-service-products-#{__listener.instanceId}",
+            properties = "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer")
+    public void handleProductEvent(@Header(KafkaHeaders.RECEIVED_KEY) String productId) {
+        logger.debug("Producto {} modificado en el catalogo, se invalida la cache", productId);
+        productCache.invalidate(productId);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            // Sin nombre de host no hay id estable: un grupo por arranque como mal menor
+            logger.warn("No se pudo resolver el nombre del host, se usa un instance-id aleatorio");
+            return UUID.randomUUID().toString();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.plataforma_deliveri.order_service.dtos;
+
+import java.util.List;
+
+public record ProductBatchRequestDto(
+    List<String> ids
+) {}
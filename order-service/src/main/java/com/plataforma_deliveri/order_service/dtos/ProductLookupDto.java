@@ -0,0 +1,7 @@
+package com.plataforma_deliveri.order_service.dtos;
+
+public record ProductLookupDto(
+    String id,
+    boolean found,
+    ProductDto product
+) {}
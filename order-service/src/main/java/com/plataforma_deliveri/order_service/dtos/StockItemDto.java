@@ -0,0 +1,6 @@
+package com.plataforma_deliveri.order_service.dtos;
+
+public record StockItemDto(
+    String productId,
+    Integer quantity
+) {}
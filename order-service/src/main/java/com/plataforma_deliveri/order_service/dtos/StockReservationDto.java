@@ -0,0 +1,11 @@
+package com.plataforma_deliveri.order_service.dtos;
+
+import java.time.Instant;
+import java.util.List;
+
+public record StockReservationDto(
+    String orderId,
+    String status,
+    List<StockItemDto> items,
+    Instant expiresAt
+) {}
@@ -0,0 +1,8 @@
+package com.plataforma_deliveri.order_service.dtos;
+
+import java.util.List;
+
+public record UserBatchRequestDto(
+    List<String> emails,
+    List<Long> ids
+) {}
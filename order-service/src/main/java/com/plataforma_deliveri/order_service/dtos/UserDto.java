@@ -0,0 +1,8 @@
+package com.plataforma_deliveri.order_service.dtos;
+
+public record UserDto(
+    Long id,
+    String name,
+    String email,
+    String phone
+) {}
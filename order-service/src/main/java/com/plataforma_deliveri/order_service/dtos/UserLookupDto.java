@@ -0,0 +1,8 @@
+package com.plataforma_deliveri.order_service.dtos;
+
+public record UserLookupDto(
+    String email,
+    Long id,
+    boolean found,
+    UserDto user
+) {}
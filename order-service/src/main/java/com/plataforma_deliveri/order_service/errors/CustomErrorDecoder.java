@@ -9,7 +9,7 @@ private final ErrorDecoder defaultDecoder = new Default();
     @Override
     public Exception decode(String methodKey, Response response) {
         if (response.status() == 404) {
-            return new RuntimeException("PRODUCT_NOT_FOUND_IN_CATALOG"); 
+            return new ProductNotFoundException("PRODUCT_NOT_FOUND_IN_CATALOG");
         }
 
         return defaultDecoder.decode(methodKey, response);
@@ -0,0 +1,9 @@
+package com.plataforma_deliveri.order_service.errors;
+
+// 404 de catalog-service (ver CustomErrorDecoder)
+public class ProductNotFoundException extends RuntimeException {
+
+    public ProductNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,170 @@
+package com.plataforma_deliveri.order_service.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.plataforma_deliveri.order_service.clients.ICatalogServiceFeignClient;
+import com.plataforma_deliveri.order_service.dtos.ProductBatchRequestDto;
+import com.plataforma_deliveri.order_service.dtos.ProductDto;
+import com.plataforma_deliveri.order_service.dtos.ProductLookupDto;
+import com.plataforma_deliveri.order_service.errors.ProductNotFoundException;
+
+import jakarta.annotation.PreDestroy;
+
+// Resuelve los productos de un pedido contra catalog-service.
+//  - batch: POST /api/v1/products/batch, una llamada por cada 100 ids
+//  - fanout: un GET /api/v1/products/{id} por producto, en paralelo en un pool acotado (para catalogos
+//    sin endpoint batch). La latencia del pedido es la del producto mas lento, no la suma.
+// Errores: producto inexistente = 400, timeout = 504, cola llena = 503, resto = 500.
+@Component
+public class CatalogProductResolver {
+
+    public static final int CATALOG_BATCH_SIZE = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogProductResolver.class);
+
+    private final ICatalogServiceFeignClient catalogClient;
+    private final ProductCache productCache;
+    private final String mode;
+    private final Duration callTimeout;
+    private final Duration deadline;
+    private final ThreadPoolExecutor executor;
+
+    public CatalogProductResolver(ICatalogServiceFeignClient catalogClient, ProductCache productCache,
+            @Value("${catalog.lookup.mode:batch}") String mode,
+            @Value("${catalog.lookup.parallelism:8}") int parallelism,
+            @Value("${catalog.lookup.queue-capacity:256}") int queueCapacity,
+            @Value("${catalog.lookup.call-timeout:2s}") Duration callTimeout,
+            @Value("${catalog.lookup.deadline:5s}") Duration deadline) {
+        if (!"batch".equals(mode) && !"fanout".equals(mode)) {
+            throw new IllegalArgumentException("catalog.lookup.mode debe ser batch o fanout: " + mode);
+        }
+        this.catalogClient = catalogClient;
+        this.productCache = productCache;
+        this.mode = mode;
+        this.callTimeout = callTimeout;
+        this.deadline = deadline;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "catalog-lookup-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // ids sin repetir -> producto; si falta alguno se lanza 400 con todos los que faltan.
+    // Primero la cache local (ProductCache); al catalogo solo van los que no estan
+    public Map<String, ProductDto> resolve(List<String> ids) {
+        return productCache.getAll(ids, this::resolveRemote);
+    }
+
+    private Map<String, ProductDto> resolveRemote(List<String> ids) {
+        return "fanout".equals(mode) ? resolveConcurrently(ids) : resolveInBatches(ids);
+    }
+
+    private Map<String, ProductDto> resolveInBatches(List<String> ids) {
+        Map<String, ProductDto> products = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CATALOG_BATCH_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + CATALOG_BATCH_SIZE, ids.size()));
+            List<ProductLookupDto> lookups;
+            try {
+                lookups = catalogClient.getProductsByIds(new ProductBatchRequestDto(chunk));
+            } catch (Exception e) {
+                // Manejo de errores de comunicación con el catálogo
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error en catálogo.");
+            }
+            for (ProductLookupDto lookup : lookups) {
+                if (lookup.found()) {
+                    products.put(lookup.id(), lookup.product());
+                } else {
+                    missing.add(lookup.id());
+                }
+            }
+        }
+        return requireAll(products, missing);
+    }
+
+    private Map<String, ProductDto> resolveConcurrently(List<String> ids) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        Map<String, CompletableFuture<ProductDto>> calls = new LinkedHashMap<>();
+        try {
+            for (String id : ids) {
+                // El timeout por llamada cuenta desde que se encola
+                calls.put(id, CompletableFuture.supplyAsync(() -> catalogClient.getProductById(id), executor)
+                        .orTimeout(callTimeout.toNanos(), TimeUnit.NANOSECONDS));
+            }
+        } catch (RejectedExecutionException e) {
+            calls.values().forEach(call -> call.cancel(true));
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Catálogo saturado, reintenta más tarde.");
+        }
+
+        try {
+            CompletableFuture.allOf(calls.values().toArray(CompletableFuture[]::new))
+                    .get(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            calls.values().forEach(call -> call.cancel(true));
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Timeout consultando el catálogo.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            calls.values().forEach(call -> call.cancel(true));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error en catálogo.");
+        } catch (ExecutionException e) {
+            // Alguna llamada ha fallado; se revisan una a una abajo
+        }
+
+        Map<String, ProductDto> products = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<ProductDto>> call : calls.entrySet()) {
+            try {
+                products.put(call.getKey(), call.getValue().join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof ProductNotFoundException) {
+                    missing.add(call.getKey());
+                } else if (cause instanceof TimeoutException) {
+                    throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                            "Timeout consultando el producto " + call.getKey() + " en el catálogo.");
+                } else {
+                    logger.error("Error consultando el producto {} en el catálogo: {}", call.getKey(), cause.getMessage());
+                    throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error en catálogo.");
+                }
+            }
+        }
+        return requireAll(products, missing);
+    }
+
+    private static Map<String, ProductDto> requireAll(Map<String, ProductDto> products, List<String> missing) {
+        if (!missing.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Productos no encontrados: " + missing);
+        }
+        return products;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
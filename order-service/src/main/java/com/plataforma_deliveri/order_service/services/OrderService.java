@@ -2,6 +2,7 @@ package com.plataforma_deliveri.order_service.services;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -12,6 +13,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import feign.FeignException;
+
 import com.plataforma_deliveri.order_service.clients.ICatalogServiceFeignClient;
 import com.plataforma_deliveri.order_service.clients.IPaymentServiceFeignClient;
 import com.plataforma_deliveri.order_service.consumers.PaymentEventsConsumer;
@@ -21,6 +24,9 @@ import com.plataforma_deliveri.order_service.dtos.OrderResponseDto;
 import com.plataforma_deliveri.order_service.dtos.PaymentRequestDto;
 import com.plataforma_deliveri.order_service.dtos.PaymentResponseDto;
 import com.plataforma_deliveri.order_service.dtos.ProductDto;
+import com.plataforma_deliveri.order_service.dtos.StockItemDto;
+import com.plataforma_deliveri.order_service.dtos.StockReservationRequestDto;
+import com.plataforma_deliveri.order_service.errors.ProductNotFoundException;
 import com.plataforma_deliveri.order_service.mappers.OrderMapper;
 import com.plataforma_deliveri.order_service.models.Order;
 import com.plataforma_deliveri.order_service.models.OrderItem;
@@ -32,6 +38,9 @@ public class OrderService {
     @Autowired
     private IOrderRepository repository;
 
+    @Autowired
+    private CatalogProductResolver productResolver;
+
     @Autowired
     private ICatalogServiceFeignClient catalogClient;
 
@@ -43,6 +52,11 @@ public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentEventsConsumer.class);
 
+    // Pagado pero sin stock apartado: pendiente de reembolso o gestion manual
+    public static final String STOCK_CONFLICT = "STOCK_CONFLICT";
+
+    private static final String RESERVATION_RETRY_SUFFIX = "-retry";
+
     public List<OrderResponseDto> findAll() {
         return repository.findAll().stream()
                 .map(orderMapper::toOrderResponseDTO)
@@ -57,14 +71,14 @@ public class OrderService {
         List<OrderItem> items = new ArrayList<>();
         double total = 0.0;
 
+        // Todos los productos del pedido de una vez (batch o en paralelo segun catalog.lookup.mode)
+        Map<String, ProductDto> products = productResolver.resolve(request.items().stream()
+                .map(OrderItemRequestDto::id)
+                .distinct()
+                .toList());
+
         for (OrderItemRequestDto itemDto : request.items()) {
-            ProductDto productInfo;
-            try {
-                productInfo = catalogClient.getProductById(itemDto.id());
-            } catch (Exception e) {
-                // Manejo de errores de comunicación o producto no encontrado
-                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error en catálogo.");
-            }
+            ProductDto productInfo = products.get(itemDto.id());
 
             OrderItem item = new OrderItem();
             item.setProductId(itemDto.id());
@@ -81,6 +95,9 @@ public class OrderService {
 
         Order savedOrder = repository.save(newOrder);
 
+        // Se reserva el stock antes de cobrar; si el pago no sale adelante se libera
+        reserveStock(savedOrder.getId(), request);
+
         PaymentRequestDto paymentDetails = new PaymentRequestDto(
                 savedOrder.getId(),
                 savedOrder.getTotalPrice(),
@@ -102,11 +119,13 @@ public class OrderService {
         } catch (ResponseStatusException rse) {
             savedOrder.setStatus("PAYMENT_ERROR_CLIENT");
             repository.save(savedOrder);
+            releaseStock(savedOrder.getId());
             throw rse;
 
         } catch (Exception e) {
             savedOrder.setStatus("PAYMENT_ERROR_COMMUNICATION");
             repository.save(savedOrder);
+            releaseStock(savedOrder.getId());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                     "Error al comunicarse con el servicio de pago: " + e.getMessage());
         }
@@ -133,16 +152,88 @@ public class OrderService {
             return new ResponseStatusException(HttpStatus.NOT_FOUND, "Orden con id: " + orderId + " no encontrada");
         });
 
-        orderToUpdate.setStatus(newStatus);
+        // Un pedido pagado solo queda COMPLETED si su stock sigue apartado; si no, se marca para reembolso
+        // o gestion manual en lugar de vender otra vez las mismas unidades
+        String status = newStatus;
+        if ("COMPLETED".equalsIgnoreCase(newStatus) && !confirmStock(orderToUpdate)) {
+            status = STOCK_CONFLICT;
+        }
+
+        orderToUpdate.setStatus(status);
         Order orderUpdated = repository.save(orderToUpdate);
 
-        logger.info("Estado de la orden {} actualizado a {}", orderId, newStatus);
+        logger.info("Estado de la orden {} actualizado a {}", orderId, status);
 
         if ("PAYMENT_FAILED".equalsIgnoreCase(newStatus)) {
             logger.warn("El pago fallo para la orden {}", orderId);
+            releaseStock(orderId);
         }
 
         return orderMapper.toOrderResponseDTO(orderUpdated);
     }
 
+    private void reserveStock(Long orderId, OrderRequestDto request) {
+        List<StockItemDto> items = request.items().stream()
+                .map(item -> new StockItemDto(item.id(), item.quantity()))
+                .toList();
+        try {
+            catalogClient.reserveStock(String.valueOf(orderId), new StockReservationRequestDto(items));
+        } catch (FeignException.Conflict e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "No hay stock suficiente para el pedido.");
+        } catch (ProductNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Producto no encontrado en el catálogo.");
+        } catch (Exception e) {
+            // Puede que la reserva se aplicara aunque la respuesta no llegase: se libera. catalog-service deja
+            // la reserva como RELEASED aunque el PUT llegue despues, y si la liberacion falla caduca sola
+            releaseStock(orderId);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error en catálogo.");
+        }
+    }
+
+    // Sin confirmar, catalog-service devuelve el stock al caducar la reserva. false si el pedido se ha quedado
+    // sin stock: la reserva ya caduco (409) y no se ha podido volver a reservar
+    private boolean confirmStock(Order order) {
+        String orderId = String.valueOf(order.getId());
+        try {
+            catalogClient.confirmStock(orderId);
+            return true;
+        } catch (FeignException.Conflict e) {
+            // Pago completado despues de catalog.stock.reservation-ttl: el barrido ya devolvio el stock
+            logger.warn("La reserva de stock de la orden {} ya no esta activa, se reserva de nuevo", orderId);
+            return reserveAgain(order);
+        } catch (Exception e) {
+            logger.error("No se pudo confirmar la reserva de stock de la orden {}: {}", orderId, e.getMessage());
+            return true;
+        }
+    }
+
+    // catalog-service rechaza un reserve tardio con el mismo id (la reserva liberada es definitiva), por eso
+    // la nueva reserva va con su propio id. Es idempotente: si el evento de pago se repite se reutiliza
+    private boolean reserveAgain(Order order) {
+        String reservationId = order.getId() + RESERVATION_RETRY_SUFFIX;
+        List<StockItemDto> items = order.getItems().stream()
+                .map(item -> new StockItemDto(item.getProductId(), item.getQuantity()))
+                .toList();
+        try {
+            catalogClient.reserveStock(reservationId, new StockReservationRequestDto(items));
+            catalogClient.confirmStock(reservationId);
+            return true;
+        } catch (FeignException.Conflict e) {
+            logger.error("La orden {} esta pagada pero ya no hay stock para ella", order.getId());
+        } catch (Exception e) {
+            logger.error("No se pudo volver a reservar el stock de la orden {}: {}", order.getId(), e.getMessage());
+        }
+        return false;
+    }
+
+    // La liberacion es idempotente en catalog-service; si falla no se oculta el error original del pedido
+    private void releaseStock(Long orderId) {
+        try {
+            catalogClient.releaseStock(String.valueOf(orderId));
+        } catch (ProductNotFoundException e) {
+            logger.debug("La orden {} no tenia stock reservado", orderId);
+        } catch (Exception e) {
+            logger.error("No se pudo liberar el stock de la orden {}: {}", orderId, e.getMessage());
+        }
+    }
 }
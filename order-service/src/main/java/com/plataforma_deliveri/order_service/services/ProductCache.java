@@ -0,0 +1,172 @@
+package com.plataforma_deliveri.order_service.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.plataforma_deliveri.order_service.dtos.ProductDto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import jakarta.annotation.PreDestroy;
+
+// Cache local de productos (precio, stock) para no depender de catalog-service en cada pedido.
+//  - Mas nuevo que ttl: se sirve tal cual.
+//  - Entre ttl y max-staleness: se sirve y se refresca en segundo plano; si el catalogo esta caido se
+//    sigue sirviendo hasta max-staleness.
+//  - Mas viejo que max-staleness: Caffeine lo ha expulsado y se consulta al catalogo en la peticion.
+// Los eventos de product-events invalidan la entrada al momento (ProductEventsConsumer).
+@Component
+public class ProductCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCache.class);
+
+    private final Cache<String, Entry> cache;
+    private final Duration ttl;
+    private final Ticker ticker;
+    private final ExecutorService refresher;
+
+    // Ids con un refresco en curso, para no lanzar varios por el mismo producto
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    // Secuencia de invalidaciones y, por producto, la de su ultima invalidacion: una carga que empezo antes
+    // no se guarda para ese producto (el resto del lote si). Acotado como la cache: pasado max-staleness
+    // ninguna carga sigue en vuelo
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<String, Long> invalidatedAt;
+
+    @Autowired
+    public ProductCache(MeterRegistry meterRegistry,
+            @Value("${catalog.cache.max-size:10000}") long maxSize,
+            @Value("${catalog.cache.ttl:30s}") Duration ttl,
+            @Value("${catalog.cache.max-staleness:5m}") Duration maxStaleness) {
+        this(maxSize, ttl, maxStaleness, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "order.products");
+    }
+
+    public ProductCache(long maxSize, Duration ttl, Duration maxStaleness, Ticker ticker) {
+        if (maxStaleness.compareTo(ttl) < 0) {
+            throw new IllegalArgumentException("catalog.cache.max-staleness no puede ser menor que catalog.cache.ttl");
+        }
+        this.ttl = ttl;
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxStaleness)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxStaleness)
+                .ticker(ticker)
+                .build();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-cache-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // loader: ids -> productos del catalogo (lanza si falla o falta alguno). Solo se llama con lo que no esta
+    public Map<String, ProductDto> getAll(List<String> ids, Function<List<String>, Map<String, ProductDto>> loader) {
+        long now = ticker.read();
+        Map<String, ProductDto> products = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        List<String> stale = new ArrayList<>();
+
+        for (String id : ids) {
+            Entry entry = cache.getIfPresent(id);
+            if (entry == null) {
+                misses.add(id);
+                continue;
+            }
+            products.put(id, entry.product());
+            if (now - entry.loadedAtNanos() >= ttl.toNanos()) {
+                stale.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            products.putAll(load(misses, loader));
+        }
+        if (!stale.isEmpty()) {
+            refreshAsync(stale, loader);
+        }
+        return products;
+    }
+
+    public void invalidate(String productId) {
+        invalidatedAt.put(productId, sequence.incrementAndGet());
+        cache.invalidate(productId);
+    }
+
+    public void invalidateAll(Collection<String> productIds) {
+        productIds.forEach(this::invalidate);
+    }
+
+    private Map<String, ProductDto> load(List<String> ids, Function<List<String>, Map<String, ProductDto>> loader) {
+        long startSequence = sequence.get();
+        long loadedAt = ticker.read();
+        Map<String, ProductDto> loaded = loader.apply(ids);
+        // Si ha llegado una invalidacion del producto mientras tanto, su respuesta puede ser anterior al cambio
+        loaded.forEach((id, product) -> {
+            Long invalidated = invalidatedAt.getIfPresent(id);
+            if (invalidated == null || invalidated <= startSequence) {
+                cache.put(id, new Entry(product, loadedAt));
+            }
+        });
+        return loaded;
+    }
+
+    private void refreshAsync(List<String> ids, Function<List<String>, Map<String, ProductDto>> loader) {
+        List<String> toRefresh = ids.stream().filter(refreshing::add).toList();
+        if (toRefresh.isEmpty()) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    load(toRefresh, loader);
+                } catch (Exception e) {
+                    // Se sigue sirviendo lo que hay hasta max-staleness
+                    logger.warn("No se pudieron refrescar los productos {}: {}", toRefresh, e.getMessage());
+                } finally {
+                    refreshing.removeAll(toRefresh);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.removeAll(toRefresh);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private record Entry(ProductDto product, long loadedAtNanos) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.plataforma_deliveri.order_service.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.plataforma_deliveri.order_service.clients.IUsersServiceFeignClient;
+import com.plataforma_deliveri.order_service.dtos.UserBatchRequestDto;
+import com.plataforma_deliveri.order_service.dtos.UserLookupDto;
+
+import jakarta.annotation.PreDestroy;
+
+// Micro-batching de consultas a users-service: las busquedas por email que llegan dentro de la misma
+// ventana se agrupan en un solo POST /api/v1/users/batch (un IN en la BD en lugar de N peticiones).
+// /batch es solo para ADMIN: el lote viaja con el token de la cuenta de servicio (users.lookup.service-token),
+// nunca con el del usuario final, asi que todas las busquedas de la ventana comparten lote.
+@Component
+public class UserLookupBatcher {
+
+    private final IUsersServiceFeignClient usersClient;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final String serviceAuthorization;
+    private final ScheduledExecutorService scheduler;
+
+    // Lote abierto; protegido por el monitor de this
+    private Batch pending;
+
+    public UserLookupBatcher(IUsersServiceFeignClient usersClient,
+            @Value("${users.lookup.batch-window:10ms}") Duration window,
+            @Value("${users.lookup.max-batch-size:100}") int maxBatchSize,
+            @Value("${users.lookup.threads:4}") int threads,
+            @Value("${users.lookup.service-token:}") String serviceToken) {
+        this.usersClient = usersClient;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.serviceAuthorization = serviceToken == null || serviceToken.isBlank() ? null : "Bearer " + serviceToken.trim();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-lookup-batcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<UserLookupDto> lookup(String email) {
+        // Sin credencial de servicio users-service respondera 401/403: fallamos antes de encolar
+        if (serviceAuthorization == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("users.lookup.service-token no configurado"));
+        }
+
+        CompletableFuture<UserLookupDto> result = new CompletableFuture<>();
+        Batch toFlush = null;
+        synchronized (this) {
+            if (pending == null) {
+                pending = new Batch();
+                Batch scheduled = pending;
+                scheduler.schedule(() -> flush(scheduled), window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            // El mismo email pedido varias veces en la ventana viaja una sola vez
+            pending.waiters.computeIfAbsent(email, key -> new ArrayList<>()).add(result);
+            if (pending.waiters.size() >= maxBatchSize) {
+                toFlush = pending;
+                pending = null;
+            }
+        }
+        if (toFlush != null) {
+            Batch full = toFlush;
+            scheduler.execute(() -> send(full));
+        }
+        return result;
+    }
+
+    private void flush(Batch batch) {
+        synchronized (this) {
+            // Si ya se envio por estar lleno, el temporizador no hace nada
+            if (pending != batch) {
+                return;
+            }
+            pending = null;
+        }
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        List<String> emails = new ArrayList<>(batch.waiters.keySet());
+        try {
+            List<UserLookupDto> results = usersClient.lookupUsers(serviceAuthorization,
+                    new UserBatchRequestDto(emails, null));
+            // La respuesta viene en el mismo orden que la peticion
+            for (int i = 0; i < emails.size(); i++) {
+                UserLookupDto lookup = i < results.size()
+                        ? results.get(i)
+                        : new UserLookupDto(emails.get(i), null, false, null);
+                batch.waiters.get(emails.get(i)).forEach(waiter -> waiter.complete(lookup));
+            }
+        } catch (Exception e) {
+            batch.waiters.values().forEach(waiters -> waiters.forEach(waiter -> waiter.completeExceptionally(e)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private static final class Batch {
+        private final Map<String, List<CompletableFuture<UserLookupDto>>> waiters = new LinkedHashMap<>();
+    }
+}
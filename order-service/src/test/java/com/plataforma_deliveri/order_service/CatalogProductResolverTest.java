@@ -0,0 +1,186 @@
+package com.plataforma_deliveri.order_service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import com.plataforma_deliveri.order_service.clients.ICatalogServiceFeignClient;
+import com.plataforma_deliveri.order_service.dtos.ProductBatchRequestDto;
+import com.plataforma_deliveri.order_service.dtos.ProductDto;
+import com.plataforma_deliveri.order_service.dtos.ProductLookupDto;
+import com.plataforma_deliveri.order_service.errors.ProductNotFoundException;
+import com.plataforma_deliveri.order_service.services.CatalogProductResolver;
+import com.plataforma_deliveri.order_service.services.ProductCache;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogProductResolverTest {
+
+    private static final List<String> BASKET = List.of("p1", "p2", "p3", "p4", "p5");
+
+    @Mock
+    private ICatalogServiceFeignClient catalogClient;
+
+    private CatalogProductResolver resolver;
+
+    // Concurrencia de los GET simulados; los productos "lentos" esperan a stuck hasta el final del test
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final CountDownLatch stuck = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        stuck.countDown();
+        if (resolver != null) {
+            resolver.shutdown();
+        }
+    }
+
+    // GET por producto: missing-* da 404 y broken-* un 500. Si hay rendezvous, cada llamada espera a que
+    // esten todas en vuelo, lo que solo ocurre si de verdad van en paralelo
+    private void stubGetProductById(Set<String> slowIds, CountDownLatch rendezvous) {
+        when(catalogClient.getProductById(anyString())).thenAnswer(invocation -> {
+            String id = invocation.getArgument(0);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (slowIds.contains(id)) {
+                    stuck.await();
+                } else if (rendezvous != null) {
+                    rendezvous.countDown();
+                    rendezvous.await(5, TimeUnit.SECONDS);
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            if (id.startsWith("missing")) {
+                throw new ProductNotFoundException("PRODUCT_NOT_FOUND_IN_CATALOG");
+            }
+            if (id.startsWith("broken")) {
+                throw new IllegalStateException("HTTP 500");
+            }
+            return new ProductDto(id, "Producto " + id, "Descripcion", 10.0, 5, "Categoria");
+        });
+    }
+
+    // Cache vacia en cada test para que todas las consultas lleguen al catalogo
+    private static ProductCache newCache() {
+        return new ProductCache(100, Duration.ofSeconds(30), Duration.ofMinutes(5), Ticker.systemTicker());
+    }
+
+    private CatalogProductResolver fanout(int parallelism, Duration callTimeout, Duration deadline) {
+        resolver = new CatalogProductResolver(catalogClient, newCache(), "fanout", parallelism, 64, callTimeout, deadline);
+        return resolver;
+    }
+
+    @Test
+    void fanout_ShouldRunAllCallsConcurrently() {
+        stubGetProductById(Set.of(), new CountDownLatch(BASKET.size()));
+        CatalogProductResolver resolver = fanout(8, Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+        Map<String, ProductDto> products = resolver.resolve(BASKET);
+
+        assertEquals(5, products.size());
+        assertEquals("Producto p3", products.get("p3").name());
+        // En serie nunca habria mas de una llamada en vuelo
+        assertEquals(BASKET.size(), maxInFlight.get());
+    }
+
+    @Test
+    void fanout_ShouldNotExceedParallelism() {
+        stubGetProductById(Set.of(), new CountDownLatch(2));
+        CatalogProductResolver resolver = fanout(2, Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+        resolver.resolve(List.of("p1", "p2", "p3", "p4"));
+
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void fanout_ShouldReportAllMissingProducts_AsBadRequest() {
+        stubGetProductById(Set.of(), null);
+        CatalogProductResolver resolver = fanout(8, Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> resolver.resolve(List.of("p1", "missing-1", "missing-2")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+        assertTrue(error.getReason().contains("missing-1") && error.getReason().contains("missing-2"));
+    }
+
+    @Test
+    void fanout_ShouldMapFailingItem_ToInternalServerError() {
+        stubGetProductById(Set.of(), null);
+        CatalogProductResolver resolver = fanout(8, Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> resolver.resolve(List.of("p1", "broken-1")));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, error.getStatusCode());
+    }
+
+    @Test
+    void fanout_ShouldTimeOutSlowItem_WithoutWaitingForIt() {
+        stubGetProductById(Set.of("p2"), null);
+        CatalogProductResolver resolver = fanout(8, Duration.ofMillis(200), Duration.ofSeconds(5));
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, () -> resolver.resolve(BASKET));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, error.getStatusCode());
+        assertTrue(error.getReason().contains("p2"));
+        // La llamada lenta sigue bloqueada: el pedido ha respondido sin esperarla
+        assertEquals(1, inFlight.get());
+    }
+
+    @Test
+    void fanout_ShouldRespectOverallDeadline() {
+        // Con un solo hilo el resto de productos queda detras del bloqueado; el plazo global corta antes
+        // que el timeout por llamada
+        stubGetProductById(Set.of("p1"), null);
+        CatalogProductResolver resolver = fanout(1, Duration.ofSeconds(5), Duration.ofMillis(200));
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, () -> resolver.resolve(BASKET));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, error.getStatusCode());
+        assertEquals("Timeout consultando el catálogo.", error.getReason());
+    }
+
+    @Test
+    void batch_ShouldUseSingleBulkCall() {
+        when(catalogClient.getProductsByIds(any(ProductBatchRequestDto.class))).thenAnswer(invocation -> {
+            ProductBatchRequestDto request = invocation.getArgument(0);
+            return request.ids().stream()
+                    .map(id -> new ProductLookupDto(id, true, new ProductDto(id, "Producto " + id, null, 10.0, 5, null)))
+                    .toList();
+        });
+        resolver = new CatalogProductResolver(catalogClient, newCache(), "batch", 2, 16, Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+        Map<String, ProductDto> products = resolver.resolve(BASKET);
+
+        assertEquals(5, products.size());
+        verify(catalogClient, times(1)).getProductsByIds(any(ProductBatchRequestDto.class));
+        verify(catalogClient, never()).getProductById(anyString());
+    }
+}
@@ -8,25 +8,36 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import feign.FeignException;
+import feign.Request;
+
 import com.plataforma_deliveri.order_service.clients.ICatalogServiceFeignClient;
 import com.plataforma_deliveri.order_service.clients.IPaymentServiceFeignClient;
 import com.plataforma_deliveri.order_service.dtos.OrderItemRequestDto;
@@ -34,11 +45,17 @@ import com.plataforma_deliveri.order_service.dtos.OrderRequestDto;
 import com.plataforma_deliveri.order_service.dtos.OrderResponseDto;
 import com.plataforma_deliveri.order_service.dtos.PaymentRequestDto;
 import com.plataforma_deliveri.order_service.dtos.PaymentResponseDto;
+import com.plataforma_deliveri.order_service.dtos.ProductBatchRequestDto;
 import com.plataforma_deliveri.order_service.dtos.ProductDto;
+import com.plataforma_deliveri.order_service.dtos.ProductLookupDto;
+import com.plataforma_deliveri.order_service.dtos.StockItemDto;
+import com.plataforma_deliveri.order_service.dtos.StockReservationRequestDto;
 import com.plataforma_deliveri.order_service.mappers.OrderMapper;
 import com.plataforma_deliveri.order_service.models.Order;
 import com.plataforma_deliveri.order_service.models.OrderItem;
 import com.plataforma_deliveri.order_service.repositories.IOrderRepository;
+import com.plataforma_deliveri.order_service.services.CatalogProductResolver;
+import com.plataforma_deliveri.order_service.services.ProductCache;
 import com.plataforma_deliveri.order_service.services.OrderService;
 
 @ExtendWith(MockitoExtension.class)
@@ -67,11 +84,16 @@ public class OrderServiceTest {
     private OrderResponseDto orderResponseDto;
     private OrderRequestDto orderRequestDto;
     private ProductDto productDto;
+    private ProductBatchRequestDto productBatch;
+    private ProductLookupDto productLookup;
     private PaymentResponseDto paymentSuccessResponse;
     private PaymentResponseDto paymentFailedResponse;
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(orderService, "productResolver", new CatalogProductResolver(
+                catalogClient, new ProductCache(100, Duration.ofSeconds(30), Duration.ofMinutes(5), Ticker.systemTicker()), "batch", 2, 16, Duration.ofSeconds(2), Duration.ofSeconds(5)));
+
         OrderItem orderItem = new OrderItem();
         orderItem.setProductId(PRODUCT_ID);
         orderItem.setQuantity(2);
@@ -98,6 +120,8 @@ public class OrderServiceTest {
                 "token_payment_123");
 
         productDto = new ProductDto(PRODUCT_ID, "Test Product", "Description", PRODUCT_PRICE, 100, "Category");
+        productBatch = new ProductBatchRequestDto(List.of(PRODUCT_ID));
+        productLookup = new ProductLookupDto(PRODUCT_ID, true, productDto);
 
         paymentSuccessResponse = new PaymentResponseDto(
             "ref_success_123",
@@ -175,7 +199,7 @@ public class OrderServiceTest {
 
     @Test
     void createOrder_ShouldProcessSuccessfully_AndReturnPaymentIntentCreated() {
-        when(catalogClient.getProductById(PRODUCT_ID)).thenReturn(productDto);
+        when(catalogClient.getProductsByIds(productBatch)).thenReturn(List.of(productLookup));
 
         when(repository.save(any(Order.class)))
                 .thenAnswer(invocation -> {
@@ -196,14 +220,14 @@ public class OrderServiceTest {
         assertEquals("PAYMENT_INTENT_CREATED", result.status());
         assertEquals(PRODUCT_PRICE * 2, result.totalPrice());
 
-        verify(catalogClient, times(1)).getProductById(PRODUCT_ID);
+        verify(catalogClient, times(1)).getProductsByIds(productBatch);
         verify(paymentClient, times(1)).processPayment(any(PaymentRequestDto.class));
         verify(repository, times(2)).save(any(Order.class));
     }
 
     @Test
     void createOrder_ShouldThrowInternalServerError_WhenCatalogClientFails() {
-        when(catalogClient.getProductById(PRODUCT_ID)).thenThrow(new RuntimeException("Error de conexión"));
+        when(catalogClient.getProductsByIds(productBatch)).thenThrow(new RuntimeException("Error de conexión"));
 
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
             orderService.createOrder(orderRequestDto, USER_EMAIL);
@@ -212,14 +236,49 @@ public class OrderServiceTest {
         assertEquals("500 INTERNAL_SERVER_ERROR", exception.getStatusCode().toString());
         assertTrue(exception.getReason().contains("Error en catálogo"));
 
-        verify(catalogClient, times(1)).getProductById(PRODUCT_ID);
+        verify(catalogClient, times(1)).getProductsByIds(productBatch);
         verify(repository, never()).save(any(Order.class));
         verify(paymentClient, never()).processPayment(any(PaymentRequestDto.class));
     }
 
+    @Test
+    void createOrder_ShouldResolveAllItemsInOneCatalogCall() {
+        ProductDto otherProduct = new ProductDto("P002", "Other", "Description", 5.0, 10, "Category");
+        OrderRequestDto multiItemRequest = new OrderRequestDto(List.of(
+                new OrderItemRequestDto(PRODUCT_ID, 2),
+                new OrderItemRequestDto("P002", 1),
+                new OrderItemRequestDto(PRODUCT_ID, 1)), "token_payment_123");
+        when(catalogClient.getProductsByIds(new ProductBatchRequestDto(List.of(PRODUCT_ID, "P002"))))
+                .thenReturn(List.of(productLookup, new ProductLookupDto("P002", true, otherProduct)));
+        when(repository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentClient.processPayment(any(PaymentRequestDto.class))).thenReturn(paymentSuccessResponse);
+
+        orderService.createOrder(multiItemRequest, USER_EMAIL);
+
+        ArgumentCaptor<PaymentRequestDto> payment = ArgumentCaptor.forClass(PaymentRequestDto.class);
+        verify(paymentClient).processPayment(payment.capture());
+        assertEquals(PRODUCT_PRICE * 3 + 5.0, payment.getValue().amount());
+        verify(catalogClient, times(1)).getProductsByIds(any(ProductBatchRequestDto.class));
+        verify(catalogClient, never()).getProductById(any());
+    }
+
+    @Test
+    void createOrder_ShouldThrowBadRequest_WhenSomeProductsAreUnknown() {
+        when(catalogClient.getProductsByIds(productBatch))
+                .thenReturn(List.of(new ProductLookupDto(PRODUCT_ID, false, null)));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            orderService.createOrder(orderRequestDto, USER_EMAIL);
+        });
+
+        assertEquals("400 BAD_REQUEST", exception.getStatusCode().toString());
+        assertTrue(exception.getReason().contains(PRODUCT_ID));
+        verify(repository, never()).save(any(Order.class));
+    }
+
     @Test
     void createOrder_ShouldSetStatusToPaymentFailedSync_WhenPaymentFailsSync() {
-        when(catalogClient.getProductById(PRODUCT_ID)).thenReturn(productDto);
+        when(catalogClient.getProductsByIds(productBatch)).thenReturn(List.of(productLookup));
         when(repository.save(any(Order.class))).thenReturn(order);
 
         when(paymentClient.processPayment(any(PaymentRequestDto.class))).thenReturn(paymentFailedResponse);
@@ -237,7 +296,7 @@ public class OrderServiceTest {
 
     @Test
     void createOrder_ShouldSetStatusToPaymentErrorCommunication_WhenPaymentClientThrowsException() {
-        when(catalogClient.getProductById(PRODUCT_ID)).thenReturn(productDto);
+        when(catalogClient.getProductsByIds(productBatch)).thenReturn(List.of(productLookup));
         when(repository.save(any(Order.class))).thenReturn(order);
 
         when(paymentClient.processPayment(any(PaymentRequestDto.class)))
@@ -254,6 +313,107 @@ public class OrderServiceTest {
         verify(paymentClient, times(1)).processPayment(any(PaymentRequestDto.class));
     }
 
+    @Test
+    void createOrder_ShouldReserveStockForTheOrder_BeforeCharging() {
+        when(catalogClient.getProductsByIds(productBatch)).thenReturn(List.of(productLookup));
+        when(repository.save(any(Order.class))).thenReturn(order);
+        when(paymentClient.processPayment(any(PaymentRequestDto.class))).thenReturn(paymentSuccessResponse);
+
+        orderService.createOrder(orderRequestDto, USER_EMAIL);
+
+        verify(catalogClient).reserveStock(String.valueOf(ORDER_ID),
+                new StockReservationRequestDto(List.of(new StockItemDto(PRODUCT_ID, 2))));
+        verify(catalogClient, never()).releaseStock(any());
+    }
+
+    @Test
+    void createOrder_ShouldThrowConflict_AndNotCharge_WhenStockIsInsufficient() {
+        when(catalogClient.getProductsByIds(productBatch)).thenReturn(List.of(productLookup));
+        when(repository.save(any(Order.class))).thenReturn(order);
+        Request request = Request.create(Request.HttpMethod.PUT, "/api/v1/products/reservations/1",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        when(catalogClient.reserveStock(any(), any(StockReservationRequestDto.class)))
+                .thenThrow(new FeignException.Conflict("Stock insuficiente", request, null, Map.of()));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            orderService.createOrder(orderRequestDto, USER_EMAIL);
+        });
+
+        assertEquals("409 CONFLICT", exception.getStatusCode().toString());
+        verify(paymentClient, never()).processPayment(any(PaymentRequestDto.class));
+    }
+
+    @Test
+    void createOrder_ShouldReleaseStock_WhenPaymentFails() {
+        when(catalogClient.getProductsByIds(productBatch)).thenReturn(List.of(productLookup));
+        when(repository.save(any(Order.class))).thenReturn(order);
+        when(paymentClient.processPayment(any(PaymentRequestDto.class))).thenReturn(paymentFailedResponse);
+
+        assertThrows(ResponseStatusException.class, () -> orderService.createOrder(orderRequestDto, USER_EMAIL));
+
+        verify(catalogClient, times(1)).releaseStock(String.valueOf(ORDER_ID));
+    }
+
+    @Test
+    void updateOrderStatus_ShouldReleaseStock_WhenPaymentFailedEventArrives() {
+        when(repository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+        when(repository.save(any(Order.class))).thenReturn(order);
+
+        orderService.updateOrderStatus(ORDER_ID, "PAYMENT_FAILED");
+
+        verify(catalogClient, times(1)).releaseStock(String.valueOf(ORDER_ID));
+    }
+
+    @Test
+    void updateOrderStatus_ShouldConfirmStock_WhenPaymentCompletes() {
+        when(repository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+        when(repository.save(any(Order.class))).thenReturn(order);
+        when(catalogClient.confirmStock(String.valueOf(ORDER_ID))).thenThrow(new RuntimeException("Error HTTP 503"));
+
+        // Si la confirmacion falla el pedido sigue completado; la reserva caduca en catalog-service
+        orderService.updateOrderStatus(ORDER_ID, "COMPLETED");
+
+        verify(catalogClient, times(1)).confirmStock(String.valueOf(ORDER_ID));
+        verify(catalogClient, never()).releaseStock(any());
+    }
+
+    private static FeignException.Conflict conflict(String path) {
+        Request request = Request.create(Request.HttpMethod.POST, path, Map.of(), null, StandardCharsets.UTF_8, null);
+        return new FeignException.Conflict("Reserva caducada", request, null, Map.of());
+    }
+
+    @Test
+    void updateOrderStatus_ShouldReserveAgain_WhenReservationExpiredBeforePayment() {
+        when(repository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+        when(repository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(catalogClient.confirmStock(String.valueOf(ORDER_ID)))
+                .thenThrow(conflict("/api/v1/products/reservations/1/confirm"));
+
+        orderService.updateOrderStatus(ORDER_ID, "COMPLETED");
+
+        ArgumentCaptor<StockReservationRequestDto> reservation = ArgumentCaptor.forClass(StockReservationRequestDto.class);
+        verify(catalogClient, times(1)).reserveStock(eq(ORDER_ID + "-retry"), reservation.capture());
+        assertEquals(List.of(new StockItemDto(PRODUCT_ID, 2)), reservation.getValue().items());
+        verify(catalogClient, times(1)).confirmStock(ORDER_ID + "-retry");
+        assertEquals("COMPLETED", order.getStatus());
+    }
+
+    @Test
+    void updateOrderStatus_ShouldMarkStockConflict_WhenReservationExpiredAndStockIsGone() {
+        when(repository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+        when(repository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(catalogClient.confirmStock(String.valueOf(ORDER_ID)))
+                .thenThrow(conflict("/api/v1/products/reservations/1/confirm"));
+        when(catalogClient.reserveStock(eq(ORDER_ID + "-retry"), any(StockReservationRequestDto.class)))
+                .thenThrow(conflict("/api/v1/products/reservations/1-retry"));
+
+        orderService.updateOrderStatus(ORDER_ID, "COMPLETED");
+
+        // Pagado pero sin stock: no se da por completado
+        assertEquals(OrderService.STOCK_CONFLICT, order.getStatus());
+        verify(catalogClient, never()).confirmStock(ORDER_ID + "-retry");
+    }
+
     @Test
     void updateOrderStatus_ShouldUpdateStatusAndReturnUpdatedOrder() {
         String newStatus = "DELIVERED";
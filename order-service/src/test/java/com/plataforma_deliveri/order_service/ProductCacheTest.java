@@ -0,0 +1,163 @@
+package com.plataforma_deliveri.order_service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.plataforma_deliveri.order_service.dtos.ProductDto;
+import com.plataforma_deliveri.order_service.services.ProductCache;
+
+public class ProductCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile double catalogPrice = 10.0;
+    private volatile boolean catalogDown;
+
+    private ProductCache cache;
+
+    // catalog-service simulado: devuelve el precio actual o falla si esta caido
+    private final Function<List<String>, Map<String, ProductDto>> catalog = ids -> {
+        loads.incrementAndGet();
+        if (catalogDown) {
+            throw new IllegalStateException("catalog-service caido");
+        }
+        Map<String, ProductDto> products = new HashMap<>();
+        ids.forEach(id -> products.put(id, new ProductDto(id, "Producto " + id, null, catalogPrice, 5, null)));
+        return products;
+    };
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductCache(100, Duration.ofSeconds(30), Duration.ofMinutes(5), now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private double price(String id) {
+        return cache.getAll(List.of(id), catalog).get(id).price();
+    }
+
+    // El refresco en segundo plano es asincrono: se espera a que llegue al catalogo
+    private void awaitLoads(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (loads.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+    }
+
+    @Test
+    void getAll_ShouldServeFreshEntry_WithoutCallingCatalog() {
+        price("p1");
+        catalogPrice = 12.0;
+        advance(Duration.ofSeconds(10));
+
+        assertEquals(10.0, price("p1"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getAll_ShouldLoadOnlyMissingIds() {
+        price("p1");
+
+        Map<String, ProductDto> products = cache.getAll(List.of("p1", "p2"), ids -> {
+            assertEquals(List.of("p2"), ids);
+            return catalog.apply(ids);
+        });
+
+        assertEquals(2, products.size());
+    }
+
+    @Test
+    void getAll_ShouldServeStaleEntry_AndRefreshInBackground() throws InterruptedException {
+        price("p1");
+        catalogPrice = 12.0;
+        advance(Duration.ofSeconds(31));
+
+        assertEquals(10.0, price("p1"));
+        awaitLoads(2);
+
+        assertEquals(12.0, price("p1"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getAll_ShouldKeepServingStaleEntry_WhileCatalogIsDown() throws InterruptedException {
+        price("p1");
+        catalogDown = true;
+        advance(Duration.ofMinutes(2));
+
+        assertEquals(10.0, price("p1"));
+        awaitLoads(2);
+
+        assertEquals(10.0, price("p1"));
+    }
+
+    @Test
+    void getAll_ShouldNotServeEntry_OlderThanMaxStaleness() {
+        price("p1");
+        catalogDown = true;
+        advance(Duration.ofMinutes(6));
+
+        assertThrows(IllegalStateException.class, () -> price("p1"));
+    }
+
+    @Test
+    void invalidate_ShouldForceReload_OnNextLookup() {
+        price("p1");
+        catalogPrice = 12.0;
+
+        cache.invalidate("p1");
+
+        assertEquals(12.0, price("p1"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getAll_ShouldNotCacheLoad_ThatRacedWithInvalidation() {
+        cache.getAll(List.of("p1"), ids -> {
+            Map<String, ProductDto> products = catalog.apply(ids);
+            // El evento de cambio llega mientras la respuesta (ya vieja) va de camino
+            cache.invalidate("p1");
+            return products;
+        });
+        catalogPrice = 12.0;
+
+        assertEquals(12.0, price("p1"));
+    }
+
+    // Solo se descarta el producto invalidado: un evento de otro producto no vacia la carga entera
+    @Test
+    void getAll_ShouldKeepOtherProductsOfLoad_ThatRacedWithInvalidation() {
+        cache.getAll(List.of("p1", "p2"), ids -> {
+            Map<String, ProductDto> products = catalog.apply(ids);
+            cache.invalidate("p1");
+            return products;
+        });
+        catalogPrice = 12.0;
+
+        assertEquals(10.0, price("p2"));
+        assertEquals(12.0, price("p1"));
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,112 @@
+package com.plataforma_deliveri.order_service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.plataforma_deliveri.order_service.clients.IUsersServiceFeignClient;
+import com.plataforma_deliveri.order_service.dtos.UserBatchRequestDto;
+import com.plataforma_deliveri.order_service.dtos.UserDto;
+import com.plataforma_deliveri.order_service.dtos.UserLookupDto;
+import com.plataforma_deliveri.order_service.services.UserLookupBatcher;
+
+@ExtendWith(MockitoExtension.class)
+public class UserLookupBatcherTest {
+
+    private static final String SERVICE_TOKEN = "service.token.jwt";
+    private static final String SERVICE_AUTHORIZATION = "Bearer " + SERVICE_TOKEN;
+
+    @Mock
+    private IUsersServiceFeignClient usersClient;
+
+    private UserLookupBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+    }
+
+    private static UserLookupDto found(String email) {
+        return new UserLookupDto(email, 1L, true, new UserDto(1L, "Name " + email, email, "600000000"));
+    }
+
+    @Test
+    void lookup_ShouldCoalesceLookupsWithinWindow_IntoOneBatchCall() throws Exception {
+        batcher = new UserLookupBatcher(usersClient, Duration.ofMillis(50), 100, 2, SERVICE_TOKEN);
+        when(usersClient.lookupUsers(eq(SERVICE_AUTHORIZATION), any(UserBatchRequestDto.class))).thenReturn(List.of(
+                found("a@example.com"),
+                new UserLookupDto("missing@example.com", null, false, null)));
+
+        CompletableFuture<UserLookupDto> first = batcher.lookup("a@example.com");
+        CompletableFuture<UserLookupDto> second = batcher.lookup("missing@example.com");
+        CompletableFuture<UserLookupDto> duplicate = batcher.lookup("a@example.com");
+
+        assertEquals("Name a@example.com", first.get(1, TimeUnit.SECONDS).user().name());
+        assertFalse(second.get(1, TimeUnit.SECONDS).found());
+        assertTrue(duplicate.get(1, TimeUnit.SECONDS).found());
+
+        // Un unico lote con la credencial de servicio, sin emails repetidos
+        ArgumentCaptor<UserBatchRequestDto> request = ArgumentCaptor.forClass(UserBatchRequestDto.class);
+        verify(usersClient, times(1)).lookupUsers(eq(SERVICE_AUTHORIZATION), request.capture());
+        assertEquals(List.of("a@example.com", "missing@example.com"), request.getValue().emails());
+    }
+
+    @Test
+    void lookup_ShouldFlushImmediately_WhenBatchIsFull() throws Exception {
+        // Ventana muy larga: solo el tamano maximo puede disparar el envio
+        batcher = new UserLookupBatcher(usersClient, Duration.ofSeconds(30), 2, 2, SERVICE_TOKEN);
+        when(usersClient.lookupUsers(eq(SERVICE_AUTHORIZATION), any(UserBatchRequestDto.class)))
+                .thenReturn(List.of(found("a@example.com"), found("b@example.com")));
+
+        CompletableFuture<UserLookupDto> first = batcher.lookup("a@example.com");
+        CompletableFuture<UserLookupDto> second = batcher.lookup("b@example.com");
+
+        assertTrue(first.get(1, TimeUnit.SECONDS).found());
+        assertTrue(second.get(1, TimeUnit.SECONDS).found());
+    }
+
+    @Test
+    void lookup_ShouldFailEveryWaiter_WhenBatchCallFails() {
+        batcher = new UserLookupBatcher(usersClient, Duration.ofMillis(20), 100, 2, SERVICE_TOKEN);
+        when(usersClient.lookupUsers(eq(SERVICE_AUTHORIZATION), any(UserBatchRequestDto.class)))
+                .thenThrow(new RuntimeException("users-service caido"));
+
+        CompletableFuture<UserLookupDto> first = batcher.lookup("a@example.com");
+        CompletableFuture<UserLookupDto> second = batcher.lookup("b@example.com");
+
+        assertThrows(ExecutionException.class, () -> first.get(1, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void lookup_ShouldFailWithoutCallingUsersService_WhenServiceTokenIsMissing() {
+        batcher = new UserLookupBatcher(usersClient, Duration.ofMillis(20), 100, 2, "");
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> batcher.lookup("a@example.com").get(1, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        verifyNoInteractions(usersClient);
+    }
+}
@@ -2,8 +2,10 @@ package com.fran.users_service.app;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class UsersServiceApplication {
 
 	public static void main(String[] args) {
@@ -1,9 +1,14 @@
 package com.fran.users_service.app.config;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -12,6 +17,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.fran.users_service.app.services.JwtService;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.io.IOException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -26,6 +33,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    // true: la identidad sale de los claims (sub, rol) sin consultar la BD; los endpoints que
+    // necesitan la entidad User completa la cargan ellos mismos por email
+    @Value("${jwt.stateless-auth:true}")
+    private boolean statelessAuth;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
@@ -37,7 +49,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // CORRECCIÓN DEFINITIVA: Si es OPTIONS, Login/Register, o un GET a /travels, saltamos la validación.
         if (request.getMethod().equals(HttpMethod.OPTIONS.name()) ||
                 path.endsWith("/api/v1/users/login") ||
-                path.endsWith("/api/v1/users/register")) {
+                path.endsWith("/api/v1/users/register") ||
+                path.endsWith("/api/v1/users/refresh")) {
 
             // Permitimos que la cadena continúe, permitiendo que SecurityConfig aplique el 'permitAll()'.
             filterChain.doFilter(request, response);
@@ -55,11 +68,23 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        final String email = jwtService.extractEmail(jwt);
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
-            if (jwtService.validateToken(jwt, userDetails)) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Una sola verificacion de firma por peticion (JwtService cachea los claims ya verificados)
+            Claims claims;
+            try {
+                claims = jwtService.extractAllClaims(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
+                // Token invalido o caducado: sin autenticacion, Spring Security respondera 401/403
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            String email = claims.getSubject();
+            if (email != null) {
+                UserDetails userDetails = statelessAuth
+                        ? fromClaims(email, claims.get("rol", String.class))
+                        : this.userDetailsService.loadUserByUsername(email);
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -70,4 +95,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // El principal solo lleva email y rol: @AuthenticationPrincipal UserDetails#getUsername sigue siendo el email
+    private UserDetails fromClaims(String email, String rol) {
+        return User.withUsername(email)
+                .password("")
+                .authorities(rol == null ? List.of() : List.of(new SimpleGrantedAuthority("ROLE_" + rol)))
+                .build();
+    }
+}
@@ -1,8 +1,10 @@
 package com.fran.users_service.app.config;
 
+import java.time.Duration;
 import java.util.Arrays;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -18,8 +20,13 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
+
+import com.fran.users_service.app.services.BoundedPasswordEncoder;
 import com.fran.users_service.app.services.JpaUserDetailsService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -30,9 +37,16 @@ public class SecurityConfig {
     @Autowired
     private JpaUserDetailsService userDetailsService;
 
+    // BCrypt con coste configurable; subirlo rehashea cada password en su siguiente login (UserService.login)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+            @Value("${security.password-hashing.bcrypt-strength:10}") int strength,
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password-hashing.timeout:5s}") Duration timeout) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength),
+                BoundedPasswordEncoder.poolSize(threads, Runtime.getRuntime().availableProcessors()), queueCapacity,
+                timeout, meterRegistry);
     }
 
     @Bean
@@ -40,20 +54,30 @@ public class SecurityConfig {
         return http.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS).permitAll()
+                        // La peticion original ya se autorizo; el dispatch ASYNC solo termina de escribir (export NDJSON)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/v1/users/login",
-                                "/api/v1/users/register")
+                                "/api/v1/users/register",
+                                "/api/v1/users/refresh")
                         .permitAll()
+                        // Solo jtis de tokens ya revocados; el gateway no enruta /api/v1/security desde fuera
+                        .requestMatchers(HttpMethod.GET, "/api/v1/security/revocations").permitAll()
+                        // Listados completos de usuarios: solo administradores
+                        .requestMatchers(HttpMethod.GET, "/api/v1/users", "/api/v1/users/export", "/api/v1/users/findAll")
+                        .hasRole("ADMIN")
+                        // Nombre, email y telefono de hasta 100 usuarios por peticion: mismo criterio que los listados
+                        .requestMatchers(HttpMethod.POST, "/api/v1/users/batch").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -0,0 +1,22 @@
+package com.fran.users_service.app.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+@ConditionalOnProperty(name = "users.cache.kafka-invalidation.enabled", havingValue = "true")
+public class UserCacheKafkaConfig {
+
+    @Bean
+    public NewTopic usersCacheInvalidationTopic(
+            @Value("${users.cache.kafka-invalidation.topic:users-cache-invalidation}") String topic) {
+        return TopicBuilder.name(topic)
+            .partitions(1)
+            .replicas(1)
+            .build();
+    }
+}
@@ -1,9 +1,15 @@
 package com.fran.users_service.app.controllers;
 
+import java.time.Instant;
+import java.util.List;
+
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fran.users_service.app.dtos.RevokedTokenDto;
 import com.fran.users_service.app.services.JwtService;
+import com.fran.users_service.app.services.TokenRevocationService;
 
 import io.jsonwebtoken.Claims;
 
@@ -18,9 +24,11 @@ import org.springframework.web.bind.annotation.RequestHeader;
 public class SecurityController {
 
     private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
 
-    public SecurityController(JwtService jwtService) {
+    public SecurityController(JwtService jwtService, TokenRevocationService tokenRevocationService) {
         this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @GetMapping("/validate-token")
@@ -38,4 +46,12 @@ public class SecurityController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
+
+    // Revocaciones vigentes (sin since) o las hechas despues de since (ISO-8601), para el gateway
+    @GetMapping("/revocations")
+    public List<RevokedTokenDto> revocations(@RequestParam(required = false) Instant since) {
+        return tokenRevocationService.findActiveRevokedSince(since).stream()
+                .map(token -> new RevokedTokenDto(token.getJti(), token.getExpiresAt(), token.getRevokedAt()))
+                .toList();
+    }
 }
@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,18 +14,27 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.fran.users_service.app.dtos.AuthResponseDto;
 import com.fran.users_service.app.dtos.LoginRequestDto;
+import com.fran.users_service.app.dtos.RefreshRequestDto;
 import com.fran.users_service.app.dtos.RegisterRequestDto;
 import com.fran.users_service.app.dtos.UpdateUserDTO;
+import com.fran.users_service.app.dtos.UserBatchRequestDto;
 import com.fran.users_service.app.dtos.UserDTO;
+import com.fran.users_service.app.dtos.UserLookupDto;
+import com.fran.users_service.app.dtos.UserPageDto;
 import com.fran.users_service.app.models.User;
+import com.fran.users_service.app.services.JwtService;
+import com.fran.users_service.app.services.RefreshTokenService;
 import com.fran.users_service.app.services.UserService;
 
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -32,6 +43,12 @@ public class UserController {
     @Autowired
     private UserService service;
 
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @PostMapping("/register")
     public ResponseEntity<AuthResponseDto> register(@RequestBody RegisterRequestDto request) {
         return ResponseEntity.ok(service.register(request));
@@ -42,6 +59,26 @@ public class UserController {
         return ResponseEntity.ok(service.login(request));
     }
 
+    // Nuevo access token (y refresh token rotado) sin volver a comprobar la password
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponseDto> refresh(@RequestBody RefreshRequestDto request) {
+        return ResponseEntity.ok(refreshTokenService.refresh(request.refreshToken()));
+    }
+
+    // Revoca el token presentado (jti) hasta su expiracion y la sesion de refresh: la del refreshToken del
+    // cuerpo o, si no se envia, todas las del usuario
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestBody(required = false) RefreshRequestDto request) {
+        if (!authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().build();
+        }
+        jwtService.revokeToken(authHeader.substring(7));
+        refreshTokenService.revokeSession(userDetails.getUsername(), request == null ? null : request.refreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/profile")
     public ResponseEntity<User> profile(@AuthenticationPrincipal UserDetails userDetails) {
         return ResponseEntity.ok(service.getProfile(userDetails.getUsername()));
@@ -87,9 +124,32 @@ public class UserController {
         }
     }
 
+    // Obsoleto: carga la tabla entera. Usar GET /api/v1/users (paginado) o /export
+    @Deprecated
     @GetMapping("/findAll")
-    public ResponseEntity<List<User>> findAll() {
+    public ResponseEntity<List<UserDTO>> findAll() {
         return ResponseEntity.ok(service.findAll());
     }
 
+    // Listado paginado por cursor: ?after=<nextCursor de la pagina anterior>&size=
+    @GetMapping
+    public ResponseEntity<UserPageDto> listUsers(@RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(service.listUsers(after, size));
+    }
+
+    // Enriquecimiento entre servicios: hasta 100 emails o ids en una peticion (solo ADMIN, ver SecurityConfig)
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserLookupDto>> lookupUsers(@RequestBody UserBatchRequestDto request) {
+        return ResponseEntity.ok(service.lookupUsers(request));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = service::exportUsers;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
 }
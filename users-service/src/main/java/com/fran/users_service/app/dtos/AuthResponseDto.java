@@ -1,7 +1,16 @@
 package com.fran.users_service.app.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public record AuthResponseDto (
     String token,
     String email,
-    String rol
-) {}
+    String rol,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String refreshToken
+) {
+
+    public AuthResponseDto(String token, String email, String rol) {
+        this(token, email, rol, null);
+    }
+}
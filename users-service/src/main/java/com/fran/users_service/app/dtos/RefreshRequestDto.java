@@ -0,0 +1,5 @@
+package com.fran.users_service.app.dtos;
+
+public record RefreshRequestDto(
+    String refreshToken
+) {}
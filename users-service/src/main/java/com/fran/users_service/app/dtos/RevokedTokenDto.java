@@ -0,0 +1,10 @@
+package com.fran.users_service.app.dtos;
+
+import java.time.Instant;
+
+// Token revocado antes de su exp, para quien valida tokens por su cuenta (api-gateway)
+public record RevokedTokenDto(
+    String jti,
+    Instant expiresAt,
+    Instant revokedAt
+) {}
@@ -0,0 +1,9 @@
+package com.fran.users_service.app.dtos;
+
+import java.util.List;
+
+// Se busca por emails o por ids (uno de los dos)
+public record UserBatchRequestDto(
+    List<String> emails,
+    List<Long> ids
+) {}
@@ -0,0 +1,9 @@
+package com.fran.users_service.app.dtos;
+
+// Una entrada por clave pedida, en el mismo orden; found = false y user = null si no existe
+public record UserLookupDto(
+    String email,
+    Long id,
+    boolean found,
+    UserDTO user
+) {}
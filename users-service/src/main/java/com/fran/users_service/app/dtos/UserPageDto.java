@@ -0,0 +1,9 @@
+package com.fran.users_service.app.dtos;
+
+import java.util.List;
+
+// nextCursor = id del ultimo elemento; null si no hay mas paginas
+public record UserPageDto(
+    List<UserDTO> items,
+    Long nextCursor
+) {}
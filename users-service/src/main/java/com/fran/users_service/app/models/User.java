@@ -1,9 +1,14 @@
 package com.fran.users_service.app.models;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import jakarta.persistence.Column;
@@ -13,14 +18,19 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
+// Cache de segundo nivel: la entidad por id (region "users") y la resolucion email -> id ("users-by-email")
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-email")
 public class User implements UserDetails {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // El email se puede cambiar (updatedUser), por eso es un natural id mutable
+    @NaturalId(mutable = true)
     @Column(unique = true)
     private String email;
 
@@ -89,11 +99,10 @@ public class User implements UserDetails {
                 + ", rol=" + rol + "]";
     }
 
-        @Override
+    // Mismo formato que el principal creado desde los claims (JwtAuthFilter): ROLE_<rol>
+    @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // En una implementación más avanzada, devolverías los roles del usuario.
-        // Por ahora, devolvemos una lista vacía.
-        return Collections.emptyList();
+        return rol == null ? List.of() : List.of(new SimpleGrantedAuthority("ROLE_" + rol));
     }
 
 
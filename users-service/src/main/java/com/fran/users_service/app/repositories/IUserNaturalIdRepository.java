@@ -0,0 +1,16 @@
+package com.fran.users_service.app.repositories;
+
+import java.util.Optional;
+
+import com.fran.users_service.app.models.User;
+
+// Busquedas por email resueltas como natural id de Hibernate: pasan por la cache de segundo nivel
+// en lugar de lanzar un SELECT ... WHERE email = ? en cada llamada
+public interface IUserNaturalIdRepository {
+
+    Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    Optional<Long> findIdByEmail(String email);
+}
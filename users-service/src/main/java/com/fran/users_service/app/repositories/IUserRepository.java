@@ -1,24 +1,53 @@
 package com.fran.users_service.app.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import com.fran.users_service.app.dtos.UserDTO;
 import com.fran.users_service.app.models.User;
 
 @Repository
-public interface IUserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
-
-    boolean existsByEmail(String email);
+public interface IUserRepository extends JpaRepository<User, Long>, IUserNaturalIdRepository {
 
+    // Cache de consultas (region users-query); cualquier escritura en users invalida los resultados
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "users-query")
+    })
     @Query("SELECT new com.fran.users_service.app.dtos.UserDTO(u.id, u.name, u.email, u.phone) FROM User u WHERE u.email = :email")
     Optional<UserDTO> findUserDTOByEmail(@Param("email") String email);
 
-    @Query("SELECT u.id FROM User u WHERE u.email = :email")
-    Optional<Long> findIdByEmail(@Param("email") String email);
+    @Query("SELECT new com.fran.users_service.app.dtos.UserDTO(u.id, u.name, u.email, u.phone) FROM User u WHERE u.email IN :emails")
+    List<UserDTO> findUserDTOsByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT new com.fran.users_service.app.dtos.UserDTO(u.id, u.name, u.email, u.phone) FROM User u WHERE u.id IN :ids")
+    List<UserDTO> findUserDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.fran.users_service.app.dtos.UserDTO(u.id, u.name, u.email, u.phone) FROM User u ORDER BY u.id")
+    List<UserDTO> findAllUserDTOs();
+
+    // Keyset: "id > cursor" usa el indice de la PK, el coste no crece con la pagina como con OFFSET
+    @Query("SELECT new com.fran.users_service.app.dtos.UserDTO(u.id, u.name, u.email, u.phone) FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserDTO> findUserDTOsAfter(@Param("afterId") Long afterId, Pageable page);
+
+    // Cursor JDBC con fetch size fijo para exportar toda la tabla en memoria constante (requiere transaccion)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.fran.users_service.app.dtos.UserDTO(u.id, u.name, u.email, u.phone) FROM User u ORDER BY u.id")
+    Stream<UserDTO> streamAllUserDTOs();
 }
@@ -0,0 +1,62 @@
+package com.fran.users_service.app.services;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter de tamano fijo para claves String, seguro para lecturas concurrentes sin locks.
+// mightContain = false es definitivo; true obliga a confirmar contra el conjunto exacto.
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int bitMask;
+    private final int hashFunctions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        // m = -n ln(p) / ln(2)^2 redondeado a potencia de 2 (indice con mascara, sin divisiones); k = m/n ln(2)
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int bitCount = (int) Math.min(1L << 30, Long.highestOneBit(Math.max(64, m - 1)) << 1);
+        this.bitMask = bitCount - 1;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray(bitCount / 64);
+    }
+
+    public void put(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            int bit = index(h1 + i * h2);
+            bits.getAndAccumulate(bit >>> 6, 1L << bit, (current, mask) -> current | mask);
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            int bit = index(h1 + i * h2);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int combinedHash) {
+        // Double hashing (Kirsch-Mitzenmacher): k posiciones a partir de dos hashes
+        return combinedHash & bitMask;
+    }
+
+    // String cachea su hashCode, asi que el mismo jti (claims cacheados en JwtService) no se vuelve a recorrer;
+    // se expande a 64 bits con el finalizador de MurmurHash3
+    private static long hash64(String key) {
+        long hash = key.hashCode() * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -12,9 +12,11 @@ import com.fran.users_service.app.repositories.IUserRepository;
 public class JpaUserDetailsService implements UserDetailsService {
         @Autowired
     private IUserRepository repository;
+    @Autowired
+    private UserCache userCache;
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return repository.findByEmail(email)
+        return userCache.getUser(email, repository::findByEmail)
                          .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
 }
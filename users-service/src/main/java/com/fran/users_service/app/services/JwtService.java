@@ -1,31 +1,143 @@
 package com.fran.users_service.app.services;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey; // debe estar en base64
+    private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     @Value("${jwt.expiration}") // en milisegundos
     private long jwtExpiration;
 
-    // 🔑 Convierte el secret en una Key segura
-    private Key getSigningKey() {
-        byte[] keyBytes = Base64.getDecoder().decode(secretKey);
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    @Value("${jwt.claims-cache.max-ttl:60s}")
+    private Duration claimsCacheMaxTtl;
+
+    // 🔑 Claves ya decodificadas; se sustituye entera al rotar (jwt.keys / jwt.active-kid)
+    private volatile KeyRing keyRing;
+
+    // Parser thread-safe construido una vez: la clave se elige por el kid de cada token
+    private JwtParser parser;
+
+    // Claims de tokens ya verificados, para no repetir HMAC + JSON varias veces en la misma peticion
+    private Cache<String, Claims> claimsCache;
+
+    @PostConstruct
+    public void init() {
+        this.keyRing = loadKeyRing();
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyRing.verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        return ttlNanos(claims);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime,
+                            long currentDuration) {
+                        return ttlNanos(claims);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // Rotacion sin reinicio: tras /actuator/refresh (o config server) se recargan las claves
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith("jwt."))) {
+            return;
+        }
+        try {
+            this.keyRing = loadKeyRing();
+            // Un kid retirado no debe seguir validando desde la cache
+            claimsCache.invalidateAll();
+            logger.info("Claves JWT recargadas, kid activo: {}", keyRing.activeKid());
+        } catch (RuntimeException e) {
+            logger.error("Configuracion de claves JWT invalida, se mantienen las anteriores: {}", e.getMessage());
+        }
+    }
+
+    // jwt.secret: clave de siempre (tokens sin kid). jwt.keys: kid -> secret en base64; jwt.active-kid firma.
+    private KeyRing loadKeyRing() {
+        Key legacyKey = toKey(environment.getRequiredProperty("jwt.secret"));
+        Map<String, Key> keys = new HashMap<>();
+        Binder.get(environment)
+                .bind("jwt.keys", Bindable.mapOf(String.class, String.class))
+                .orElseGet(Map::of)
+                .forEach((kid, secret) -> keys.put(kid, toKey(secret)));
+
+        String activeKid = environment.getProperty("jwt.active-kid");
+        if (activeKid == null || activeKid.isBlank()) {
+            return new KeyRing(null, legacyKey, Map.copyOf(keys), legacyKey);
+        }
+        Key activeKey = keys.get(activeKid);
+        if (activeKey == null) {
+            throw new IllegalStateException("jwt.active-kid '" + activeKid + "' no esta en jwt.keys");
+        }
+        return new KeyRing(activeKid, activeKey, Map.copyOf(keys), legacyKey);
+    }
+
+    // 🔑 Convierte el secret (base64) en una Key segura
+    private static Key toKey(String secret) {
+        byte[] keyBytes = Base64.getDecoder().decode(secret.trim());
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
@@ -37,20 +149,26 @@ public class JwtService {
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+        KeyRing ring = keyRing;
+        var builder = Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject) // email
+                .setId(UUID.randomUUID().toString()) // jti, para poder revocarlo
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256) // ✅ forma actual
+                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration));
+        if (ring.activeKid() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, ring.activeKid());
+        }
+        return builder
+                .signWith(ring.activeKey(), SignatureAlgorithm.HS256) // ✅ forma actual
                 .compact();
     }
 
     // Validar token contra usuario
-public boolean validateToken(String token, UserDetails userDetails) {
-    final String userEmail = extractEmail(token);
-    return (userEmail.equals(userDetails.getUsername())) && !isTokenExpired(token);
-}
+    public boolean validateToken(String token, UserDetails userDetails) {
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
+    }
 
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -69,27 +187,58 @@ public boolean validateToken(String token, UserDetails userDetails) {
         return claimsResolver.apply(claims);
     }
 
+    // Solo se cachean tokens cuya firma ya se ha verificado; la entrada caduca con el propio token.
+    // La revocacion se comprueba siempre, tambien con los claims cacheados.
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = claimsCache.getIfPresent(token);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            claimsCache.put(token, claims);
+        }
+        if (tokenRevocationService.isRevoked(claims.getId())) {
+            throw new JwtException("Token revocado");
+        }
+        return claims;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Logout: el token deja de ser valido aunque no haya caducado
+    public void revokeToken(String token) {
+        Claims claims = extractAllClaims(token);
+        if (claims.getId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Token sin jti, no se puede revocar");
+        }
+        tokenRevocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
     }
 
     public boolean isTokenValid(String token){
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
+            extractAllClaims(token);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
+
+    private long ttlNanos(Claims claims) {
+        long maxTtl = claimsCacheMaxTtl.toNanos();
+        if (claims.getExpiration() == null) {
+            return maxTtl;
+        }
+        long millisLeft = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return Math.max(0, Math.min(maxTtl, Duration.ofMillis(millisLeft).toNanos()));
+    }
+
+    private record KeyRing(String activeKid, Key activeKey, Map<String, Key> keys, Key legacyKey) {
+
+        Key verificationKey(String kid) {
+            if (kid == null) {
+                return legacyKey;
+            }
+            Key key = keys.get(kid);
+            if (key == null) {
+                throw new JwtException("Clave de firma desconocida: " + kid);
+            }
+            return key;
+        }
+    }
 }
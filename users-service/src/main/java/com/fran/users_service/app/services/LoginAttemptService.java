@@ -0,0 +1,141 @@
+package com.fran.users_service.app.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+
+// Frena el credential stuffing antes de tocar la BD o BCrypt: cuenta los logins fallidos por email y por IP
+// en una ventana deslizante. Memoria acotada (max-keys) y los contadores sin actividad caducan solos.
+@Component
+public class LoginAttemptService {
+
+    private final Cache<String, SlidingWindowCounter> counters;
+    private final long windowNanos;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+    private final List<IpAddressMatcher> trustedProxies;
+    private final Counter rejectedCounter;
+
+    public LoginAttemptService(MeterRegistry meterRegistry,
+            @Value("${security.login-throttle.window:5m}") Duration window,
+            @Value("${security.login-throttle.max-failures-per-email:5}") int maxFailuresPerEmail,
+            @Value("${security.login-throttle.max-failures-per-ip:50}") int maxFailuresPerIp,
+            @Value("${security.login-throttle.max-keys:100000}") long maxKeys,
+            @Value("${security.login-throttle.trusted-proxies:127.0.0.1/32,::1/128}") List<String> trustedProxies) {
+        this.windowNanos = window.toNanos();
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(cidr -> !cidr.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        // Pasadas dos ventanas sin fallos el contador vale 0: se puede descartar
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .recordStats()
+                .build();
+        this.rejectedCounter = Counter.builder("users.login.throttled")
+                .description("Logins rechazados con 429 por exceso de intentos fallidos")
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, counters, "users.login.attempts");
+    }
+
+    public void checkAllowed(String email) {
+        long now = System.nanoTime();
+        String ip = currentClientIp();
+        if (exceeded(emailKey(email), maxFailuresPerEmail, now)
+                || (ip != null && exceeded("ip:" + ip, maxFailuresPerIp, now))) {
+            rejectedCounter.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many failed login attempts");
+        }
+    }
+
+    public void recordFailure(String email) {
+        long now = System.nanoTime();
+        counter(emailKey(email), now).increment(now);
+        String ip = currentClientIp();
+        if (ip != null) {
+            counter("ip:" + ip, now).increment(now);
+        }
+    }
+
+    // Un login correcto limpia el email, no la IP (una IP de ataque puede acertar alguna cuenta)
+    public void recordSuccess(String email) {
+        SlidingWindowCounter counter = counters.getIfPresent(emailKey(email));
+        if (counter != null) {
+            counter.reset(System.nanoTime());
+        }
+    }
+
+    private boolean exceeded(String key, int maxFailures, long now) {
+        SlidingWindowCounter counter = counters.getIfPresent(key);
+        return counter != null && counter.estimate(now) >= maxFailures;
+    }
+
+    private SlidingWindowCounter counter(String key, long now) {
+        return counters.get(key, k -> new SlidingWindowCounter(windowNanos, now));
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    // Detras del gateway la IP del cliente viene en X-Forwarded-For (el gateway anade al final la que ve).
+    // Solo se lee si la conexion llega de un proxy de confianza (trusted-proxies); se recorre de derecha a
+    // izquierda saltando los proxies de confianza, asi un valor inventado por el cliente a la izquierda no cuenta
+    private String currentClientIp() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String remoteAddr = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (!isTrustedProxy(remoteAddr) || forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddr;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !isTrustedProxy(hop)) {
+                return hop;
+            }
+        }
+        return remoteAddr;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        if (address == null) {
+            return false;
+        }
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // Valor que no es una IP (cabecera mal formada): no es un proxy de confianza
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,136 @@
+package com.fran.users_service.app.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fran.users_service.app.dtos.AuthResponseDto;
+import com.fran.users_service.app.models.RefreshToken;
+import com.fran.users_service.app.models.User;
+import com.fran.users_service.app.repositories.IRefreshTokenRepository;
+import com.fran.users_service.app.repositories.IUserRepository;
+
+// Renovacion de access tokens sin BCrypt: el refresh token es aleatorio (256 bits), asi que basta un SHA-256
+// y una busqueda por indice unico. Cada uso lo rota; presentar uno ya rotado revoca toda la sesion.
+// El rol del nuevo access token se lee del usuario actual, no del que tenia al iniciar la sesion.
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private IRefreshTokenRepository repository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Value("${jwt.refresh-expiration:14d}")
+    private Duration refreshExpiration;
+
+    // Nueva sesion (login / register)
+    public String issue(String email, String rol) {
+        return issue(email, rol, UUID.randomUUID().toString());
+    }
+
+    // noRollbackFor: la revocacion de la familia tiene que quedar guardada aunque se responda 401
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public AuthResponseDto refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token invalido");
+        }
+
+        RefreshToken stored = repository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token invalido"));
+
+        Instant now = Instant.now();
+        if (stored.isRevoked() || stored.getExpiresAt().isBefore(now)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token caducado o revocado");
+        }
+
+        if (repository.markUsed(stored.getId(), now) == 0) {
+            // Ya se habia usado: alguien tiene una copia robada (o el cliente la reenvio). Se corta la sesion.
+            repository.revokeFamily(stored.getFamilyId());
+            logger.warn("Reutilizacion de refresh token detectada para {}, sesion revocada", stored.getUserEmail());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token ya utilizado");
+        }
+
+        User user = userRepository.findByEmail(stored.getUserEmail()).orElse(null);
+        if (user == null) {
+            repository.revokeFamily(stored.getFamilyId());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "El usuario ya no existe");
+        }
+
+        String accessToken = jwtService.generateToken(user.getEmail(), user.getRol());
+        String nextRefreshToken = issue(user.getEmail(), user.getRol(), stored.getFamilyId());
+        return new AuthResponseDto(accessToken, user.getEmail(), user.getRol(), nextRefreshToken);
+    }
+
+    // Logout: corta la sesion del refresh token presentado (si es del usuario) o, sin el, todas las suyas
+    @Transactional
+    public void revokeSession(String email, String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            revokeAll(email);
+            return;
+        }
+        repository.findByTokenHash(hash(refreshToken))
+                .filter(stored -> stored.getUserEmail().equals(email))
+                .ifPresent(stored -> repository.revokeFamily(stored.getFamilyId()));
+    }
+
+    public void revokeAll(String email) {
+        int revoked = repository.revokeAllForUser(email);
+        logger.debug("Refresh tokens de {} revocados: {}", email, revoked);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-prune-interval:PT1H}")
+    public void pruneExpired() {
+        int deleted = repository.deleteExpired(Instant.now());
+        logger.debug("Refresh tokens caducados borrados: {}", deleted);
+    }
+
+    private String issue(String email, String rol, String familyId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken entity = new RefreshToken();
+        entity.setTokenHash(hash(token));
+        entity.setFamilyId(familyId);
+        entity.setUserEmail(email);
+        entity.setRol(rol);
+        entity.setExpiresAt(Instant.now().plus(refreshExpiration));
+        repository.save(entity);
+        return token;
+    }
+
+    // Sin sal ni coste: el token ya tiene 256 bits de entropia, no se puede atacar por diccionario
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.fran.users_service.app.services;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Contador de ventana deslizante aproximada (ventana actual + anterior ponderada), sin locks:
+// el estado es inmutable y se sustituye con CAS.
+public class SlidingWindowCounter {
+
+    private record State(long windowStart, int previous, int current) {
+    }
+
+    private final long windowNanos;
+    private final AtomicReference<State> state;
+
+    public SlidingWindowCounter(long windowNanos, long nowNanos) {
+        this.windowNanos = windowNanos;
+        this.state = new AtomicReference<>(new State(nowNanos, 0, 0));
+    }
+
+    public void increment(long nowNanos) {
+        State prev;
+        State next;
+        do {
+            prev = state.get();
+            State rolled = roll(prev, nowNanos);
+            next = new State(rolled.windowStart(), rolled.previous(), rolled.current() + 1);
+        } while (!state.compareAndSet(prev, next));
+    }
+
+    // previous * (parte de la ventana anterior que aun cae dentro de la deslizante) + current
+    public double estimate(long nowNanos) {
+        State current = roll(state.get(), nowNanos);
+        double elapsed = (double) (nowNanos - current.windowStart()) / windowNanos;
+        return current.previous() * Math.max(0, 1 - elapsed) + current.current();
+    }
+
+    public void reset(long nowNanos) {
+        state.set(new State(nowNanos, 0, 0));
+    }
+
+    private State roll(State s, long nowNanos) {
+        long windows = (nowNanos - s.windowStart()) / windowNanos;
+        if (windows <= 0) {
+            return s;
+        }
+        int previous = windows == 1 ? s.current() : 0;
+        return new State(s.windowStart() + windows * windowNanos, previous, 0);
+    }
+}
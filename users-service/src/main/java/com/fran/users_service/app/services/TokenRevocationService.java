@@ -0,0 +1,112 @@
+package com.fran.users_service.app.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fran.users_service.app.models.RevokedToken;
+import com.fran.users_service.app.repositories.IRevokedTokenRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Lista de tokens revocados (por jti) hasta su exp. La comprobacion en cada validacion no toca la BD:
+// primero el Bloom filter (casi siempre "no esta") y solo si da positivo el conjunto exacto en memoria.
+// Las demas replicas se enteran leyendo periodicamente las revocaciones nuevas de revoked_tokens; el gateway,
+// que valida los tokens en local, las lee de GET /api/v1/security/revocations (findActiveRevokedSince).
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Autowired
+    private IRevokedTokenRepository repository;
+
+    @Value("${jwt.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    @Value("${jwt.revocation.poll-interval:PT5S}")
+    private Duration pollInterval;
+
+    // jti -> exp
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    // Se sustituye entero al podar (un Bloom filter no admite borrados)
+    private volatile BloomFilter bloomFilter;
+
+    private volatile Instant lastPoll = Instant.EPOCH;
+
+    @PostConstruct
+    public void init() {
+        this.bloomFilter = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+        Instant now = Instant.now();
+        repository.findByExpiresAtAfter(now).forEach(this::addLocal);
+        this.lastPoll = now;
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        Instant expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        RevokedToken token = repository.save(new RevokedToken(jti, expiresAt, Instant.now()));
+        addLocal(token);
+    }
+
+    // Sin since: todas las que siguen vigentes (arranque del consumidor). Con since: las revocadas despues
+    public List<RevokedToken> findActiveRevokedSince(Instant since) {
+        Instant now = Instant.now();
+        return since == null
+                ? repository.findByExpiresAtAfter(now)
+                : repository.findByRevokedAtAfterAndExpiresAtAfter(since, now);
+    }
+
+    // Revocaciones hechas en otras replicas. Se solapa con la lectura anterior para no perder
+    // filas por desfase de reloj; volver a anadir un jti es idempotente.
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval:PT5S}")
+    public void pollRevocations() {
+        Instant now = Instant.now();
+        Instant since = lastPoll.minus(pollInterval.multipliedBy(2));
+        repository.findByRevokedAtAfterAndExpiresAtAfter(since, now).forEach(this::addLocal);
+        this.lastPoll = now;
+    }
+
+    // Poda los caducados y reconstruye el filtro con los que quedan
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval:PT10M}")
+    public void pruneExpired() {
+        Instant now = Instant.now();
+        synchronized (this) {
+            revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2L),
+                    FALSE_POSITIVE_RATE);
+            revoked.keySet().forEach(rebuilt::put);
+            this.bloomFilter = rebuilt;
+        }
+        int deleted = repository.deleteExpired(now);
+        logger.debug("Revocaciones caducadas podadas: {} en BD, {} activas", deleted, revoked.size());
+    }
+
+    // Primero el conjunto exacto y luego el filtro: quien vea el bit ya encuentra el jti en el mapa.
+    // Sincronizado con la poda para no perder un jti anadido mientras se reconstruye el filtro.
+    private synchronized void addLocal(RevokedToken token) {
+        revoked.put(token.getJti(), token.getExpiresAt());
+        bloomFilter.put(token.getJti());
+    }
+}
@@ -0,0 +1,90 @@
+package com.fran.users_service.app.services;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.fran.users_service.app.dtos.UserDTO;
+import com.fran.users_service.app.models.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Cache en memoria de lecturas por email (User, UserDTO e id), que cambian muy poco.
+// Las escrituras de UserService invalidan de forma sincrona; el ttl acota lo desfasadas que pueden
+// estar otras replicas si no se activa la invalidacion por Kafka (UserCacheBroadcaster).
+@Component
+public class UserCache {
+
+    private final Cache<String, User> usersByEmail;
+    private final Cache<String, UserDTO> profilesByEmail;
+    private final Cache<String, Long> idsByEmail;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserCache(MeterRegistry meterRegistry, ApplicationEventPublisher eventPublisher,
+            @Value("${users.cache.max-size:10000}") long maxSize,
+            @Value("${users.cache.ttl:5m}") Duration ttl) {
+        this.eventPublisher = eventPublisher;
+        this.usersByEmail = newCache(maxSize, ttl);
+        this.profilesByEmail = newCache(maxSize, ttl);
+        this.idsByEmail = newCache(maxSize, ttl);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByEmail, "users.by-email");
+        CaffeineCacheMetrics.monitor(meterRegistry, profilesByEmail, "users.profiles.by-email");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users.ids.by-email");
+    }
+
+    private static <V> Cache<String, V> newCache(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Los "no encontrado" no se cachean: un registro nuevo es visible al momento
+    public Optional<User> getUser(String email, Function<String, Optional<User>> loader) {
+        return Optional.ofNullable(usersByEmail.get(email, key -> loader.apply(key).orElse(null)));
+    }
+
+    public Optional<UserDTO> getProfile(String email, Function<String, Optional<UserDTO>> loader) {
+        return Optional.ofNullable(profilesByEmail.get(email, key -> loader.apply(key).orElse(null)));
+    }
+
+    public Optional<Long> getId(String email, Function<String, Optional<Long>> loader) {
+        return Optional.ofNullable(idsByEmail.get(email, key -> loader.apply(key).orElse(null)));
+    }
+
+    // Invalida en esta replica y avisa al resto (si hay un broadcaster escuchando el evento)
+    public void invalidate(String... emails) {
+        Set<String> keys = Arrays.stream(emails)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+        if (keys.isEmpty()) {
+            return;
+        }
+        invalidateLocal(keys);
+        eventPublisher.publishEvent(new Invalidated(keys));
+    }
+
+    // Invalidacion recibida de otra replica: no se vuelve a publicar
+    public void invalidateLocal(Collection<String> emails) {
+        usersByEmail.invalidateAll(emails);
+        profilesByEmail.invalidateAll(emails);
+        idsByEmail.invalidateAll(emails);
+    }
+
+    public record Invalidated(Set<String> emails) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.fran.users_service.app.services;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import com.fran.users_service.app.models.User;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+// Propaga las invalidaciones de UserCache al resto de replicas de users-service.
+// Cada replica consume con su propio group-id para recibir todos los mensajes; clave = replica que invalida.
+// El group-id es estable entre reinicios (instance-id, por defecto host-puerto) para no dejar en el broker un
+// grupo huerfano por cada arranque.
+// La cache de segundo nivel de Hibernate tambien es local a cada replica: al recibir una invalidacion se
+// vacian las regiones de User (entidad, natural id y consultas). Los cambios de usuario son raros y el
+// mensaje solo lleva emails, asi que se vacia la region entera en lugar de buscar ids en una cache desfasada.
+@Component
+@ConditionalOnProperty(name = "users.cache.kafka-invalidation.enabled", havingValue = "true")
+public class UserCacheBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheBroadcaster.class);
+
+    @Value("${users.cache.kafka-invalidation.instance-id:}")
+    private String instanceId;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${users.cache.kafka-invalidation.topic:users-cache-invalidation}")
+    private String topic;
+
+    @PostConstruct
+    public void init() {
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = hostName() + "-" + serverPort;
+        }
+        logger.info("Invalidaciones de cache con instance-id {}", instanceId);
+    }
+
+    // Lo usa el group-id del @KafkaListener
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @EventListener
+    public void onInvalidated(UserCache.Invalidated event) {
+        kafkaTemplate.send(topic, instanceId, String.join(",", event.emails()));
+    }
+
+    @KafkaListener(topics = "${users.cache.kafka-invalidation.topic:users-cache-invalidation}",
+            groupId = "users-service-cache-#{__listener.instanceId}")
+    public void handleInvalidation(@Payload String emails, @Header(KafkaHeaders.RECEIVED_KEY) String origin) {
+        if (origin != null && origin.equals(instanceId)) {
+            return;
+        }
+        logger.debug("Invalidacion de cache recibida de {}: {}", origin, emails);
+        userCache.invalidateLocal(Arrays.asList(emails.split(",")));
+        evictSecondLevelCache();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            // Sin nombre de host no hay id estable: un grupo por arranque como mal menor
+            logger.warn("No se pudo resolver el nombre del host, se usa un instance-id aleatorio");
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    private void evictSecondLevelCache() {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(User.class);
+        cache.evictNaturalIdData(User.class);
+        cache.evictQueryRegions();
+    }
+}
@@ -1,23 +1,43 @@
 package com.fran.users_service.app.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.fran.users_service.app.dtos.AuthResponseDto;
 import com.fran.users_service.app.dtos.LoginRequestDto;
 import com.fran.users_service.app.dtos.RegisterRequestDto;
 import com.fran.users_service.app.dtos.UpdateUserDTO;
+import com.fran.users_service.app.dtos.UserBatchRequestDto;
 import com.fran.users_service.app.dtos.UserDTO;
+import com.fran.users_service.app.dtos.UserLookupDto;
+import com.fran.users_service.app.dtos.UserPageDto;
 import com.fran.users_service.app.models.User;
 import com.fran.users_service.app.repositories.IUserRepository;
 
 @Service
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 100;
+
     @Autowired
     private IUserRepository repository;
 
@@ -27,8 +47,79 @@ public class UserService {
     @Autowired
     private JwtService jwtService;
 
-    public List<User> findAll() {
-        return repository.findAll();
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private LoginAttemptService loginAttemptService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Sin password ni rol; para tablas grandes usar listUsers o exportUsers
+    @Deprecated
+    public List<UserDTO> findAll() {
+        return repository.findAllUserDTOs();
+    }
+
+    public UserPageDto listUsers(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Se pide uno de mas para saber si hay pagina siguiente sin hacer un COUNT
+        List<UserDTO> rows = repository.findUserDTOsAfter(after == null ? 0L : after, PageRequest.of(0, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new UserPageDto(rows, null);
+        }
+        List<UserDTO> items = rows.subList(0, pageSize);
+        return new UserPageDto(List.copyOf(items), items.get(pageSize - 1).getId());
+    }
+
+    // Una sola consulta IN para todo el lote; la respuesta respeta el orden pedido y marca los que faltan
+    public List<UserLookupDto> lookupUsers(UserBatchRequestDto request) {
+        List<String> emails = request.emails() == null ? List.of() : request.emails();
+        List<Long> ids = request.ids() == null ? List.of() : request.ids();
+        if (emails.isEmpty() == ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indica emails o ids (solo uno de los dos)");
+        }
+        if (emails.size() + ids.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Maximo " + MAX_BATCH_SIZE + " usuarios por lote");
+        }
+
+        if (!emails.isEmpty()) {
+            Map<String, UserDTO> byEmail = repository.findUserDTOsByEmailIn(new HashSet<>(emails)).stream()
+                    .collect(Collectors.toMap(UserDTO::getEmail, Function.identity()));
+            return emails.stream()
+                    .map(email -> toLookup(email, null, byEmail.get(email)))
+                    .toList();
+        }
+
+        Map<Long, UserDTO> byId = repository.findUserDTOsByIdIn(new HashSet<>(ids)).stream()
+                .collect(Collectors.toMap(UserDTO::getId, Function.identity()));
+        return ids.stream()
+                .map(id -> toLookup(null, id, byId.get(id)))
+                .toList();
+    }
+
+    private static UserLookupDto toLookup(String email, Long id, UserDTO user) {
+        if (user == null) {
+            return new UserLookupDto(email, id, false, null);
+        }
+        return new UserLookupDto(user.getEmail(), user.getId(), true, user);
+    }
+
+    // NDJSON: una linea por usuario segun se leen del cursor, sin cargar la tabla en memoria
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream out) throws IOException {
+        try (Stream<UserDTO> users = repository.streamAllUserDTOs()) {
+            Iterator<UserDTO> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+            }
+        }
+        out.flush();
     }
 
     public AuthResponseDto register(RegisterRequestDto request) {
@@ -45,36 +136,59 @@ public class UserService {
         User userSaved = repository.save(user);
 
         String token = jwtService.generateToken(userSaved.getEmail(), userSaved.getRol());
-        return new AuthResponseDto(token, userSaved.getEmail(), userSaved.getRol());
+        String refreshToken = refreshTokenService.issue(userSaved.getEmail(), userSaved.getRol());
+        return new AuthResponseDto(token, userSaved.getEmail(), userSaved.getRol(), refreshToken);
     }
 
     public AuthResponseDto login(LoginRequestDto request) {
-        User user = repository.findByEmail(request.email())
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        // Antes de la BD y de BCrypt: un email o IP con demasiados fallos no cuesta CPU
+        loginAttemptService.checkAllowed(request.email());
+
+        User user = repository.findByEmail(request.email()).orElse(null);
+        if (user == null) {
+            loginAttemptService.recordFailure(request.email());
+            throw new RuntimeException("Usuario no encontrado");
+        }
 
         if (!passwordEncoder.matches(request.password(), user.getPassword())) {
+            loginAttemptService.recordFailure(request.email());
             throw new RuntimeException("Usuario o contraseña incorrectos");
         }
+        loginAttemptService.recordSuccess(request.email());
+
+        // Rehash transparente: si el coste de BCrypt configurado ha subido, se actualiza el hash ahora
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(request.password()));
+            repository.save(user);
+            userCache.invalidate(user.getEmail());
+        }
 
         String token = jwtService.generateToken(user.getEmail(), user.getRol());
-        return new AuthResponseDto(token, user.getEmail(), user.getRol());
+        String refreshToken = refreshTokenService.issue(user.getEmail(), user.getRol());
+        return new AuthResponseDto(token, user.getEmail(), user.getRol(), refreshToken);
     }
 
     public User getProfile(String email) {
-        return repository.findByEmail(email).orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        return userCache.getUser(email, repository::findByEmail)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
     }
 
     public UserDTO getProfileByEmail(String email) {
-        return repository.findUserDTOByEmail(email).orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        return userCache.getProfile(email, repository::findUserDTOByEmail)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
     }
 
     public void deleteUser(Long id) {
         User user = repository.findById(id).orElseThrow(() -> new RuntimeException("El user no existe"));
         repository.delete(user);
+        userCache.invalidate(user.getEmail());
+        refreshTokenService.revokeAll(user.getEmail());
     }
 
     public User updatedUser(Long id, User updatedUser) {
         User existingUser = repository.findById(id).orElseThrow(() -> new RuntimeException("El user no existe"));
+        // Si cambia el email hay que invalidar tambien la clave antigua
+        String previousEmail = existingUser.getEmail();
 
         existingUser.setName(updatedUser.getName());
         existingUser.setEmail(updatedUser.getEmail());
@@ -82,7 +196,11 @@ public class UserService {
         existingUser.setRol(updatedUser.getRol());
         existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
 
-        return repository.save(existingUser);
+        User saved = repository.save(existingUser);
+        userCache.invalidate(previousEmail, existingUser.getEmail());
+        // Siempre cambia la password (y puede que el rol o el email): las sesiones abiertas dejan de valer
+        refreshTokenService.revokeAll(previousEmail);
+        return saved;
     }
 
     public User updateUserProfile(Long userIdFromToken, UpdateUserDTO updateDto) {
@@ -102,10 +220,15 @@ public class UserService {
             existingUser.setPassword(passwordEncoder.encode(updateDto.getNewPassword()));
         }
 
-        return repository.save(existingUser);
+        User saved = repository.save(existingUser);
+        userCache.invalidate(existingUser.getEmail());
+        if (updateDto.getNewPassword() != null && !updateDto.getNewPassword().isBlank()) {
+            refreshTokenService.revokeAll(existingUser.getEmail());
+        }
+        return saved;
     }
 
     public Optional<Long> findIdByEmail(String email) {
-        return repository.findIdByEmail(email);
+        return userCache.getId(email, repository::findIdByEmail);
     }
 }
@@ -0,0 +1,108 @@
+package com.fran.users_service.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fran.users_service.app.services.BoundedPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    // Encoder que bloquea hasta que el test lo libera, para llenar el pool
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash";
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    };
+
+    @Test
+    void encode_ShouldDelegateToBCrypt() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4,
+                Duration.ofSeconds(5), meterRegistry);
+
+        String hash = encoder.encode("password123");
+
+        assertTrue(encoder.matches("password123", hash));
+        assertFalse(encoder.matches("otra", hash));
+        assertEquals(1, meterRegistry.get("users.password.hash.duration").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void encode_ShouldReject503_WhenPoolAndQueueAreFull() throws Exception {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blockingEncoder, 1, 1,
+                Duration.ofSeconds(5), meterRegistry);
+
+        // Uno ocupa el hilo y otro la unica plaza de la cola
+        callers.submit(() -> encoder.encode("a"));
+        callers.submit(() -> encoder.encode("b"));
+        Thread.sleep(200);
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, () -> encoder.encode("c"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatusCode());
+        assertEquals(1.0, meterRegistry.get("users.password.hash.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("users.password.hash.queue").gauge().value());
+    }
+
+    @Test
+    void encode_ShouldReject503_WhenWaitExceedsTimeout() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blockingEncoder, 1, 4,
+                Duration.ofMillis(100), meterRegistry);
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, () -> encoder.encode("a"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatusCode());
+    }
+
+    @Test
+    void upgradeEncoding_ShouldDetectLowerBCryptCost() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password123");
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1,
+                Duration.ofSeconds(5), meterRegistry);
+
+        assertTrue(encoder.upgradeEncoding(weakHash));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password123")));
+    }
+
+    @Test
+    void poolSize_ShouldDefaultToHalfTheCpus_AtLeastOne() {
+        assertEquals(4, BoundedPasswordEncoder.poolSize(0, 8));
+        assertEquals(1, BoundedPasswordEncoder.poolSize(0, 1));
+        assertEquals(3, BoundedPasswordEncoder.poolSize(3, 8));
+    }
+}
@@ -0,0 +1,137 @@
+package com.fran.users_service.app;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fran.users_service.app.config.JwtAuthFilter;
+import com.fran.users_service.app.models.User;
+import com.fran.users_service.app.repositories.IRevokedTokenRepository;
+import com.fran.users_service.app.repositories.IUserRepository;
+import com.fran.users_service.app.services.JwtService;
+import com.fran.users_service.app.services.TokenRevocationService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Benchmark de la autenticacion de POST /api/v1/users/profile en JwtAuthFilter (no se ejecuta en el build normal):
+//   mvn test -Dtest=JwtAuthFilterBenchmarkTest -Dusers.benchmark=true
+// Peticiones/s del filtro con la identidad sacada de los claims frente a cargar el usuario en cada peticion,
+// con y sin la cache de segundo nivel. La BD es H2 en memoria: con PostgreSQL en red la diferencia es mayor.
+// Solo informa, sin umbral.
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "users.benchmark", matches = "true")
+public class JwtAuthFilterBenchmarkTest {
+
+    private static final String SECRET = "bXlfc3VwZXJfc2VjcmV0X2tleV9mb3Jfanp3dF9pbl9iYXNlNjQ=";
+    private static final String TEST_EMAIL = "test@example.com";
+    private static final int ITERATIONS = 20_000;
+
+    @Autowired
+    private IUserRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private JwtService jwtService;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("Test User");
+        user.setEmail(TEST_EMAIL);
+        user.setPhone("600000000");
+        user.setPassword("hash");
+        repository.save(user);
+
+        IRevokedTokenRepository revokedTokens = mock(IRevokedTokenRepository.class);
+        when(revokedTokens.findByExpiresAtAfter(any())).thenReturn(List.of());
+        TokenRevocationService tokenRevocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(tokenRevocationService, "repository", revokedTokens);
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "pollInterval", Duration.ofSeconds(5));
+        tokenRevocationService.init();
+
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "environment", new MockEnvironment().withProperty("jwt.secret", SECRET));
+        ReflectionTestUtils.setField(jwtService, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxTtl", Duration.ofSeconds(60));
+        jwtService.init();
+        token = jwtService.generateToken(TEST_EMAIL, "USER");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        repository.deleteAll();
+    }
+
+    private JwtAuthFilter filter(boolean statelessAuth, UserDetailsService userDetailsService) {
+        JwtAuthFilter filter = new JwtAuthFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "statelessAuth", statelessAuth);
+        return filter;
+    }
+
+    private long requestsPerSecond(JwtAuthFilter filter) throws Exception {
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            authenticate(filter);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            authenticate(filter);
+        }
+        return ITERATIONS * 1_000_000_000L / (System.nanoTime() - start);
+    }
+
+    private void authenticate(JwtAuthFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/users/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            throw new IllegalStateException("peticion sin autenticar");
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void benchmark_StatelessVsDatabaseLookup() throws Exception {
+        org.hibernate.Cache secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        UserDetailsService fromDatabase = email -> {
+            secondLevelCache.evictAllRegions();
+            return repository.findByEmail(email).orElseThrow();
+        };
+        UserDetailsService fromSecondLevelCache = email -> repository.findByEmail(email).orElseThrow();
+
+        long database = requestsPerSecond(filter(false, fromDatabase));
+        long cached = requestsPerSecond(filter(false, fromSecondLevelCache));
+        long stateless = requestsPerSecond(filter(true, fromDatabase));
+
+        System.out.printf("JwtAuthFilter peticiones/s: findByEmail en BD %d, findByEmail con cache L2 %d, "
+                + "stateless %d%n", database, cached, stateless);
+    }
+}
@@ -0,0 +1,109 @@
+package com.fran.users_service.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fran.users_service.app.config.JwtAuthFilter;
+import com.fran.users_service.app.models.User;
+import com.fran.users_service.app.services.JwtService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthFilterTest {
+
+    private static final String TEST_EMAIL = "test@example.com";
+    private static final String TOKEN = "test.token.jwt";
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @InjectMocks
+    private JwtAuthFilter jwtAuthFilter;
+
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("POST", "/api/v1/users/profile");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        ReflectionTestUtils.setField(jwtAuthFilter, "statelessAuth", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Claims claims(String rol) {
+        Claims claims = Jwts.claims().setSubject(TEST_EMAIL).setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        claims.put("rol", rol);
+        return claims;
+    }
+
+    @Test
+    void doFilter_ShouldAuthenticateFromClaims_WithoutLoadingUser() throws Exception {
+        when(jwtService.extractAllClaims(TOKEN)).thenReturn(claims("ADMIN"));
+
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(TEST_EMAIL, ((UserDetails) auth.getPrincipal()).getUsername());
+        assertTrue(auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+        verify(jwtService, times(1)).extractAllClaims(TOKEN);
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void doFilter_ShouldLoadUser_WhenStatelessAuthIsDisabled() throws Exception {
+        ReflectionTestUtils.setField(jwtAuthFilter, "statelessAuth", false);
+        User user = new User();
+        user.setEmail(TEST_EMAIL);
+        when(jwtService.extractAllClaims(TOKEN)).thenReturn(claims("USER"));
+        when(userDetailsService.loadUserByUsername(TEST_EMAIL)).thenReturn(user);
+
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+
+    @Test
+    void doFilter_ShouldContinueUnauthenticated_WhenTokenIsInvalid() throws Exception {
+        when(jwtService.extractAllClaims(TOKEN)).thenThrow(new MalformedJwtException("bad token"));
+        MockFilterChain chain = new MockFilterChain();
+
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(request, chain.getRequest());
+    }
+}
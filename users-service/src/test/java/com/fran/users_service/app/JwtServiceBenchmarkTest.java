@@ -0,0 +1,129 @@
+package com.fran.users_service.app;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fran.users_service.app.repositories.IRevokedTokenRepository;
+import com.fran.users_service.app.services.JwtService;
+import com.fran.users_service.app.services.TokenRevocationService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+// Benchmark de JwtService (no se ejecuta en el build normal):
+//   mvn test -Dtest=JwtServiceBenchmarkTest -Dusers.benchmark=true
+// "antes" reproduce el JwtService original: la clave se decodifica y el parser se construye en cada llamada,
+// y validateToken parseaba el token dos veces (extractEmail + isTokenExpired). Solo informa, sin umbral.
+@EnabledIfSystemProperty(named = "users.benchmark", matches = "true")
+public class JwtServiceBenchmarkTest {
+
+    private static final String SECRET = "bXlfc3VwZXJfc2VjcmV0X2tleV9mb3Jfanp3dF9pbl9iYXNlNjQ=";
+    private static final String TEST_EMAIL = "test@example.com";
+    private static final long EXPIRATION = 3_600_000L;
+    private static final int ITERATIONS = 200_000;
+    private static final int DISTINCT_TOKENS = 10_000;
+
+    private final UserDetails user = User.withUsername(TEST_EMAIL).password("x").roles("USER").build();
+    private JwtService jwtService;
+    private String[] tokens;
+
+    @BeforeEach
+    void setUp() {
+        IRevokedTokenRepository revokedTokens = mock(IRevokedTokenRepository.class);
+        when(revokedTokens.findByExpiresAtAfter(any())).thenReturn(List.of());
+        TokenRevocationService tokenRevocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(tokenRevocationService, "repository", revokedTokens);
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "pollInterval", Duration.ofSeconds(5));
+        tokenRevocationService.init();
+
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "environment", new MockEnvironment().withProperty("jwt.secret", SECRET));
+        ReflectionTestUtils.setField(jwtService, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", EXPIRATION);
+        // Claims cacheados para la mitad de los tokens distintos: la otra mitad verifica la firma siempre
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxSize", (long) DISTINCT_TOKENS / 2);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxTtl", Duration.ofSeconds(60));
+        jwtService.init();
+
+        tokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = jwtService.generateToken(TEST_EMAIL, "USER");
+        }
+    }
+
+    // --- JwtService original ---
+
+    private static Key legacySigningKey() {
+        return Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET));
+    }
+
+    private static String legacyGenerate(String email, String rol) {
+        return Jwts.builder()
+                .setClaims(Map.of("rol", rol))
+                .setSubject(email)
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
+                .signWith(legacySigningKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder().setSigningKey(legacySigningKey()).build().parseClaimsJws(token).getBody();
+    }
+
+    private static boolean legacyValidate(String token, UserDetails userDetails) {
+        String email = legacyClaims(token).getSubject();
+        return email.equals(userDetails.getUsername()) && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    // ---
+
+    private static long opsPerSecond(IntPredicate operation) {
+        int ok = 0;
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            ok += operation.test(i) ? 1 : 0;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            ok += operation.test(i) ? 1 : 0;
+        }
+        long nanos = System.nanoTime() - start;
+        if (ok == 0) {
+            throw new IllegalStateException("ninguna operacion ha tenido exito");
+        }
+        return ITERATIONS * 1_000_000_000L / nanos;
+    }
+
+    @Test
+    void benchmark_GenerateAndValidate_BeforeAndAfter() {
+        long generateBefore = opsPerSecond(i -> legacyGenerate(TEST_EMAIL, "USER") != null);
+        long generateAfter = opsPerSecond(i -> jwtService.generateToken(TEST_EMAIL, "USER") != null);
+        long validateBefore = opsPerSecond(i -> legacyValidate(tokens[i % DISTINCT_TOKENS], user));
+        long validateAfter = opsPerSecond(i -> jwtService.validateToken(tokens[i % DISTINCT_TOKENS], user));
+        long validateSameToken = opsPerSecond(i -> jwtService.validateToken(tokens[0], user));
+
+        System.out.printf("JwtService ops/s: generate antes %d, despues %d | validate antes %d, despues %d "
+                + "(mismo token repetido %d)%n",
+                generateBefore, generateAfter, validateBefore, validateAfter, validateSameToken);
+    }
+}
@@ -0,0 +1,152 @@
+package com.fran.users_service.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fran.users_service.app.services.JwtService;
+import com.fran.users_service.app.services.TokenRevocationService;
+
+import io.jsonwebtoken.Claims;
+
+public class JwtServiceTest {
+
+    private static final String TEST_EMAIL = "test@example.com";
+    private static final String LEGACY_SECRET = "bXlfc3VwZXJfc2VjcmV0X2tleV9mb3Jfanp3dF9pbl9iYXNlNjQ=";
+    private static final String KEY_2024 = secret("clave-2024-de-al-menos-32-bytes!!");
+    private static final String KEY_2025 = secret("clave-2025-de-al-menos-32-bytes!!");
+
+    private MockEnvironment environment;
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+    private JwtService jwtService;
+
+    private static String secret(String raw) {
+        return Base64.getEncoder().encodeToString(raw.getBytes());
+    }
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment().withProperty("jwt.secret", LEGACY_SECRET);
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "environment", environment);
+        ReflectionTestUtils.setField(jwtService, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxTtl", Duration.ofSeconds(60));
+        jwtService.init();
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+    }
+
+    private void rotate(String activeKid) {
+        environment.setProperty("jwt.keys.k2024", KEY_2024);
+        environment.setProperty("jwt.keys.k2025", KEY_2025);
+        environment.setProperty("jwt.active-kid", activeKid);
+        jwtService.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("jwt.active-kid")));
+    }
+
+    @Test
+    void generateToken_ShouldBeReadableWithoutKid_WhenNoKeyRingConfigured() {
+        String token = jwtService.generateToken(TEST_EMAIL, "USER");
+
+        assertTrue(jwtService.isTokenValid(token));
+        assertEquals(TEST_EMAIL, jwtService.extractEmail(token));
+        assertEquals("USER", jwtService.extractRol(token));
+    }
+
+    @Test
+    void extractAllClaims_ShouldReuseVerifiedClaims_ForSameToken() {
+        String token = jwtService.generateToken(TEST_EMAIL, "USER");
+
+        Claims first = jwtService.extractAllClaims(token);
+        Claims second = jwtService.extractAllClaims(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void isTokenValid_ShouldRejectTamperedToken() {
+        String token = jwtService.generateToken(TEST_EMAIL, "USER");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertFalse(jwtService.isTokenValid(tampered));
+    }
+
+    @Test
+    void rotation_ShouldSignWithActiveKid_AndKeepAcceptingOldTokens() {
+        String legacyToken = jwtService.generateToken(TEST_EMAIL, "USER");
+
+        rotate("k2024");
+        String token2024 = jwtService.generateToken(TEST_EMAIL, "USER");
+        rotate("k2025");
+        String token2025 = jwtService.generateToken(TEST_EMAIL, "USER");
+
+        assertTrue(jwtService.isTokenValid(legacyToken));
+        assertTrue(jwtService.isTokenValid(token2024));
+        assertTrue(jwtService.isTokenValid(token2025));
+        assertTrue(header(token2025).contains("\"kid\":\"k2025\""));
+    }
+
+    @Test
+    void rotation_ShouldRejectTokensOfRetiredKid() {
+        rotate("k2024");
+        String token2024 = jwtService.generateToken(TEST_EMAIL, "USER");
+        assertTrue(jwtService.isTokenValid(token2024));
+
+        MockEnvironment withoutOldKey = new MockEnvironment()
+                .withProperty("jwt.secret", LEGACY_SECRET)
+                .withProperty("jwt.keys.k2025", KEY_2025)
+                .withProperty("jwt.active-kid", "k2025");
+        ReflectionTestUtils.setField(jwtService, "environment", withoutOldKey);
+        jwtService.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("jwt.keys.k2024")));
+
+        assertFalse(jwtService.isTokenValid(token2024));
+    }
+
+    @Test
+    void rotation_ShouldKeepPreviousKeys_WhenActiveKidIsMissing() {
+        environment.setProperty("jwt.active-kid", "no-existe");
+        jwtService.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("jwt.active-kid")));
+
+        String token = jwtService.generateToken(TEST_EMAIL, "USER");
+
+        assertTrue(jwtService.isTokenValid(token));
+        assertFalse(header(token).contains("kid"));
+    }
+
+    @Test
+    void isTokenValid_ShouldRejectRevokedToken_EvenWhenClaimsAreCached() {
+        String token = jwtService.generateToken(TEST_EMAIL, "USER");
+        Claims claims = jwtService.extractAllClaims(token);
+
+        when(tokenRevocationService.isRevoked(claims.getId())).thenReturn(true);
+
+        assertFalse(jwtService.isTokenValid(token));
+    }
+
+    @Test
+    void revokeToken_ShouldRevokeJtiUntilExpiration() {
+        String token = jwtService.generateToken(TEST_EMAIL, "USER");
+        Claims claims = jwtService.extractAllClaims(token);
+
+        jwtService.revokeToken(token);
+
+        verify(tokenRevocationService).revoke(claims.getId(), claims.getExpiration().toInstant());
+    }
+}
@@ -0,0 +1,211 @@
+package com.fran.users_service.app;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fran.users_service.app.services.LoginAttemptService;
+import com.fran.users_service.app.services.SlidingWindowCounter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LoginAttemptServiceTest {
+
+    private static final long WINDOW = TimeUnit.MINUTES.toNanos(5);
+
+    // El gateway llega desde 10.0.0.1
+    private final LoginAttemptService loginAttemptService = new LoginAttemptService(new SimpleMeterRegistry(),
+            Duration.ofMinutes(5), 3, 10, 1000, List.of("10.0.0.0/24"));
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static void fromIp(String forwardedFor) {
+        from("10.0.0.1", forwardedFor);
+    }
+
+    private static void from(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/users/login");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @Test
+    void slidingWindow_ShouldWeightPreviousWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 0);
+        for (int i = 0; i < 10; i++) {
+            counter.increment(0);
+        }
+
+        // A mitad de la ventana siguiente solo cuenta la mitad de la anterior
+        assertEquals(5.0, counter.estimate(WINDOW + WINDOW / 2), 0.001);
+        // Dos ventanas despues ya no queda nada
+        assertEquals(0.0, counter.estimate(2 * WINDOW + 1), 0.001);
+    }
+
+    @Test
+    void checkAllowed_ShouldReject_WhenEmailReachesMaxFailures() {
+        for (int i = 0; i < 3; i++) {
+            loginAttemptService.checkAllowed("victim@example.com");
+            loginAttemptService.recordFailure("victim@example.com");
+        }
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> loginAttemptService.checkAllowed("Victim@Example.com "));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, error.getStatusCode());
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("other@example.com"));
+    }
+
+    @Test
+    void checkAllowed_ShouldReject_WhenIpReachesMaxFailuresAcrossEmails() {
+        fromIp("203.0.113.7, 192.168.1.10");
+        for (int i = 0; i < 10; i++) {
+            loginAttemptService.recordFailure("user" + i + "@example.com");
+        }
+
+        assertThrows(ResponseStatusException.class, () -> loginAttemptService.checkAllowed("new@example.com"));
+
+        // Otra IP (ultimo salto distinto) no se ve afectada
+        fromIp("203.0.113.7, 192.168.1.11");
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("new@example.com"));
+    }
+
+    // Todo llega por el gateway: cada cliente tiene su contador, los fallos de uno no bloquean al resto
+    @Test
+    void checkAllowed_ShouldCountPerClient_WhenRequestsComeThroughTheGateway() {
+        for (int i = 0; i < 10; i++) {
+            from("10.0.0.1", "198.51.100.7");
+            loginAttemptService.recordFailure("user" + i + "@example.com");
+        }
+
+        from("10.0.0.1", "198.51.100.7");
+        assertThrows(ResponseStatusException.class, () -> loginAttemptService.checkAllowed("new@example.com"));
+        from("10.0.0.1", "198.51.100.8");
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("new@example.com"));
+    }
+
+    // Lo que el cliente escribe a la izquierda de X-Forwarded-For no cambia su IP
+    @Test
+    void checkAllowed_ShouldIgnoreClientSuppliedHops() {
+        for (int i = 0; i < 10; i++) {
+            from("10.0.0.1", "192.0.2." + i + ", 198.51.100.7");
+            loginAttemptService.recordFailure("user" + i + "@example.com");
+        }
+
+        from("10.0.0.1", "192.0.2.99, 198.51.100.7");
+        assertThrows(ResponseStatusException.class, () -> loginAttemptService.checkAllowed("new@example.com"));
+    }
+
+    // Conexion directa (no desde un proxy de confianza): X-Forwarded-For no se cree y cuenta la IP de la conexion
+    @Test
+    void checkAllowed_ShouldIgnoreForwardedFor_WhenPeerIsNotATrustedProxy() {
+        for (int i = 0; i < 10; i++) {
+            from("203.0.113.50", "198.51.100." + i);
+            loginAttemptService.recordFailure("user" + i + "@example.com");
+        }
+
+        from("203.0.113.50", "198.51.100.99");
+        assertThrows(ResponseStatusException.class, () -> loginAttemptService.checkAllowed("new@example.com"));
+    }
+
+    @Test
+    void recordSuccess_ShouldClearEmailFailures() {
+        loginAttemptService.recordFailure("user@example.com");
+        loginAttemptService.recordFailure("user@example.com");
+        loginAttemptService.recordSuccess("user@example.com");
+        loginAttemptService.recordFailure("user@example.com");
+        loginAttemptService.recordFailure("user@example.com");
+
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("user@example.com"));
+    }
+
+    @Test
+    void recordFailure_ShouldCountEveryAttempt_UnderContention() throws Exception {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, System.nanoTime());
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    counter.increment(System.nanoTime());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(counter.estimate(System.nanoTime()) >= 8000);
+    }
+
+    // Prueba de carga reducida: durante un ataque sobre una cuenta, tras max-failures los intentos se rechazan
+    // sin pasar por BCrypt y el login legitimo de otra cuenta no se ve afectado
+    @Test
+    void attackOnOneAccount_ShouldBeThrottledWithoutBcrypt_AndNotBlockOtherAccounts() throws Exception {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        String victimHash = encoder.encode("secret-victim");
+        String userHash = encoder.encode("secret-user");
+        AtomicLong hashedAttempts = new AtomicLong();
+        AtomicLong throttledAttempts = new AtomicLong();
+
+        AtomicBoolean attacking = new AtomicBoolean(true);
+        Thread[] attackers = new Thread[8];
+        for (int t = 0; t < attackers.length; t++) {
+            attackers[t] = new Thread(() -> {
+                while (attacking.get()) {
+                    try {
+                        loginAttemptService.checkAllowed("victim@example.com");
+                        hashedAttempts.incrementAndGet();
+                        encoder.matches("guess", victimHash);
+                        loginAttemptService.recordFailure("victim@example.com");
+                    } catch (ResponseStatusException throttled) {
+                        throttledAttempts.incrementAndGet();
+                    }
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            });
+            attackers[t].start();
+        }
+
+        try {
+            Thread.sleep(200);
+            for (int i = 0; i < 15; i++) {
+                assertDoesNotThrow(() -> loginAttemptService.checkAllowed("user@example.com"));
+                assertTrue(encoder.matches("secret-user", userHash));
+                loginAttemptService.recordSuccess("user@example.com");
+            }
+        } finally {
+            attacking.set(false);
+            for (Thread attacker : attackers) {
+                attacker.join();
+            }
+        }
+
+        // Como mucho max-failures mas las carreras de los hilos que pasaron el check a la vez
+        assertTrue(hashedAttempts.get() <= 3 + attackers.length, "intentos con BCrypt: " + hashedAttempts.get());
+        assertTrue(throttledAttempts.get() > 0);
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> loginAttemptService.checkAllowed("victim@example.com"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, error.getStatusCode());
+    }
+}
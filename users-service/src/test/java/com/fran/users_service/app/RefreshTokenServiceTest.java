@@ -0,0 +1,188 @@
+package com.fran.users_service.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fran.users_service.app.dtos.AuthResponseDto;
+import com.fran.users_service.app.models.RefreshToken;
+import com.fran.users_service.app.models.User;
+import com.fran.users_service.app.repositories.IRefreshTokenRepository;
+import com.fran.users_service.app.repositories.IUserRepository;
+import com.fran.users_service.app.services.JwtService;
+import com.fran.users_service.app.services.RefreshTokenService;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    private static final String TEST_EMAIL = "test@example.com";
+
+    @Mock
+    private IRefreshTokenRepository repository;
+
+    @Mock
+    private IUserRepository userRepository;
+
+    @Mock
+    private JwtService jwtService;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    // "BD" en memoria: hash -> fila guardada
+    private final Map<String, RefreshToken> stored = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpiration", Duration.ofDays(14));
+        lenient().when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            token.setId((long) stored.size() + 1);
+            stored.put(token.getTokenHash(), token);
+            return token;
+        });
+    }
+
+    private void userWithRole(String rol) {
+        User user = new User();
+        user.setEmail(TEST_EMAIL);
+        user.setRol(rol);
+        when(userRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(user));
+    }
+
+    private void lookupsHitStore() {
+        when(repository.findByTokenHash(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.<String>getArgument(0))));
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyTheHash() {
+        String token = refreshTokenService.issue(TEST_EMAIL, "USER");
+
+        RefreshToken saved = stored.values().iterator().next();
+        assertNotEquals(token, saved.getTokenHash());
+        assertEquals(64, saved.getTokenHash().length());
+        assertEquals(TEST_EMAIL, saved.getUserEmail());
+    }
+
+    @Test
+    void refresh_ShouldMintAccessToken_AndRotateRefreshToken() {
+        lookupsHitStore();
+        String token = refreshTokenService.issue(TEST_EMAIL, "USER");
+        when(repository.markUsed(anyLong(), any())).thenReturn(1);
+        userWithRole("USER");
+        when(jwtService.generateToken(TEST_EMAIL, "USER")).thenReturn("new.token.jwt");
+
+        AuthResponseDto response = refreshTokenService.refresh(token);
+
+        assertEquals("new.token.jwt", response.token());
+        assertNotEquals(token, response.refreshToken());
+        // El nuevo token pertenece a la misma sesion
+        assertEquals(1, stored.values().stream().map(RefreshToken::getFamilyId).distinct().count());
+    }
+
+    @Test
+    void refresh_ShouldUseCurrentRole_NotTheOneFromLogin() {
+        lookupsHitStore();
+        String token = refreshTokenService.issue(TEST_EMAIL, "ADMIN");
+        when(repository.markUsed(anyLong(), any())).thenReturn(1);
+        userWithRole("USER");
+        when(jwtService.generateToken(TEST_EMAIL, "USER")).thenReturn("new.token.jwt");
+
+        AuthResponseDto response = refreshTokenService.refresh(token);
+
+        assertEquals("USER", response.rol());
+        verify(jwtService, never()).generateToken(TEST_EMAIL, "ADMIN");
+    }
+
+    @Test
+    void refresh_ShouldRevokeFamily_WhenUserNoLongerExists() {
+        lookupsHitStore();
+        String token = refreshTokenService.issue(TEST_EMAIL, "USER");
+        String familyId = stored.values().iterator().next().getFamilyId();
+        when(repository.markUsed(anyLong(), any())).thenReturn(1);
+        when(userRepository.findByEmail(TEST_EMAIL)).thenReturn(Optional.empty());
+
+        assertThrows(ResponseStatusException.class, () -> refreshTokenService.refresh(token));
+
+        verify(repository, times(1)).revokeFamily(familyId);
+        verify(jwtService, never()).generateToken(anyString(), anyString());
+    }
+
+    @Test
+    void revokeSession_ShouldRevokeOnlyFamilyOfPresentedToken_WhenItBelongsToUser() {
+        lookupsHitStore();
+        String token = refreshTokenService.issue(TEST_EMAIL, "USER");
+        String familyId = stored.values().iterator().next().getFamilyId();
+
+        refreshTokenService.revokeSession("otro@example.com", token);
+        verify(repository, never()).revokeFamily(anyString());
+
+        refreshTokenService.revokeSession(TEST_EMAIL, token);
+        verify(repository, times(1)).revokeFamily(familyId);
+        verify(repository, never()).revokeAllForUser(anyString());
+    }
+
+    @Test
+    void revokeSession_ShouldRevokeAllSessions_WhenNoRefreshTokenIsSent() {
+        refreshTokenService.revokeSession(TEST_EMAIL, null);
+
+        verify(repository, times(1)).revokeAllForUser(TEST_EMAIL);
+    }
+
+    @Test
+    void refresh_ShouldRevokeFamily_WhenTokenIsReused() {
+        lookupsHitStore();
+        String token = refreshTokenService.issue(TEST_EMAIL, "USER");
+        String familyId = stored.values().iterator().next().getFamilyId();
+        when(repository.markUsed(anyLong(), any())).thenReturn(0);
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> refreshTokenService.refresh(token));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, error.getStatusCode());
+        verify(repository, times(1)).revokeFamily(familyId);
+        verify(jwtService, never()).generateToken(anyString(), anyString());
+    }
+
+    @Test
+    void refresh_ShouldReject_WhenTokenIsExpired() {
+        lookupsHitStore();
+        String token = refreshTokenService.issue(TEST_EMAIL, "USER");
+        stored.values().iterator().next().setExpiresAt(Instant.now().minusSeconds(1));
+
+        assertThrows(ResponseStatusException.class, () -> refreshTokenService.refresh(token));
+        verify(repository, never()).markUsed(anyLong(), any());
+    }
+
+    @Test
+    void refresh_ShouldReject_WhenTokenIsUnknown() {
+        when(repository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(ResponseStatusException.class, () -> refreshTokenService.refresh("no-existe"));
+    }
+}
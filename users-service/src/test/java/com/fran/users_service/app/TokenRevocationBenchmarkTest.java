@@ -0,0 +1,65 @@
+package com.fran.users_service.app;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fran.users_service.app.models.RevokedToken;
+import com.fran.users_service.app.repositories.IRevokedTokenRepository;
+import com.fran.users_service.app.services.TokenRevocationService;
+
+// Benchmark de isRevoked (no se ejecuta en el build normal):
+//   mvn test -Dtest=TokenRevocationBenchmarkTest -Dusers.benchmark=true
+// El caso comun (token no revocado) solo deberia pagar el Bloom filter; solo informa, sin umbral.
+@EnabledIfSystemProperty(named = "users.benchmark", matches = "true")
+public class TokenRevocationBenchmarkTest {
+
+    private static final int ITERATIONS = 5_000_000;
+
+    @Test
+    void benchmark_IsRevoked_ForNonRevokedTokens() {
+        IRevokedTokenRepository repository = mock(IRevokedTokenRepository.class);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(
+                IntStream.range(0, 100_000)
+                        .mapToObj(i -> new RevokedToken(UUID.randomUUID().toString(),
+                                Instant.now().plusSeconds(3600), Instant.now()))
+                        .toList());
+
+        TokenRevocationService service = new TokenRevocationService();
+        ReflectionTestUtils.setField(service, "repository", repository);
+        ReflectionTestUtils.setField(service, "expectedRevocations", 100_000L);
+        ReflectionTestUtils.setField(service, "pollInterval", Duration.ofSeconds(5));
+        service.init();
+        service.pollRevocations();
+
+        String[] jtis = new String[1024];
+        for (int i = 0; i < jtis.length; i++) {
+            jtis[i] = UUID.randomUUID().toString();
+        }
+
+        // Calentamiento del JIT
+        int hits = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            hits += service.isRevoked(jtis[i & 1023]) ? 1 : 0;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            hits += service.isRevoked(jtis[i & 1023]) ? 1 : 0;
+        }
+        long nanosPerCheck = (System.nanoTime() - start) / ITERATIONS;
+
+        System.out.printf("isRevoked con 100000 revocados: %d ns/comprobacion (%d revocados)%n", nanosPerCheck, hits);
+    }
+}
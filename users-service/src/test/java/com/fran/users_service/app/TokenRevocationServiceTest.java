@@ -0,0 +1,117 @@
+package com.fran.users_service.app;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fran.users_service.app.models.RevokedToken;
+import com.fran.users_service.app.repositories.IRevokedTokenRepository;
+import com.fran.users_service.app.services.TokenRevocationService;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    @Mock
+    private IRevokedTokenRepository repository;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "pollInterval", Duration.ofSeconds(5));
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        tokenRevocationService.init();
+    }
+
+    @Test
+    void revoke_ShouldMarkJtiAsRevoked_AndPersistIt() {
+        String jti = UUID.randomUUID().toString();
+        when(repository.save(any(RevokedToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        tokenRevocationService.revoke(jti, Instant.now().plusSeconds(3600));
+
+        assertTrue(tokenRevocationService.isRevoked(jti));
+        assertFalse(tokenRevocationService.isRevoked(UUID.randomUUID().toString()));
+        verify(repository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void pollRevocations_ShouldPickUpRevocationsFromOtherReplicas() {
+        String jti = UUID.randomUUID().toString();
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(new RevokedToken(jti, Instant.now().plusSeconds(3600), Instant.now())));
+
+        tokenRevocationService.pollRevocations();
+
+        assertTrue(tokenRevocationService.isRevoked(jti));
+    }
+
+    @Test
+    void findActiveRevokedSince_ShouldReturnAllActive_WhenSinceIsMissing() {
+        Instant since = Instant.now().minusSeconds(10);
+
+        tokenRevocationService.findActiveRevokedSince(null);
+        tokenRevocationService.findActiveRevokedSince(since);
+
+        verify(repository, times(2)).findByExpiresAtAfter(any());
+        verify(repository).findByRevokedAtAfterAndExpiresAtAfter(eq(since), any());
+    }
+
+    @Test
+    void pruneExpired_ShouldForgetExpiredRevocations() {
+        String expired = UUID.randomUUID().toString();
+        String active = UUID.randomUUID().toString();
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(List.of(
+                new RevokedToken(expired, Instant.now().plusMillis(50), Instant.now()),
+                new RevokedToken(active, Instant.now().plusSeconds(3600), Instant.now())));
+        tokenRevocationService.pollRevocations();
+
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        tokenRevocationService.pruneExpired();
+
+        assertFalse(tokenRevocationService.isRevoked(expired));
+        assertTrue(tokenRevocationService.isRevoked(active));
+        verify(repository).deleteExpired(any());
+    }
+
+    // Con el filtro cargado: ningun jti aleatorio sale revocado (falso positivo descartado por el conjunto
+    // exacto) y todos los revocados se encuentran
+    @Test
+    void isRevoked_ShouldRejectUnknownJtis_AndFindEveryRevokedOne() {
+        List<RevokedToken> revoked = IntStream.range(0, 1000)
+                .mapToObj(i -> new RevokedToken(UUID.randomUUID().toString(),
+                        Instant.now().plusSeconds(3600), Instant.now()))
+                .toList();
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(revoked);
+        tokenRevocationService.pollRevocations();
+
+        for (int i = 0; i < 100_000; i++) {
+            assertFalse(tokenRevocationService.isRevoked(UUID.randomUUID().toString()));
+        }
+        revoked.forEach(token -> assertTrue(tokenRevocationService.isRevoked(token.getJti())));
+    }
+}
@@ -0,0 +1,127 @@
+package com.fran.users_service.app;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fran.users_service.app.config.SecurityConfig;
+import com.fran.users_service.app.controllers.UserController;
+import com.fran.users_service.app.dtos.UserBatchRequestDto;
+import com.fran.users_service.app.dtos.UserDTO;
+import com.fran.users_service.app.dtos.UserLookupDto;
+import com.fran.users_service.app.services.JpaUserDetailsService;
+import com.fran.users_service.app.services.JwtService;
+import com.fran.users_service.app.services.RefreshTokenService;
+import com.fran.users_service.app.services.UserService;
+
+// Reglas de SecurityConfig para los listados completos de usuarios (UserControllerTest no la carga)
+@WebMvcTest(UserController.class)
+@Import(SecurityConfig.class)
+public class UserAdminAccessTest {
+
+    private static final String API_URL = "/api/v1/users";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockBean
+    private JpaUserDetailsService userDetailsService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void export_ShouldBeForbidden_ForNonAdmin() throws Exception {
+        mockMvc.perform(get(API_URL + "/export"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void export_ShouldStartStreaming_ForAdmin() throws Exception {
+        mockMvc.perform(get(API_URL + "/export"))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void listUsers_ShouldBeForbidden_ForNonAdmin() throws Exception {
+        mockMvc.perform(get(API_URL))
+                .andExpect(status().isForbidden());
+
+        verify(userService, never()).listUsers(null, 50);
+    }
+
+    @Test
+    void findAll_ShouldRequireAuthentication() throws Exception {
+        mockMvc.perform(get(API_URL + "/findAll"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void findAll_ShouldReturnProjectionWithoutPassword_ForAdmin() throws Exception {
+        when(userService.findAll()).thenReturn(List.of(new UserDTO(1L, "Test User", "test@example.com", "600000000")));
+
+        mockMvc.perform(get(API_URL + "/findAll"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email").value("test@example.com"))
+                .andExpect(jsonPath("$[0].password").doesNotExist());
+
+        verify(userService, times(1)).findAll();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void lookupUsers_ShouldBeForbidden_ForNonAdmin() throws Exception {
+        mockMvc.perform(post(API_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,2,3]}"))
+                .andExpect(status().isForbidden());
+
+        verify(userService, never()).lookupUsers(any(UserBatchRequestDto.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void lookupUsers_ShouldReturnUsers_ForAdmin() throws Exception {
+        when(userService.lookupUsers(any(UserBatchRequestDto.class)))
+                .thenReturn(List.of(new UserLookupDto(null, 1L, true,
+                        new UserDTO(1L, "Test User", "test@example.com", "600000000"))));
+
+        mockMvc.perform(post(API_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].user.email").value("test@example.com"));
+    }
+}
@@ -25,8 +25,10 @@ import com.fran.users_service.app.dtos.LoginRequestDto;
 import com.fran.users_service.app.dtos.RegisterRequestDto;
 import com.fran.users_service.app.dtos.UpdateUserDTO;
 import com.fran.users_service.app.dtos.UserDTO;
+import com.fran.users_service.app.dtos.UserPageDto;
 import com.fran.users_service.app.models.User;
 import com.fran.users_service.app.services.JwtService;
+import com.fran.users_service.app.services.RefreshTokenService;
 import com.fran.users_service.app.services.UserService;
 
 import org.springframework.http.MediaType;
@@ -56,6 +58,9 @@ public class UserControllerTest {
     @MockBean
     private PasswordEncoder passwordEncoder;
 
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
     private final String API_URL = "/api/v1/users";
     private final String TEST_EMAIL = "test@example.com";
     private final String TEST_PASSWORD = "password123";
@@ -267,7 +272,8 @@ public class UserControllerTest {
     @Test
     @WithMockUser(roles = { "ADMIN" })
     void findAll_ShouldReturnListOfUsers_AndStatus200() throws Exception {
-        List<User> expectedList = Arrays.asList(testUser, new User());
+        List<UserDTO> expectedList = Arrays.asList(new UserDTO(USER_ID, "Test User", TEST_EMAIL, null),
+                new UserDTO(2L, "Otro", "otro@example.com", null));
         when(userService.findAll()).thenReturn(expectedList);
 
         mockMvc.perform(get(API_URL + "/findAll")
@@ -278,4 +284,62 @@ public class UserControllerTest {
 
         verify(userService, times(1)).findAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = { "ADMIN" })
+    void listUsers_ShouldReturnPageWithCursor_AndStatus200() throws Exception {
+
+        UserPageDto page = new UserPageDto(List.of(new UserDTO(USER_ID, "Test User", TEST_EMAIL, "123")), USER_ID);
+        when(userService.listUsers(null, 50)).thenReturn(page);
+
+        mockMvc.perform(get(API_URL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].email").value(TEST_EMAIL))
+                .andExpect(jsonPath("$.nextCursor").value(USER_ID));
+
+        verify(userService, times(1)).listUsers(null, 50);
+    }
+
+    @Test
+    @WithMockUser(username = TEST_EMAIL)
+    void logout_ShouldRevokePresentedToken_AndStatus204() throws Exception {
+
+        mockMvc.perform(post(API_URL + "/logout")
+                .header("Authorization", "Bearer test.token.jwt")
+                .with(csrf()))
+                .andExpect(status().isNoContent());
+
+        verify(jwJwtService, times(1)).revokeToken("test.token.jwt");
+        verify(refreshTokenService, times(1)).revokeSession(TEST_EMAIL, null);
+    }
+
+    @Test
+    @WithMockUser(username = TEST_EMAIL)
+    void logout_ShouldRevokeRefreshSession_WhenRefreshTokenIsSent() throws Exception {
+
+        mockMvc.perform(post(API_URL + "/logout")
+                .header("Authorization", "Bearer test.token.jwt")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"opaque-refresh-token\"}")
+                .with(csrf()))
+                .andExpect(status().isNoContent());
+
+        verify(refreshTokenService, times(1)).revokeSession(TEST_EMAIL, "opaque-refresh-token");
+    }
+
+    @Test
+    @WithMockUser
+    void refresh_ShouldReturnNewTokens_AndStatus200() throws Exception {
+
+        when(refreshTokenService.refresh("opaque-refresh-token"))
+                .thenReturn(new AuthResponseDto("new.token.jwt", TEST_EMAIL, "USER", "next-refresh-token"));
+
+        mockMvc.perform(post(API_URL + "/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"opaque-refresh-token\"}")
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("new.token.jwt"))
+                .andExpect(jsonPath("$.refreshToken").value("next-refresh-token"));
+    }
+}
@@ -0,0 +1,168 @@
+package com.fran.users_service.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fran.users_service.app.dtos.UserDTO;
+import com.fran.users_service.app.models.User;
+import com.fran.users_service.app.repositories.IUserRepository;
+import com.fran.users_service.app.services.UserCache;
+import com.fran.users_service.app.services.UserCacheBroadcaster;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Integracion contra H2 en memoria: cada llamada al repositorio en su propia transaccion/sesion,
+// asi lo que no lanza SQL sale de la cache de segundo nivel y no de la sesion
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserSecondLevelCacheTest {
+
+    private static final String TEST_EMAIL = "test@example.com";
+
+    @Autowired
+    private IUserRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+
+        User user = new User();
+        user.setName("Test User");
+        user.setEmail(TEST_EMAIL);
+        user.setPhone("600000000");
+        user.setPassword("hash");
+        repository.save(user);
+
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private long statements() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void findByEmail_ShouldHitDatabaseOnlyOnce() {
+        assertTrue(repository.findByEmail(TEST_EMAIL).isPresent());
+        long afterFirstRead = statements();
+
+        assertTrue(repository.findByEmail(TEST_EMAIL).isPresent());
+        assertTrue(repository.existsByEmail(TEST_EMAIL));
+        assertTrue(repository.findIdByEmail(TEST_EMAIL).isPresent());
+
+        assertTrue(afterFirstRead > 0);
+        assertEquals(afterFirstRead, statements());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+        assertTrue(statistics.getDomainDataRegionStatistics("users").getHitCount() > 0);
+    }
+
+    @Test
+    void findByEmail_ShouldFollowEmailChange() {
+        User user = repository.findByEmail(TEST_EMAIL).orElseThrow();
+
+        user.setEmail("nuevo@example.com");
+        repository.save(user);
+
+        assertFalse(repository.findByEmail(TEST_EMAIL).isPresent());
+        assertEquals(user.getId(), repository.findIdByEmail("nuevo@example.com").orElseThrow());
+    }
+
+    @Test
+    void findByEmail_ShouldNotSeeDeletedUser() {
+        User user = repository.findByEmail(TEST_EMAIL).orElseThrow();
+
+        repository.delete(user);
+
+        assertFalse(repository.existsByEmail(TEST_EMAIL));
+    }
+
+    @Test
+    void findUserDTOByEmail_ShouldUseQueryCache_UntilUsersTableChanges() {
+        UserDTO first = repository.findUserDTOByEmail(TEST_EMAIL).orElseThrow();
+        long afterFirstRead = statements();
+
+        repository.findUserDTOByEmail(TEST_EMAIL).orElseThrow();
+        assertEquals(afterFirstRead, statements());
+        assertTrue(statistics.getQueryRegionStatistics("users-query").getHitCount() > 0);
+
+        User user = repository.findByEmail(TEST_EMAIL).orElseThrow();
+        user.setName("Otro nombre");
+        repository.save(user);
+
+        UserDTO updated = repository.findUserDTOByEmail(TEST_EMAIL).orElseThrow();
+        assertEquals("Test User", first.getName());
+        assertEquals("Otro nombre", updated.getName());
+    }
+
+    // Otra replica cambia el usuario (aqui, SQL directo que no pasa por esta SessionFactory): hasta que llega
+    // su invalidacion por Kafka esta replica sigue sirviendo la copia de su cache de segundo nivel
+    @Test
+    void remoteInvalidation_ShouldEvictSecondLevelCache() {
+        User cached = repository.findByEmail(TEST_EMAIL).orElseThrow();
+        repository.findUserDTOByEmail(TEST_EMAIL).orElseThrow();
+        jdbcTemplate.update("update users set name = ?, rol = ? where id = ?", "Cambiado", "ADMIN", cached.getId());
+        assertEquals("USER", repository.findByEmail(TEST_EMAIL).orElseThrow().getRol());
+
+        UserCacheBroadcaster broadcaster = new UserCacheBroadcaster();
+        ReflectionTestUtils.setField(broadcaster, "userCache", mock(UserCache.class));
+        ReflectionTestUtils.setField(broadcaster, "entityManagerFactory", entityManagerFactory);
+        broadcaster.handleInvalidation(TEST_EMAIL, "otra-replica");
+
+        assertEquals("ADMIN", repository.findByEmail(TEST_EMAIL).orElseThrow().getRol());
+        assertEquals("Cambiado", repository.findUserDTOByEmail(TEST_EMAIL).orElseThrow().getName());
+    }
+
+    // Lecturas repetidas del perfil (lo que hace getProfile en cada peticion): sin cache una consulta por
+    // lectura, con la cache caliente ninguna
+    @Test
+    void repeatedProfileReads_ShouldRunNoSqlOnceCached() {
+        int iterations = 100;
+
+        long before = statements();
+        for (int i = 0; i < iterations; i++) {
+            sessionFactory.getCache().evictAllRegions();
+            repository.findByEmail(TEST_EMAIL);
+        }
+        long uncachedStatements = statements() - before;
+
+        repository.findByEmail(TEST_EMAIL);
+        before = statements();
+        for (int i = 0; i < iterations; i++) {
+            repository.findByEmail(TEST_EMAIL);
+        }
+        long cachedStatements = statements() - before;
+
+        assertTrue(uncachedStatements >= iterations, "SQL sin cache: " + uncachedStatements);
+        assertEquals(0, cachedStatements);
+    }
+}
@@ -1,7 +1,9 @@
 package com.fran.users_service.app;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -12,26 +14,43 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fran.users_service.app.dtos.AuthResponseDto;
 import com.fran.users_service.app.dtos.LoginRequestDto;
 import com.fran.users_service.app.dtos.RegisterRequestDto;
 import com.fran.users_service.app.dtos.UpdateUserDTO;
+import com.fran.users_service.app.dtos.UserBatchRequestDto;
 import com.fran.users_service.app.dtos.UserDTO;
+import com.fran.users_service.app.dtos.UserLookupDto;
+import com.fran.users_service.app.dtos.UserPageDto;
 import com.fran.users_service.app.models.User;
 import com.fran.users_service.app.repositories.IUserRepository;
 import com.fran.users_service.app.services.JwtService;
+import com.fran.users_service.app.services.LoginAttemptService;
+import com.fran.users_service.app.services.RefreshTokenService;
+import com.fran.users_service.app.services.UserCache;
 import com.fran.users_service.app.services.UserService;
 
 @ExtendWith(MockitoExtension.class)
@@ -49,6 +68,20 @@ public class UserServiceTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Spy
+    private UserCache userCache = new UserCache(new SimpleMeterRegistry(), event -> {
+    }, 100, Duration.ofMinutes(5));
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private LoginAttemptService loginAttemptService = new LoginAttemptService(new SimpleMeterRegistry(),
+            Duration.ofMinutes(5), 5, 50, 1000, List.of("127.0.0.1/32"));
+
     private User testUser;
     private final String TEST_EMAIL = "test@example.com";
     private final String TEST_PASSWORD = "password123";
@@ -70,14 +103,16 @@ public class UserServiceTest {
     @Test
     void findAll_ShouldReturnAllUsers() {
 
-        List<User> expectedUsers = Arrays.asList(testUser, new User());
-        when(repository.findAll()).thenReturn(expectedUsers);
+        List<UserDTO> expectedUsers = Arrays.asList(new UserDTO(USER_ID, "Test User", TEST_EMAIL, null),
+                new UserDTO(2L, "Otro", "otro@example.com", null));
+        when(repository.findAllUserDTOs()).thenReturn(expectedUsers);
 
-        List<User> actualUsers = userService.findAll();
+        List<UserDTO> actualUsers = userService.findAll();
 
         assertNotNull(actualUsers);
         assertEquals(2, actualUsers.size());
-        verify(repository, times(1)).findAll();
+        verify(repository, times(1)).findAllUserDTOs();
+        verify(repository, never()).findAll();
     }
 
     @Test
@@ -121,11 +156,13 @@ public class UserServiceTest {
         when(repository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches(TEST_PASSWORD, ENCODED_PASSWORD)).thenReturn(true);
         when(jwtService.generateToken(testUser.getEmail(), testUser.getRol())).thenReturn(TEST_TOKEN);
+        when(refreshTokenService.issue(TEST_EMAIL, "USER")).thenReturn("opaque-refresh-token");
 
         AuthResponseDto response = userService.login(request);
 
         assertNotNull(response);
         assertEquals(TEST_TOKEN, response.token());
+        assertEquals("opaque-refresh-token", response.refreshToken());
         verify(repository, times(1)).findByEmail(TEST_EMAIL);
         verify(passwordEncoder, times(1)).matches(TEST_PASSWORD, ENCODED_PASSWORD);
     }
@@ -203,6 +240,7 @@ public class UserServiceTest {
 
         verify(repository, times(1)).findById(USER_ID);
         verify(repository, times(1)).delete(testUser);
+        verify(refreshTokenService, times(1)).revokeAll(TEST_EMAIL);
     }
 
     @Test
@@ -239,6 +277,7 @@ public class UserServiceTest {
         assertEquals("ADMIN", result.getRol());
         verify(passwordEncoder, times(1)).encode("newPassword");
         verify(repository, times(1)).save(testUser); // Verifica que guarde la instancia existente
+        verify(refreshTokenService, times(1)).revokeAll(TEST_EMAIL);
     }
 
     @Test
@@ -256,6 +295,7 @@ public class UserServiceTest {
         verify(repository, times(1)).findById(USER_ID);
         verify(repository, times(1)).save(testUser);
         verify(passwordEncoder, never()).encode(anyString());
+        verify(refreshTokenService, never()).revokeAll(anyString());
     }
 
     @Test
@@ -274,6 +314,7 @@ public class UserServiceTest {
         verify(passwordEncoder, times(1)).matches(TEST_PASSWORD, ENCODED_PASSWORD);
         verify(passwordEncoder, times(1)).encode(newPass);
         verify(repository, times(1)).save(testUser);
+        verify(refreshTokenService, times(1)).revokeAll(TEST_EMAIL);
     }
 
     @Test
@@ -322,4 +363,145 @@ public class UserServiceTest {
         assertTrue(result.isEmpty());
         verify(repository, times(1)).findIdByEmail(TEST_EMAIL);
     }
+
+    @Test
+    void getProfile_ShouldHitRepositoryOnce_WhenCalledTwice() {
+        when(repository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(testUser));
+
+        userService.getProfile(TEST_EMAIL);
+        User cached = userService.getProfile(TEST_EMAIL);
+
+        assertEquals(TEST_EMAIL, cached.getEmail());
+        verify(repository, times(1)).findByEmail(TEST_EMAIL);
+    }
+
+    @Test
+    void updateUserProfile_ShouldInvalidateCachedProfile() {
+        UpdateUserDTO updateDto = new UpdateUserDTO("New Name", null, null);
+        when(repository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(testUser));
+        when(repository.findById(USER_ID)).thenReturn(Optional.of(testUser));
+        when(repository.save(any(User.class))).thenReturn(testUser);
+
+        userService.getProfile(TEST_EMAIL);
+        userService.updateUserProfile(USER_ID, updateDto);
+        userService.getProfile(TEST_EMAIL);
+
+        verify(userCache, times(1)).invalidate(TEST_EMAIL);
+        verify(repository, times(2)).findByEmail(TEST_EMAIL);
+    }
+
+    @Test
+    void updatedUser_ShouldInvalidatePreviousAndNewEmail() {
+        User updatedData = new User();
+        updatedData.setEmail("new@example.com");
+        updatedData.setPassword("newPassword");
+        when(repository.findById(USER_ID)).thenReturn(Optional.of(testUser));
+        when(repository.save(any(User.class))).thenReturn(testUser);
+
+        userService.updatedUser(USER_ID, updatedData);
+
+        verify(userCache, times(1)).invalidate(TEST_EMAIL, "new@example.com");
+    }
+
+    @Test
+    void login_ShouldRehashPassword_WhenEncodingNeedsUpgrade() {
+
+        LoginRequestDto request = new LoginRequestDto(TEST_EMAIL, TEST_PASSWORD);
+        when(repository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches(TEST_PASSWORD, ENCODED_PASSWORD)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(ENCODED_PASSWORD)).thenReturn(true);
+        when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn("strongerHash");
+
+        userService.login(request);
+
+        assertEquals("strongerHash", testUser.getPassword());
+        verify(repository, times(1)).save(testUser);
+    }
+
+    @Test
+    void login_ShouldRejectBeforeLookup_WhenEmailExceededFailures() {
+
+        LoginRequestDto request = new LoginRequestDto(TEST_EMAIL, "wrong_password");
+        when(repository.findByEmail(TEST_EMAIL)).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("wrong_password", ENCODED_PASSWORD)).thenReturn(false);
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(RuntimeException.class, () -> userService.login(request));
+        }
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> userService.login(request));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatusCode());
+        verify(repository, times(5)).findByEmail(TEST_EMAIL);
+        verify(passwordEncoder, times(5)).matches("wrong_password", ENCODED_PASSWORD);
+    }
+
+    @Test
+    void listUsers_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        List<UserDTO> rows = List.of(
+                new UserDTO(11L, "A", "a@example.com", "1"),
+                new UserDTO(12L, "B", "b@example.com", "2"),
+                new UserDTO(13L, "C", "c@example.com", "3"));
+        when(repository.findUserDTOsAfter(10L, PageRequest.of(0, 3))).thenReturn(rows);
+
+        UserPageDto page = userService.listUsers(10L, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals(12L, page.nextCursor());
+    }
+
+    @Test
+    void listUsers_ShouldReturnNullCursor_OnLastPage() {
+        when(repository.findUserDTOsAfter(0L, PageRequest.of(0, 101)))
+                .thenReturn(List.of(new UserDTO(1L, "A", "a@example.com", "1")));
+
+        // size por encima del maximo se recorta a 100
+        UserPageDto page = userService.listUsers(null, 1000);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void exportUsers_ShouldWriteOneJsonLinePerUser() throws Exception {
+        when(repository.streamAllUserDTOs()).thenReturn(Stream.of(
+                new UserDTO(1L, "A", "a@example.com", "1"),
+                new UserDTO(2L, "B", "b@example.com", "2")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userService.exportUsers(out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"email\":\"b@example.com\""));
+    }
+
+    @Test
+    void lookupUsers_ShouldKeepRequestOrder_AndMarkMissing() {
+        UserDTO first = new UserDTO(1L, "A", "a@example.com", "1");
+        UserDTO second = new UserDTO(2L, "B", "b@example.com", "2");
+        when(repository.findUserDTOsByEmailIn(any())).thenReturn(List.of(second, first));
+
+        List<UserLookupDto> result = userService.lookupUsers(new UserBatchRequestDto(
+                List.of("a@example.com", "missing@example.com", "b@example.com"), null));
+
+        assertEquals(3, result.size());
+        assertEquals(1L, result.get(0).id());
+        assertFalse(result.get(1).found());
+        assertNull(result.get(1).user());
+        assertEquals("missing@example.com", result.get(1).email());
+        assertEquals("B", result.get(2).user().getName());
+        verify(repository, times(1)).findUserDTOsByEmailIn(any());
+    }
+
+    @Test
+    void lookupUsers_ShouldRejectBatchOverLimit() {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> userService.lookupUsers(new UserBatchRequestDto(null, ids)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(repository, never()).findUserDTOsByIdIn(any());
+    }
 }